@@ -51,7 +51,12 @@ export CHECKSTYLES_RULES=$(prop project.quality.rules)
 # ---- for more information, see https://docs.oracle.com/en/java/javase/18/language/preview-language-and-vm-features.html
 # ---- define the checkstyle rule set file
 export COMPILATION_OPTS=$(prop project.compilation.opts)
-export JAR_OPTS=${COMPILATION_OPTS} $(prop project.jar.opts)
+# ---- the Vector API kernels are only compiled and loaded on demand (incubator module)
+export VECTOR=$(prop project.build.vector)
+if [ "$VECTOR" == "true" ]; then
+  export COMPILATION_OPTS="${COMPILATION_OPTS} --add-modules jdk.incubator.vector"
+fi
+export JAR_OPTS="${COMPILATION_OPTS} $(prop project.jar.opts)"
 # A dirty list of package to be build (TODO add automation on package detection)
 #export JAVADOC_CLASSPATH="$PACKAGES_LIST"
 
@@ -119,6 +124,14 @@ if [ -f .sdkmanrc ]; then
   sdk env install
   sdk env use
 fi
+# list the java sources of a path, without the Vector API ones if not requested.
+function sources() {
+  if [ "$VECTOR" == "true" ]; then
+    find $1 -name '*.java'
+  else
+    find $1 -name '*.java' -exec grep -L '^import jdk.incubator.vector' {} +
+  fi
+}
 # prepare target
 function clearTarget() {
   echo "> Clear build workspace"
@@ -151,7 +164,7 @@ function compile() {
   mkdir -p $CLASSES
   # Compile class files
   rm -Rf $CLASSES/*
-  find $SRC/main -name '*.java' >$TARGET/sources.lst
+  sources $SRC/main >$TARGET/sources.lst
   # Compilation via JavaC with some debug options to add source, lines and vars in the compiled classes.
   javac $COMPILATION_OPTS \
     -d $CLASSES \
@@ -166,7 +179,7 @@ function checkCodeStyleQA() {
   echo -e "|_ ${BLUE}3. Check code quality against rules $CHECK_RULES${NC}..."
   echo "> explore sources at : $SRC"
   mkdir -p $TARGET
-  find $SRC/main -name '*.java' >$TARGET/sources.lst
+  sources $SRC/main >$TARGET/sources.lst
   java $JAR_OPTS -cp "$LIB_CHECKSTYLES${FS}$EXTERNAL_JARS${FS}$CLASSES:." \
     -jar $LIB_CHECKSTYLES \
     -c $CHECK_RULES_FILE \
@@ -187,7 +200,9 @@ function generateJavadoc() {
   # Compile class files
   rm -Rf $TARGET/javadoc/*
   java -jar ./lib/tools/markdown2html-0.3.1.jar <README.md >$SRC/main/javadoc/overview.html
+  # the Vector API sources are always documented, javadoc does not run them.
   javadoc -source $SOURCE_VERSION \
+    --add-modules jdk.incubator.vector \
     -author -use -version \
     -doctitle \"$PROGRAM_NAME\" \
     -d $TARGET/javadoc \
@@ -222,8 +237,8 @@ function executeTests() {
   cp -r ./$TEST_RESOURCES/* $TEST_CLASSES
   echo "compile test classes"
   #list test sources
-  find $SRC/main -name '*.java' >$TARGET/sources.lst
-  find $SRC/test -name '*.java' >$TARGET/test-sources.lst
+  sources $SRC/main >$TARGET/sources.lst
+  sources $SRC/test >$TARGET/test-sources.lst
   javac -source $SOURCE_VERSION -encoding $SOURCE_ENCODING $COMPILATION_OPTS -cp ".${FS}$LIB_TEST${FS}${EXTERNAL_JARS}" -d $TEST_CLASSES @$TARGET/sources.lst @$TARGET/test-sources.lst
   echo "execute tests through JUnit"
   java $JAR_OPTS -jar $LIB_TEST --cp "${EXTERNAL_JARS}${FS}${CLASSES}${FS}${TEST_CLASSES}${FS}." --scan-class-path
@@ -6,9 +6,17 @@ export classpath=target/test-classes
 
 echo START Execute "$1" code example.
 
-javac -d $classpath \
-$(find $SRC -name "*.java") && \
+export OPTS=$(grep project.compilation.opts build.properties | cut -d'=' -f2)
+# the Vector API kernels are only compiled and loaded on demand (incubator module).
+if [ "$(grep project.build.vector build.properties | cut -d'=' -f2)" == "true" ]; then
+  export OPTS="${OPTS} --add-modules jdk.incubator.vector"
+  export SOURCES=$(find src/main $SRC -name "*.java")
+else
+  export SOURCES=$(find src/main $SRC -name "*.java" -exec grep -L '^import jdk.incubator.vector' {} +)
+fi
+
+javac $OPTS -d $classpath $SOURCES && \
 find $SRC -name "*.properties" -exec cp --parents {} $classpath \; && \
-java -cp $classpath "$1"
+java $OPTS -cp $classpath "$1"
 
 echo END Ending execution of "$1".
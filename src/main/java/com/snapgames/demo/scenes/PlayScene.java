@@ -8,6 +8,7 @@ import com.snapgames.framework.io.InputListener;
 import com.snapgames.framework.io.ResourceManager;
 import com.snapgames.framework.physic.Material;
 import com.snapgames.framework.physic.PhysicType;
+import com.snapgames.framework.physic.TileMap;
 import com.snapgames.framework.physic.World;
 import com.snapgames.framework.entity.WorldArea;
 import com.snapgames.framework.physic.math.Vector2d;
@@ -41,6 +42,17 @@ public class PlayScene extends AbstractScene {
             .setSize(800, 600)
             .setPosition(0, 0));
 
+        // some static level geometry: 2 one-way platforms and a block with a ramp.
+        getWorld().setTileMap(new TileMap(16, 16, 50, 38)
+            .fill(8, 26, 10, 1, TileMap.ONE_WAY)
+            .fill(22, 22, 10, 1, TileMap.ONE_WAY)
+            .fill(36, 30, 10, 3, TileMap.SOLID)
+            .fill(35, 31, 1, 2, TileMap.SOLID)
+            .fill(34, 32, 1, 1, TileMap.SOLID)
+            .setTile(35, 30, TileMap.SLOPE_UP)
+            .setTile(34, 31, TileMap.SLOPE_UP)
+            .setTile(33, 32, TileMap.SLOPE_UP));
+
         GridObject go = new GridObject("grid").setTileSize(16, 16).setColor(Color.DARK_GRAY).setPriority(1);
         add(go);
 
@@ -121,11 +133,11 @@ public class PlayScene extends AbstractScene {
             Color.WHITE, 100000000,
             Material.DEFAULT,
             PhysicType.STATIC,
-            5);
+            5, false);
         generate("ball_%d", world, 5, 20, 20,
             Color.RED, 5.0,
             new Material("ball_mat", 1.0, 0.7, 0.8),
-            PhysicType.DYNAMIC, 5);
+            PhysicType.DYNAMIC, 5, true);
 
         WorldArea water = (WorldArea) new WorldArea("water")
             .setFillColor(new Color(0.1f, 0.1f, 0.7f, 0.8f))
@@ -140,6 +152,19 @@ public class PlayScene extends AbstractScene {
         getWorld().add(water);
         add(water);
 
+        ParticlesObject bubbles = new ParticlesObject("bubbles", 200, 3000)
+            .setEmitRate(40)
+            .setDirection(-90).setSpread(20)
+            .setSpeed(0.01, 0.03)
+            .setParticleSize(1, 3)
+            .setColors(new Color(0.6f, 0.8f, 1.0f, 0.6f), new Color(0.8f, 0.9f, 1.0f, 0.4f))
+            .setSize(world.width, 8)
+            .setPosition(0, world.height - 8)
+            .setPhysicType(PhysicType.STATIC)
+            .setSolid(false)
+            .setPriority(21);
+        add(bubbles);
+
         WorldArea sky = (WorldArea) new WorldArea("sky")
             .setFillColor(new Color(0.0f, 0.1f, 0.3f, 0.9f))
             .setColor(null)
@@ -174,7 +199,8 @@ public class PlayScene extends AbstractScene {
                           double mass,
                           Material mat,
                           PhysicType pt,
-                          int priority) {
+                          int priority,
+                          boolean solid) {
         for (int i = 0; i < nb; i++) {
             GameObject star = new GameObject(templateName.formatted(i))
                 .setSize(maxW * Math.random(), maxH * Math.random())
@@ -184,6 +210,7 @@ public class PlayScene extends AbstractScene {
                 .setMass(mass)
                 .setMaterial(mat)
                 .setPhysicType(pt)
+                .setSolid(solid)
                 .setPriority(priority);
             add(star);
         }
@@ -0,0 +1,308 @@
+package com.snapgames.framework.behaviors;
+
+import com.snapgames.framework.entity.Entity;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * The {@link RippleWaterSimulator} provides a 2D ripple simulation for a large water surface (a WorldArea seen
+ * from above): a heightfield of cells where each disturbance spreads as circular waves.
+ * <p>
+ * The heightfield is split into square tiles of cells and only the active tiles are computed: a tile is
+ * activated by a disturbance or by a wave reaching its border, and goes back to rest (its cells are reset
+ * to 0) when its waves stay under the rest threshold for some steps. A calm lake costs nothing.
+ * <p>
+ * The disturbances from the collisions are queued and applied all at once at the beginning of the next step.
+ * Like the {@link WaveWaterSimulator}, the simulation runs with a fixed time step on 2 swapped buffers.
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * WorldArea lake = new WorldArea("lake")
+ *     .setSize(2048, 2048)
+ *     .add(new RippleWaterSimulator(4, 16, 0.98));
+ * </code></pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class RippleWaterSimulator<T extends Entity<T>> implements Behavior<T> {
+
+    /**
+     * Maximum alpha of a drawn cell.
+     */
+    private static final int MAX_ALPHA = 160;
+    /**
+     * The colors of the crests and the troughs, for each alpha level.
+     */
+    private static final Color[] CRESTS = new Color[MAX_ALPHA + 1], TROUGHS = new Color[MAX_ALPHA + 1];
+
+    static {
+        for (int alpha = 0; alpha <= MAX_ALPHA; alpha++) {
+            CRESTS[alpha] = new Color(255, 255, 255, alpha);
+            TROUGHS[alpha] = new Color(0, 0, 64, alpha);
+        }
+    }
+
+    /**
+     * Size in pixels of a heightfield cell
+     */
+    private final int cellSize;
+    /**
+     * Number of cells on each side of a tile
+     */
+    private final int tileCells;
+    /**
+     * Facteur d'amortissement des vagues
+     */
+    private final double damping;
+    /**
+     * Hauteur sous laquelle une cellule est considérée au repos
+     */
+    private double restThreshold = 0.01;
+    /**
+     * Nombre de pas au repos avant la désactivation d'une tuile
+     */
+    private int restSteps = 30;
+    /**
+     * Force d'une perturbation par unité de vitesse de l'entité en collision
+     */
+    private double strength = 50.0;
+
+    private double stepDuration = 16.0;
+    private int maxSteps = 4;
+    private double accumulator = 0;
+
+    private int cols, rows, tileCols, tileRows;
+    private double[] current = new double[0], previous = new double[0];
+
+    private boolean[] active = new boolean[0];
+    private int[] restCounters = new int[0];
+    private int[] activeTiles = new int[0];
+    private int activeCount = 0;
+
+    // disturbances queued until the next step.
+    private int[] disturbCells = new int[16];
+    private double[] disturbForces = new double[16];
+    private int disturbCount = 0;
+
+    public RippleWaterSimulator() {
+        this(4, 16, 0.98);
+    }
+
+    /**
+     * @param cellSize  size in pixels of a heightfield cell.
+     * @param tileCells number of cells on each side of a tile.
+     * @param damping   wave damping factor, between 0 and 1.
+     */
+    public RippleWaterSimulator(int cellSize, int tileCells, double damping) {
+        this.cellSize = Math.max(1, cellSize);
+        this.tileCells = Math.max(1, tileCells);
+        this.damping = damping;
+    }
+
+    @Override
+    public void start(T e) {
+        cols = Math.max(3, (int) Math.ceil(e.getWidth() / cellSize));
+        rows = Math.max(3, (int) Math.ceil(e.getHeight() / cellSize));
+        tileCols = (cols + tileCells - 1) / tileCells;
+        tileRows = (rows + tileCells - 1) / tileCells;
+        current = new double[cols * rows];
+        previous = new double[cols * rows];
+        active = new boolean[tileCols * tileRows];
+        restCounters = new int[tileCols * tileRows];
+        activeTiles = new int[tileCols * tileRows];
+        activeCount = 0;
+        disturbCount = 0;
+        accumulator = 0;
+    }
+
+    @Override
+    public void onCollision(Entity<?> a, Entity<?> b) {
+        disturb(b.getCenterX() - a.getX(), b.getCenterY() - a.getY(), b.getVelocity().length() * strength);
+    }
+
+    /**
+     * Queue a disturbance of the surface, to be applied at the beginning of the next step.
+     *
+     * @param x     the horizontal position relative to the water area
+     * @param y     the vertical position relative to the water area
+     * @param force the height added to the surface at this position.
+     */
+    public void disturb(double x, double y, double force) {
+        int cx = (int) (x / cellSize), cy = (int) (y / cellSize);
+        // the border cells stay at rest.
+        if (cx < 1 || cy < 1 || cx >= cols - 1 || cy >= rows - 1 || force == 0) {
+            return;
+        }
+        if (disturbCount == disturbCells.length) {
+            disturbCells = Arrays.copyOf(disturbCells, disturbCount * 2);
+            disturbForces = Arrays.copyOf(disturbForces, disturbCount * 2);
+        }
+        disturbCells[disturbCount] = cy * cols + cx;
+        disturbForces[disturbCount++] = force;
+    }
+
+    @Override
+    public void update(T e, double elapsed) {
+        accumulator += elapsed;
+        int steps = 0;
+        while (accumulator >= stepDuration && steps < maxSteps) {
+            step();
+            accumulator -= stepDuration;
+            steps++;
+        }
+        if (steps == maxSteps) {
+            accumulator = Math.min(accumulator, stepDuration);
+        }
+    }
+
+    /**
+     * Apply the queued disturbances, then compute one step of all the active tiles.
+     */
+    public void step() {
+        for (int i = 0; i < disturbCount; i++) {
+            int cell = disturbCells[i];
+            current[cell] += disturbForces[i];
+            activate(tileOf(cell % cols, cell / cols));
+        }
+        disturbCount = 0;
+
+        // new waves are written into the previous buffer, which then becomes the current one.
+        int count = activeCount;
+        for (int t = 0; t < count; t++) {
+            computeTile(activeTiles[t]);
+        }
+        double[] swap = current;
+        current = previous;
+        previous = swap;
+
+        // put the calm tiles to rest.
+        int kept = 0;
+        for (int t = 0; t < activeCount; t++) {
+            int tile = activeTiles[t];
+            if (restCounters[tile] >= restSteps) {
+                clearTile(tile);
+                active[tile] = false;
+            } else {
+                activeTiles[kept++] = tile;
+            }
+        }
+        activeCount = kept;
+    }
+
+    private void computeTile(int tile) {
+        int tx = tile % tileCols, ty = tile / tileCols;
+        int x0 = Math.max(1, tx * tileCells), x1 = Math.min(cols - 1, (tx + 1) * tileCells);
+        int y0 = Math.max(1, ty * tileCells), y1 = Math.min(rows - 1, (ty + 1) * tileCells);
+        double max = 0;
+        boolean left = false, right = false, top = false, bottom = false;
+        for (int y = y0; y < y1; y++) {
+            int row = y * cols;
+            for (int x = x0; x < x1; x++) {
+                int i = row + x;
+                double h = ((current[i - 1] + current[i + 1] + current[i - cols] + current[i + cols]) * 0.5
+                    - previous[i]) * damping;
+                previous[i] = h;
+                double a = Math.abs(h);
+                if (a > restThreshold) {
+                    max = Math.max(max, a);
+                    left |= x == x0;
+                    right |= x == x1 - 1;
+                    top |= y == y0;
+                    bottom |= y == y1 - 1;
+                }
+            }
+        }
+        restCounters[tile] = max > restThreshold ? 0 : restCounters[tile] + 1;
+        // waves reaching the tile sides wake the neighbour tiles up.
+        if (left && tx > 0) {
+            activate(tile - 1);
+        }
+        if (right && tx < tileCols - 1) {
+            activate(tile + 1);
+        }
+        if (top && ty > 0) {
+            activate(tile - tileCols);
+        }
+        if (bottom && ty < tileRows - 1) {
+            activate(tile + tileCols);
+        }
+    }
+
+    private void clearTile(int tile) {
+        int tx = tile % tileCols, ty = tile / tileCols;
+        int x0 = tx * tileCells, x1 = Math.min(cols, x0 + tileCells);
+        int y0 = ty * tileCells, y1 = Math.min(rows, y0 + tileCells);
+        for (int y = y0; y < y1; y++) {
+            Arrays.fill(current, y * cols + x0, y * cols + x1, 0.0);
+            Arrays.fill(previous, y * cols + x0, y * cols + x1, 0.0);
+        }
+    }
+
+    private int tileOf(int cx, int cy) {
+        return (cy / tileCells) * tileCols + cx / tileCells;
+    }
+
+    private void activate(int tile) {
+        restCounters[tile] = 0;
+        if (!active[tile]) {
+            active[tile] = true;
+            activeTiles[activeCount++] = tile;
+        }
+    }
+
+    @Override
+    public void draw(Graphics2D g, T e) {
+        for (int t = 0; t < activeCount; t++) {
+            int tile = activeTiles[t];
+            int x0 = (tile % tileCols) * tileCells, y0 = (tile / tileCols) * tileCells;
+            for (int y = y0; y < Math.min(rows, y0 + tileCells); y++) {
+                for (int x = x0; x < Math.min(cols, x0 + tileCells); x++) {
+                    double h = current[y * cols + x];
+                    if (Math.abs(h) > restThreshold) {
+                        int alpha = (int) Math.min(MAX_ALPHA, Math.abs(h) * 8);
+                        g.setColor(h > 0 ? CRESTS[alpha] : TROUGHS[alpha]);
+                        g.fillRect((int) e.getX() + x * cellSize, (int) e.getY() + y * cellSize, cellSize, cellSize);
+                    }
+                }
+            }
+        }
+    }
+
+    public RippleWaterSimulator<T> setRestThreshold(double restThreshold) {
+        this.restThreshold = restThreshold;
+        return this;
+    }
+
+    public RippleWaterSimulator<T> setRestSteps(int restSteps) {
+        this.restSteps = restSteps;
+        return this;
+    }
+
+    public RippleWaterSimulator<T> setStrength(double strength) {
+        this.strength = strength;
+        return this;
+    }
+
+    public RippleWaterSimulator<T> setStepDuration(double stepDuration) {
+        this.stepDuration = Math.max(1, stepDuration);
+        return this;
+    }
+
+    /**
+     * @param cx the cell column
+     * @param cy the cell row
+     * @return the surface height of the cell for the current step.
+     */
+    public double getHeight(int cx, int cy) {
+        return current[cy * cols + cx];
+    }
+
+    /**
+     * @return the number of tiles computed during the last step.
+     */
+    public int getActiveTileCount() {
+        return activeCount;
+    }
+}
@@ -0,0 +1,29 @@
+package com.snapgames.framework.behaviors;
+
+/**
+ * The {@link ScalarWaveKernel} is the plain loop implementation of the {@link WaveKernel}.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class ScalarWaveKernel implements WaveKernel {
+
+    @Override
+    public void step(double[] h, double[] v, double[] nextH, double[] nextV, int n,
+                     double tension, double damping, double viscosity) {
+        step(h, v, nextH, nextV, 1, n - 1, tension, damping, viscosity);
+    }
+
+    /**
+     * Compute the points in the [from, to) range.
+     */
+    void step(double[] h, double[] v, double[] nextH, double[] nextV, int from, int to,
+              double tension, double damping, double viscosity) {
+        for (int i = from; i < to; i++) {
+            double velocity = (v[i] + (h[i - 1] + h[i + 1] - h[i] * 2) * tension) * damping;
+            velocity += (v[i - 1] + v[i + 1] - v[i] * 2) * viscosity;
+            nextV[i] = velocity;
+            nextH[i] = h[i] + velocity;
+        }
+    }
+}
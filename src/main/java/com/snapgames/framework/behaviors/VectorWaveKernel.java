@@ -0,0 +1,44 @@
+package com.snapgames.framework.behaviors;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The {@link VectorWaveKernel} processes the surface points by lanes of the preferred {@link DoubleVector}
+ * species, the remaining points being processed by the {@link ScalarWaveKernel}. Each operation is the
+ * lane-wise version of the scalar one, so both implementations give the same result.
+ * <p>
+ * This class needs the <code>jdk.incubator.vector</code> module at compile and run time; it must only be
+ * created through {@link WaveKernel#create(boolean)}.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class VectorWaveKernel implements WaveKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private final ScalarWaveKernel tail = new ScalarWaveKernel();
+
+    @Override
+    public void step(double[] h, double[] v, double[] nextH, double[] nextV, int n,
+                     double tension, double damping, double viscosity) {
+        int i = 1;
+        // the i+1 neighbour of the last lane must stay inside the arrays.
+        int upper = 1 + SPECIES.loopBound(n - 2);
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector hl = DoubleVector.fromArray(SPECIES, h, i - 1);
+            DoubleVector hc = DoubleVector.fromArray(SPECIES, h, i);
+            DoubleVector hr = DoubleVector.fromArray(SPECIES, h, i + 1);
+            DoubleVector vl = DoubleVector.fromArray(SPECIES, v, i - 1);
+            DoubleVector vc = DoubleVector.fromArray(SPECIES, v, i);
+            DoubleVector vr = DoubleVector.fromArray(SPECIES, v, i + 1);
+
+            DoubleVector velocity = vc.add(hl.add(hr).sub(hc.mul(2)).mul(tension)).mul(damping);
+            velocity = velocity.add(vl.add(vr).sub(vc.mul(2)).mul(viscosity));
+            velocity.intoArray(nextV, i);
+            hc.add(velocity).intoArray(nextH, i);
+        }
+        tail.step(h, v, nextH, nextV, i, n - 1, tension, damping, viscosity);
+    }
+}
@@ -0,0 +1,56 @@
+package com.snapgames.framework.behaviors;
+
+import static com.snapgames.framework.utils.Log.warn;
+
+/**
+ * A {@link WaveKernel} computes one step of the {@link WaveWaterSimulator} surface: the heights and velocities
+ * are read from the current buffers and written into the next ones, so every point only sees the values
+ * of its neighbours from the previous step.
+ * <p>
+ * Two implementations are available: the {@link ScalarWaveKernel} and the {@link VectorWaveKernel} using the
+ * JDK Vector API (<code>jdk.incubator.vector</code> module).
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public interface WaveKernel {
+
+    /**
+     * Compute the points from 1 to n-2, the first and last points being fixed.
+     *
+     * @param h         the current heights
+     * @param v         the current velocities
+     * @param nextH     the heights to be computed
+     * @param nextV     the velocities to be computed
+     * @param n         the number of points
+     * @param tension   the spring tension between the points
+     * @param damping   the velocity damping factor
+     * @param viscosity the velocity smoothing factor
+     */
+    void step(double[] h, double[] v, double[] nextH, double[] nextV, int n,
+              double tension, double damping, double viscosity);
+
+    /**
+     * Create the requested kernel.
+     *
+     * @param vectorized true to use the Vector API implementation if the <code>jdk.incubator.vector</code>
+     *                   module is available.
+     * @return the {@link WaveKernel} instance, the {@link ScalarWaveKernel} as a fallback.
+     */
+    static WaveKernel create(boolean vectorized) {
+        if (vectorized) {
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+                try {
+                    // loaded by name to never link the Vector API when the module is not there.
+                    return (WaveKernel) Class.forName("com.snapgames.framework.behaviors.VectorWaveKernel")
+                        .getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    warn(WaveKernel.class, "Unable to create the vector wave kernel: %s", e.getMessage());
+                }
+            } else {
+                warn(WaveKernel.class, "Module jdk.incubator.vector not available, fallback to scalar wave kernel.");
+            }
+        }
+        return new ScalarWaveKernel();
+    }
+}
@@ -10,6 +10,11 @@ import java.awt.event.KeyEvent;
  * The {@link WaveWaterSimulator} provides specific Behavior processing for a WorldArea to be used as Water.
  * <p>
  * It will interact with its own environment and with colliding objects.
+ * <p>
+ * The surface is computed with a fixed time step (see {@link #setStepDuration(double)}), whatever the frame
+ * elapsed time, on 2 pairs of height/velocity buffers swapped after each step: nothing is allocated during
+ * the update, and each point only reads the previous step values of its neighbours. The step itself is
+ * delegated to a {@link WaveKernel}, optionally vectorized (see {@link #setVectorized(boolean)}).
  *
  * @author Frederic Delorme
  * @since 1.0.1
@@ -33,8 +38,25 @@ public class WaveWaterSimulator<T extends Entity<T>> implements Behavior<T> {
      */
     private double viscosity = 0.1;
 
-    double points[];      // Positions des points sur l'axe Y (hauteur)
-    double velocity[];     // Vitesse de chaque point
+    /**
+     * Durée fixe (en ms) d'un pas de simulation
+     */
+    private double stepDuration = 16.0;
+    /**
+     * Nombre maximum de pas par mise à jour, le temps restant est ignoré
+     */
+    private int maxSteps = 4;
+    /**
+     * Temps écoulé pas encore simulé
+     */
+    private double accumulator = 0;
+
+    double points[];      // Positions des points sur l'axe Y (hauteur), pas courant
+    double velocity[];     // Vitesse de chaque point, pas courant
+    private double nextPoints[];   // Positions calculées au pas suivant
+    private double nextVelocity[]; // Vitesses calculées au pas suivant
+
+    private WaveKernel kernel = new ScalarWaveKernel();
 
 
     public WaveWaterSimulator() {
@@ -49,6 +71,8 @@ public class WaveWaterSimulator<T extends Entity<T>> implements Behavior<T> {
         this.viscosity = viscosity;
         points = new double[nbSegments];       // Positions des points sur l'axe Y (hauteur)
         velocity = new double[nbSegments];
+        nextPoints = new double[nbSegments];
+        nextVelocity = new double[nbSegments];
     }
 
     @Override
@@ -65,6 +89,10 @@ public class WaveWaterSimulator<T extends Entity<T>> implements Behavior<T> {
             points[i] = e.getHeight();  // La hauteur de base de l'eau (niveau normal)
             velocity[i] = 0.0f;      // Initialiser la vitesse à 0
         }
+        // les extrémités sont fixes : elles ne sont jamais recalculées.
+        System.arraycopy(points, 0, nextPoints, 0, nbSegments);
+        System.arraycopy(velocity, 0, nextVelocity, 0, nbSegments);
+        accumulator = 0;
     }
 
     private void disturbWater(int index, double force) {
@@ -77,7 +105,7 @@ public class WaveWaterSimulator<T extends Entity<T>> implements Behavior<T> {
     public void onCollision(Entity<?> a, Entity<?> b) {
         if (b.getMass() > 10 && b.getMass() < 100) {
             double force = 0.05;
-            int segmentWidth = (int) a.getWidth() / nbSegments;
+            double segmentWidth = a.getWidth() / nbSegments;
             int index = (int) (b.getX() / segmentWidth);  // Trouve l'index correspondant à la position X du joueur
             disturbWater(index, force);          // Perturbe la surface à cet endroit
         }
@@ -85,42 +113,77 @@ public class WaveWaterSimulator<T extends Entity<T>> implements Behavior<T> {
 
     @Override
     public void update(T e, double elapsed) {
-        // Tableau temporaire pour stocker les nouvelles positions après mise à jour
-        double[] newPoints = new double[nbSegments];
-        for (int i = 0; i < nbSegments; i++) {
-            newPoints[i] = points[i];  // Initialiser les nouvelles positions
+        accumulator += elapsed;
+        int steps = 0;
+        while (accumulator >= stepDuration && steps < maxSteps) {
+            step();
+            accumulator -= stepDuration;
+            steps++;
         }
+        if (steps == maxSteps) {
+            // trop de retard : le temps restant est ignoré.
+            accumulator = Math.min(accumulator, stepDuration);
+        }
+    }
 
-        // Mise à jour de chaque point en fonction de ses voisins
-        for (int i = 1; i < nbSegments - 1; i++) {
-            double leftDelta = points[i - 1] - points[i];  // Influence du voisin de gauche
-            double rightDelta = points[i + 1] - points[i]; // Influence du voisin de droite
-
-            // Mise à jour de la vitesse en tenant compte de la tension
-            velocity[i] += tension * (leftDelta + rightDelta);
-            velocity[i] *= damping;  // Amortissement (ralentit les vagues)
+    /**
+     * Calcule un pas de simulation du pas courant vers le pas suivant, puis échange les tampons.
+     */
+    public void step() {
+        kernel.step(points, velocity, nextPoints, nextVelocity, nbSegments, tension, damping, viscosity);
+        double[] swap = points;
+        points = nextPoints;
+        nextPoints = swap;
+        swap = velocity;
+        velocity = nextVelocity;
+        nextVelocity = swap;
+        // les extrémités fixes sont conservées dans les deux tampons.
+        if (nbSegments > 0) {
+            nextPoints[0] = points[0];
+            nextPoints[nbSegments - 1] = points[nbSegments - 1];
+            nextVelocity[0] = velocity[0];
+            nextVelocity[nbSegments - 1] = velocity[nbSegments - 1];
+        }
+    }
 
-            // Ajout de l'effet de viscosité en moyennant les vitesses avec les voisins
-            double viscosityEffect = viscosity * (velocity[i - 1] + velocity[i + 1] - 2 * velocity[i]);
-            velocity[i] += viscosityEffect;
+    /**
+     * Use the Vector API kernel if the <code>jdk.incubator.vector</code> module is available.
+     *
+     * @param vectorized true to use the {@link VectorWaveKernel}.
+     * @return the updated {@link WaveWaterSimulator}.
+     */
+    public WaveWaterSimulator<T> setVectorized(boolean vectorized) {
+        this.kernel = WaveKernel.create(vectorized);
+        return this;
+    }
 
-            // Mise à jour de la position Y en fonction de la nouvelle vitesse
-            newPoints[i] += velocity[i];
-        }
+    /**
+     * Set the fixed duration of a simulation step.
+     *
+     * @param stepDuration the step duration in milliseconds.
+     * @return the updated {@link WaveWaterSimulator}.
+     */
+    public WaveWaterSimulator<T> setStepDuration(double stepDuration) {
+        this.stepDuration = Math.max(1, stepDuration);
+        return this;
+    }
 
-        // Mise à jour des positions des points après avoir calculé toutes les nouvelles valeurs
-        System.arraycopy(newPoints, 0, points, 0, nbSegments);
+    /**
+     * @return the heights of the surface points for the current step.
+     */
+    public double[] getPoints() {
+        return points;
     }
 
     @Override
     public void draw(Graphics2D g, T e) {
-        int segmentWidth = (int) e.getWidth() / nbSegments;
+        double segmentWidth = e.getWidth() / nbSegments;
         g.setColor(e.getColor());
 
         for (int i = 0; i < nbSegments - 1; i++) {
             // Dessiner une ligne entre chaque paire de points
-            g.drawLine((int) e.getX() + i * segmentWidth, (int) (e.getY() + points[i] - e.getHeight()),
-                    (int) e.getX() + (i + 1) * segmentWidth, (int) (e.getY() + points[i + 1] - e.getHeight()));
+            g.drawLine((int) (e.getX() + i * segmentWidth), (int) (e.getY() + points[i] - e.getHeight()),
+                    (int) (e.getX() + (i + 1) * segmentWidth), (int) (e.getY() + points[i + 1] - e.getHeight()));
         }
     }
 }
@@ -7,6 +7,7 @@ public class Camera extends Entity<Camera> {
 
     public Camera(String name) {
         super(name);
+        setSolid(false);
     }
 
     public Camera setViewPort(double width, double height) {
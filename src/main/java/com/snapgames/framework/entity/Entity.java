@@ -3,6 +3,7 @@ package com.snapgames.framework.entity;
 import com.snapgames.framework.behaviors.Behavior;
 import com.snapgames.framework.physic.Material;
 import com.snapgames.framework.physic.PhysicType;
+import com.snapgames.framework.physic.SimulationLod;
 import com.snapgames.framework.physic.math.Vector2d;
 import com.snapgames.framework.utils.Node;
 
@@ -25,6 +26,13 @@ public class Entity<T> extends Node<T> {
 
     private boolean active = true;
     private boolean contact = false;
+    private boolean solid = true;
+    private boolean bullet = false;
+    private boolean sleeping = false;
+    private int restingFrames = 0;
+    private int layer = 1;
+    private SimulationLod.Tier lodTier = SimulationLod.Tier.FULL;
+    private double lodElapsed = 0;
 
     private Color color = Color.RED;
     private Color fillColor = Color.RED;
@@ -87,11 +95,13 @@ public class Entity<T> extends Node<T> {
 
     public T addForce(double fx, double fy) {
         forces.add(new Vector2d(fx, fy));
+        wakeUp();
         return (T) this;
     }
 
     public T addForce(Vector2d f) {
         forces.add(f);
+        wakeUp();
         return (T) this;
     }
 
@@ -127,6 +137,114 @@ public class Entity<T> extends Node<T> {
         return contact;
     }
 
+    public boolean isSolid() {
+        return solid;
+    }
+
+    public T setSolid(boolean s) {
+        this.solid = s;
+        return (T) this;
+    }
+
+    public SimulationLod.Tier getLodTier() {
+        return lodTier;
+    }
+
+    public T setLodTier(SimulationLod.Tier lodTier) {
+        this.lodTier = lodTier;
+        return (T) this;
+    }
+
+    /**
+     * @return the elapsed time (in ms) accumulated since the last update of this entity by the
+     * {@link SimulationLod}.
+     */
+    public double getLodElapsed() {
+        return lodElapsed;
+    }
+
+    public T setLodElapsed(double lodElapsed) {
+        this.lodElapsed = lodElapsed;
+        return (T) this;
+    }
+
+    public int getLayer() {
+        return layer;
+    }
+
+    /**
+     * Set the layers this entity belongs to, as a bit mask matched against the layer mask
+     * of the broad-phase queries (see {@link com.snapgames.framework.physic.SpatialGrid}).
+     *
+     * @param layer the layer bit mask (default is 1).
+     * @return the updated entity.
+     */
+    public T setLayer(int layer) {
+        this.layer = layer;
+        return (T) this;
+    }
+
+    public boolean isSleeping() {
+        return sleeping;
+    }
+
+    /**
+     * Put the entity to sleep: its velocity is reset and the {@link com.snapgames.framework.physic.PhysicEngine}
+     * will not integrate it anymore until it is woken up by a contact or a force.
+     *
+     * @param s true to put this entity to sleep, false to wake it up.
+     * @return the updated entity.
+     */
+    public T setSleeping(boolean s) {
+        this.sleeping = s;
+        this.restingFrames = 0;
+        if (s) {
+            velocity.set(0, 0);
+            acceleration.set(0, 0);
+        }
+        return (T) this;
+    }
+
+    /**
+     * Wake up the entity if it is sleeping.
+     *
+     * @return the updated entity.
+     */
+    public T wakeUp() {
+        if (sleeping) {
+            setSleeping(false);
+        }
+        return (T) this;
+    }
+
+    /**
+     * @return the number of consecutive frames this entity has been moving slowly enough to fall asleep.
+     */
+    public int getRestingFrames() {
+        return restingFrames;
+    }
+
+    public T setRestingFrames(int frames) {
+        this.restingFrames = frames;
+        return (T) this;
+    }
+
+    public boolean isBullet() {
+        return bullet;
+    }
+
+    /**
+     * A bullet entity is a small and fast-moving one: its move is swept against the other solid entities
+     * to prevent it from tunneling through them (continuous collision detection).
+     *
+     * @param b true to activate the continuous collision detection for this entity.
+     * @return the updated entity.
+     */
+    public T setBullet(boolean b) {
+        this.bullet = b;
+        return (T) this;
+    }
+
 
     public PhysicType getPhysicType() {
         return physicType;
@@ -1,10 +1,28 @@
 package com.snapgames.framework.entity;
 
+import java.awt.image.BufferedImage;
+
 public class GameObject extends Entity<GameObject> {
+    private BufferedImage image;
+
     public GameObject(String name) {
         super(name);
     }
 
+    /**
+     * @param image the sprite drawn at the position of the object, at its own size (null to fill the bounds
+     *              with the fill color).
+     * @return the updated {@link GameObject}.
+     */
+    public GameObject setImage(BufferedImage image) {
+        this.image = image;
+        return this;
+    }
+
+    public BufferedImage getImage() {
+        return image;
+    }
+
     @Override
     public String toString() {
         return "GameObject{" +
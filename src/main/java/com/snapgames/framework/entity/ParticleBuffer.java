@@ -0,0 +1,120 @@
+package com.snapgames.framework.entity;
+
+import java.util.Arrays;
+
+/**
+ * The {@link ParticleBuffer} stores the live particles of a {@link ParticlesObject} as packed primitive arrays
+ * (one array per component). The live particles are always the first {@link ParticleBuffer#size()} ones:
+ * a dead particle is replaced by the last live one (swap-remove), so nothing is shifted or allocated
+ * while the capacity is not changed.
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * ParticleBuffer buffer = new ParticleBuffer(1000);
+ * buffer.add(x, y, vx, vy, 2000, 2, 0);
+ * for (int i = 0; i &lt; buffer.size(); i++) {
+ *     buffer.x[i] += buffer.vx[i] * elapsed;
+ * }
+ * </code></pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class ParticleBuffer {
+    /**
+     * Position (in world coordinates) and velocity (in pixels per millisecond).
+     */
+    public double[] x, y, vx, vy;
+    /**
+     * Age and life duration, in milliseconds.
+     */
+    public double[] age, life;
+    /**
+     * Size of the particle, in pixels.
+     */
+    public double[] size;
+    /**
+     * Index of the particle color in the {@link ParticlesObject} palette.
+     */
+    public int[] color;
+
+    private int count = 0;
+
+    public ParticleBuffer(int capacity) {
+        setCapacity(capacity);
+    }
+
+    /**
+     * Change the maximum number of particles, the particles beyond the new capacity are dropped.
+     *
+     * @param capacity the new capacity.
+     */
+    public void setCapacity(int capacity) {
+        capacity = Math.max(1, capacity);
+        if (x != null && x.length == capacity) {
+            return;
+        }
+        x = x == null ? new double[capacity] : Arrays.copyOf(x, capacity);
+        y = y == null ? new double[capacity] : Arrays.copyOf(y, capacity);
+        vx = vx == null ? new double[capacity] : Arrays.copyOf(vx, capacity);
+        vy = vy == null ? new double[capacity] : Arrays.copyOf(vy, capacity);
+        age = age == null ? new double[capacity] : Arrays.copyOf(age, capacity);
+        life = life == null ? new double[capacity] : Arrays.copyOf(life, capacity);
+        size = size == null ? new double[capacity] : Arrays.copyOf(size, capacity);
+        color = color == null ? new int[capacity] : Arrays.copyOf(color, capacity);
+        count = Math.min(count, capacity);
+    }
+
+    /**
+     * Add a new particle, if the buffer is not full.
+     *
+     * @return the index of the new particle, or -1 if the buffer is full.
+     */
+    public int add(double px, double py, double pvx, double pvy, double pLife, double pSize, int pColor) {
+        if (count == x.length) {
+            return -1;
+        }
+        int i = count++;
+        x[i] = px;
+        y[i] = py;
+        vx[i] = pvx;
+        vy[i] = pvy;
+        age[i] = 0;
+        life[i] = pLife;
+        size[i] = pSize;
+        color[i] = pColor;
+        return i;
+    }
+
+    /**
+     * Remove a particle by moving the last live particle to its index.
+     *
+     * @param i the index of the particle to be removed.
+     */
+    public void remove(int i) {
+        int last = --count;
+        x[i] = x[last];
+        y[i] = y[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        age[i] = age[last];
+        life[i] = life[last];
+        size[i] = size[last];
+        color[i] = color[last];
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * @return the number of live particles.
+     */
+    public int size() {
+        return count;
+    }
+
+    public int capacity() {
+        return x.length;
+    }
+}
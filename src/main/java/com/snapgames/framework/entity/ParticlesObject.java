@@ -1,15 +1,39 @@
 package com.snapgames.framework.entity;
 
 import com.snapgames.framework.behaviors.ParticleBehavior;
+import com.snapgames.framework.gfx.BlendMode;
+
+import java.awt.*;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
- * A {@link ParticlesObject} is a specific {@link GameObject} that apply the
- * same {@link com.snapgames.framework.behaviors.Behavior} implementations on all its child.
+ * A {@link ParticlesObject} is a particle emitter: its particles are not {@link Entity} children but rows
+ * of a {@link ParticleBuffer} (packed primitive arrays), all updated by one loop and drawn by one call.
+ * <p>
+ * It defines the max number of particles and the life duration for all those particles. The particles are
+ * emitted inside the emitter bounds, continuously (see {@link ParticlesObject#setEmitRate(double)}) or all at
+ * once (see {@link ParticlesObject#burst(int)}), with a speed in a direction and a spread angle. A dead particle
+ * is immediately replaced by the last live one.
  * <p>
- * It also defines the Max number of child and the life duration for all those children.
+ * The particles of a large emitter can be moved in parallel chunks (see
+ * {@link ParticlesObject#updateParticles(double, ForkJoinPool, int)}): the dead particles are only removed
+ * afterward, on the calling thread, so the result is the same as the sequential update. They are drawn
+ * with the emitter {@link BlendMode}.
  * <p>
- * A specific {@link com.snapgames.framework.behaviors.Behavior} must be applied on this : the {@link ParticleBehavior},
- * it contains an additional method {@link ParticleBehavior#create(Object)}.
+ * A specific {@link com.snapgames.framework.behaviors.Behavior} can still be applied on the emitter itself :
+ * the {@link ParticleBehavior}, it contains an additional method {@link ParticleBehavior#create(Object)}.
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * ParticlesObject rain = new ParticlesObject("rain", 5000, 2000)
+ *     .setEmitRate(1000)
+ *     .setDirection(90).setSpread(10)
+ *     .setSpeed(0.2, 0.3)
+ *     .setColors(Color.CYAN, Color.BLUE)
+ *     .setSize(800, 1);
+ * </code></pre>
  *
  * @author Frédéric Delorme
  * @since 1.0.3
@@ -18,6 +42,30 @@ public class ParticlesObject extends Entity<ParticlesObject> {
     private int max = 100;
     private int life = 10000;
 
+    private final ParticleBuffer particles;
+    private SplittableRandom random = new SplittableRandom();
+
+    /**
+     * Number of particles emitted per second, and the not yet emitted fraction.
+     */
+    private double emitRate = 0, emitPending = 0;
+    /**
+     * Emission direction and spread around this direction, in radians (0 is right, PI/2 is down).
+     */
+    private double direction = -Math.PI / 2, spread = Math.PI / 4;
+    private double minSpeed = 0.05, maxSpeed = 0.1;
+    private double minSize = 1, maxSize = 2;
+    /**
+     * Acceleration applied on all the particles, in pixels per square millisecond.
+     */
+    private double gravityX = 0, gravityY = 0;
+    private Color[] colors = new Color[]{Color.WHITE};
+    /**
+     * The palette colors as ARGB values.
+     */
+    private int[] palette = new int[]{Color.WHITE.getRGB()};
+    private BlendMode blendMode = BlendMode.ALPHA;
+
     /**
      * Create a new ParticlesObject with its <code>name</code>.
      *
@@ -25,6 +73,7 @@ public class ParticlesObject extends Entity<ParticlesObject> {
      */
     public ParticlesObject(String name) {
         super(name);
+        particles = new ParticleBuffer(max);
     }
 
     /**
@@ -36,6 +85,7 @@ public class ParticlesObject extends Entity<ParticlesObject> {
     public ParticlesObject(String name, int max) {
         super(name);
         this.max = max;
+        particles = new ParticleBuffer(max);
     }
 
     /**
@@ -50,6 +100,127 @@ public class ParticlesObject extends Entity<ParticlesObject> {
         super(name);
         this.max = max;
         this.life = life;
+        particles = new ParticleBuffer(max);
+    }
+
+    /**
+     * Update all the particles: emit the new ones according to the emit rate, then age and move the
+     * live ones, removing the dead ones.
+     *
+     * @param elapsed the time elapsed since the previous update, in milliseconds.
+     */
+    public void updateParticles(double elapsed) {
+        updateParticles(elapsed, null, 0);
+    }
+
+    /**
+     * Update all the particles: emit the new ones according to the emit rate, age and move the live ones
+     * (in parallel chunks if the pool is set and there are more particles than the chunk size), then
+     * remove the dead ones.
+     *
+     * @param elapsed   the time elapsed since the previous update, in milliseconds.
+     * @param pool      the pool moving the particles in parallel, may be null.
+     * @param chunkSize the number of contiguous particles moved by one parallel task.
+     * @return the number of particles updated.
+     */
+    public int updateParticles(double elapsed, ForkJoinPool pool, int chunkSize) {
+        emitPending += emitRate * elapsed / 1000.0;
+        int nb = (int) emitPending;
+        emitPending -= nb;
+        emit(nb);
+
+        int count = particles.size();
+        if (pool != null && count > chunkSize) {
+            pool.invoke(new MoveTask(elapsed, 0, count, Math.max(1, chunkSize)));
+        } else {
+            move(elapsed, 0, count);
+        }
+        removeDeadParticles();
+        return count;
+    }
+
+    /**
+     * Age and move a range of particles, the dead ones are left in place.
+     */
+    private void move(double elapsed, int from, int to) {
+        ParticleBuffer p = particles;
+        double gx = gravityX * elapsed, gy = gravityY * elapsed;
+        for (int i = from; i < to; i++) {
+            p.age[i] += elapsed;
+            if (p.age[i] < p.life[i]) {
+                p.vx[i] += gx;
+                p.vy[i] += gy;
+                p.x[i] += p.vx[i] * elapsed;
+                p.y[i] += p.vy[i] * elapsed;
+            }
+        }
+    }
+
+    private void removeDeadParticles() {
+        ParticleBuffer p = particles;
+        int i = 0;
+        while (i < p.size()) {
+            if (p.age[i] >= p.life[i]) {
+                // the last particle takes this index and is tested right away.
+                p.remove(i);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * A ForkJoin task splitting a range of particles until the chunk size.
+     */
+    private class MoveTask extends RecursiveAction {
+        private final double elapsed;
+        private final int from, to, chunkSize;
+
+        MoveTask(double elapsed, int from, int to, int chunkSize) {
+            this.elapsed = elapsed;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                move(elapsed, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new MoveTask(elapsed, from, middle, chunkSize),
+                        new MoveTask(elapsed, middle, to, chunkSize));
+            }
+        }
+    }
+
+    /**
+     * Emit a number of particles right now, within the max number of particles.
+     *
+     * @param nb the number of particles to be emitted.
+     * @return the updated {@link ParticlesObject}.
+     */
+    public ParticlesObject burst(int nb) {
+        emit(nb);
+        return this;
+    }
+
+    private void emit(int nb) {
+        for (int n = 0; n < nb; n++) {
+            double angle = direction + (random.nextDouble() - 0.5) * spread;
+            double speed = minSpeed + random.nextDouble() * (maxSpeed - minSpeed);
+            if (particles.add(
+                    x + random.nextDouble() * width,
+                    y + random.nextDouble() * height,
+                    Math.cos(angle) * speed,
+                    Math.sin(angle) * speed,
+                    life * (0.5 + 0.5 * random.nextDouble()),
+                    minSize + random.nextDouble() * (maxSize - minSize),
+                    random.nextInt(colors.length)) < 0) {
+                return;
+            }
+        }
     }
 
     /**
@@ -63,6 +234,7 @@ public class ParticlesObject extends Entity<ParticlesObject> {
 
     /**
      * set the maximum lifetime for any new particle for this Particles>{@link Object}.
+     * Each particle lives between half and all of this duration.
      *
      * @param life the new lifetime for future particle.
      * @return the updated {@link ParticlesObject}.
@@ -78,7 +250,122 @@ public class ParticlesObject extends Entity<ParticlesObject> {
 
     public ParticlesObject setMaxNbParticles(int maxNbParticles) {
         this.max = maxNbParticles;
+        particles.setCapacity(maxNbParticles);
+        return this;
+    }
+
+    /**
+     * Set the number of particles continuously emitted.
+     *
+     * @param emitRate the number of particles per second, 0 to only emit by burst.
+     * @return the updated {@link ParticlesObject}.
+     */
+    public ParticlesObject setEmitRate(double emitRate) {
+        this.emitRate = Math.max(0, emitRate);
         return this;
     }
 
+    /**
+     * @param degrees the emission direction, in degrees (0 is right, 90 is down).
+     * @return the updated {@link ParticlesObject}.
+     */
+    public ParticlesObject setDirection(double degrees) {
+        this.direction = Math.toRadians(degrees);
+        return this;
+    }
+
+    /**
+     * @param degrees the total spread angle around the emission direction, in degrees.
+     * @return the updated {@link ParticlesObject}.
+     */
+    public ParticlesObject setSpread(double degrees) {
+        this.spread = Math.toRadians(degrees);
+        return this;
+    }
+
+    /**
+     * @param min the minimum speed of a new particle, in pixels per millisecond.
+     * @param max the maximum speed of a new particle, in pixels per millisecond.
+     * @return the updated {@link ParticlesObject}.
+     */
+    public ParticlesObject setSpeed(double min, double max) {
+        this.minSpeed = min;
+        this.maxSpeed = max;
+        return this;
+    }
+
+    /**
+     * @param min the minimum size of a new particle, in pixels.
+     * @param max the maximum size of a new particle, in pixels.
+     * @return the updated {@link ParticlesObject}.
+     */
+    public ParticlesObject setParticleSize(double min, double max) {
+        this.minSize = min;
+        this.maxSize = max;
+        return this;
+    }
+
+    /**
+     * @param gx the horizontal acceleration of all the particles, in pixels per square millisecond.
+     * @param gy the vertical acceleration of all the particles, in pixels per square millisecond.
+     * @return the updated {@link ParticlesObject}.
+     */
+    public ParticlesObject setGravity(double gx, double gy) {
+        this.gravityX = gx;
+        this.gravityY = gy;
+        return this;
+    }
+
+    /**
+     * @param colors the palette, each new particle takes one of its colors randomly.
+     * @return the updated {@link ParticlesObject}.
+     */
+    public ParticlesObject setColors(Color... colors) {
+        this.colors = colors.length > 0 ? colors : new Color[]{Color.WHITE};
+        this.palette = new int[this.colors.length];
+        for (int i = 0; i < this.colors.length; i++) {
+            palette[i] = this.colors[i].getRGB();
+        }
+        return this;
+    }
+
+    public Color[] getColors() {
+        return colors;
+    }
+
+    /**
+     * @return the palette colors as ARGB values, indexed by {@link ParticleBuffer#color}.
+     */
+    public int[] getPalette() {
+        return palette;
+    }
+
+    /**
+     * @param blendMode the way the particles are blended into the already drawn pixels.
+     * @return the updated {@link ParticlesObject}.
+     */
+    public ParticlesObject setBlendMode(BlendMode blendMode) {
+        this.blendMode = blendMode;
+        return this;
+    }
+
+    public BlendMode getBlendMode() {
+        return blendMode;
+    }
+
+    /**
+     * @param seed the seed of the emitter random generator, to replay the same emission.
+     * @return the updated {@link ParticlesObject}.
+     */
+    public ParticlesObject setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+        return this;
+    }
+
+    /**
+     * @return the live particles of this emitter.
+     */
+    public ParticleBuffer getParticles() {
+        return particles;
+    }
 }
@@ -3,6 +3,7 @@ package com.snapgames.framework.entity;
 public class WorldArea extends Entity<WorldArea> {
     public WorldArea(String name) {
         super(name);
+        setSolid(false);
     }
 
     @Override
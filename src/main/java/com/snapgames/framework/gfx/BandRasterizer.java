@@ -0,0 +1,257 @@
+package com.snapgames.framework.gfx;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The {@link BandRasterizer} is a {@link Raster} recording the drawing commands instead of executing them: on
+ * {@link BandRasterizer#flush()}, the image is split into horizontal bands, each command is binned into the
+ * bands its rows touch, and the bands are rasterized concurrently on a {@link ForkJoinPool}.
+ * <p>
+ * A band executes its commands in the recording order (the priority order of the Renderer), clipped to its
+ * own rows: the result is the same as drawing the commands one by one with a {@link Raster}, whatever the
+ * number of threads. The recorded commands must be flushed before drawing into the image with anything
+ * else (like Graphics2D).
+ * <p>
+ * The time spent in each band is accumulated until {@link BandRasterizer#resetTimings()}, to check the
+ * balance of the bands.
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * BandRasterizer bands = new BandRasterizer(drawbuffer, 4).setParallelism(4);
+ * bands.setTranslation(-camera.x, -camera.y);
+ * bands.fillRect(x, y, 2, 2, 0x80FFFFFF, BlendMode.ALPHA);
+ * bands.flush();
+ * </code></pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class BandRasterizer extends Raster {
+    private static final int FILL_RECT = 0, LINE = 1, IMAGE = 2, CLEAR = 3, CLIP = 4;
+    /**
+     * Number of ints per recorded command: operation, 4 coordinates, color and blend mode.
+     */
+    private static final int STRIDE = 7;
+    private static final BlendMode[] MODES = BlendMode.values();
+
+    private final Raster[] bands;
+    private final int bandHeight;
+    private final long[] bandTimes;
+
+    private int[] commands = new int[STRIDE * 1024];
+    private BufferedImage[] images = new BufferedImage[64];
+    private int count = 0, imageCount = 0;
+    private final int[][] bins;
+    private final int[] binSizes;
+
+    private int translateX = 0, translateY = 0;
+    private ForkJoinPool pool;
+
+    /**
+     * @param image   the image to draw into, must be backed by an int buffer.
+     * @param nbBands the number of horizontal bands the image is split into.
+     */
+    public BandRasterizer(BufferedImage image, int nbBands) {
+        super(image);
+        int n = Math.max(1, Math.min(nbBands, image.getHeight()));
+        bandHeight = (image.getHeight() + n - 1) / n;
+        // the last bands may be empty when the height is not a multiple of the number of bands.
+        n = (image.getHeight() + bandHeight - 1) / bandHeight;
+        bands = new Raster[n];
+        bandTimes = new long[n];
+        bins = new int[n][256];
+        binSizes = new int[n];
+        for (int b = 0; b < n; b++) {
+            bands[b] = new Raster(image);
+            bands[b].setClip(0, b * bandHeight, image.getWidth(), bandHeight);
+        }
+    }
+
+    /**
+     * Set the number of threads rasterizing the bands.
+     *
+     * @param threads the number of threads, 1 or less to rasterize the bands on the calling thread.
+     * @return the updated {@link BandRasterizer}.
+     */
+    public BandRasterizer setParallelism(int threads) {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        return this;
+    }
+
+    @Override
+    public void setTranslation(int tx, int ty) {
+        this.translateX = tx;
+        this.translateY = ty;
+    }
+
+    /**
+     * The clip rectangle is recorded as a command, each band keeps its part of it.
+     */
+    @Override
+    public void setClip(int x, int y, int w, int h) {
+        record(CLIP, x, y, w, h, 0, BlendMode.ALPHA, 0, getHeight());
+    }
+
+    @Override
+    public void clear(int rgb) {
+        record(CLEAR, 0, 0, 0, 0, rgb, BlendMode.ALPHA, 0, getHeight());
+    }
+
+    @Override
+    public boolean fillRect(int x, int y, int w, int h, int argb, BlendMode mode) {
+        int dx = x + translateX, dy = y + translateY;
+        if (w <= 0 || h <= 0 || dx >= getWidth() || dy >= getHeight() || dx + w <= 0 || dy + h <= 0) {
+            return false;
+        }
+        record(FILL_RECT, dx, dy, w, h, argb, mode, dy, dy + h);
+        return true;
+    }
+
+    @Override
+    public boolean drawLine(int x0, int y0, int x1, int y1, int argb, BlendMode mode) {
+        x0 += translateX;
+        y0 += translateY;
+        x1 += translateX;
+        y1 += translateY;
+        if (Math.max(x0, x1) < 0 || Math.min(x0, x1) >= getWidth()
+                || Math.max(y0, y1) < 0 || Math.min(y0, y1) >= getHeight()) {
+            return false;
+        }
+        record(LINE, x0, y0, x1, y1, argb, mode, Math.min(y0, y1), Math.max(y0, y1) + 1);
+        return true;
+    }
+
+    @Override
+    public boolean drawImage(BufferedImage image, int x, int y) {
+        if (!isReadable(image)) {
+            return false;
+        }
+        int dx = x + translateX, dy = y + translateY;
+        if (dx >= getWidth() || dy >= getHeight() || dx + image.getWidth() <= 0 || dy + image.getHeight() <= 0) {
+            return true;
+        }
+        if (imageCount == images.length) {
+            images = Arrays.copyOf(images, imageCount * 2);
+        }
+        images[imageCount] = image;
+        record(IMAGE, dx, dy, imageCount++, 0, 0, BlendMode.ALPHA, dy, dy + image.getHeight());
+        return true;
+    }
+
+    private void record(int op, int a, int b, int c, int d, int argb, BlendMode mode, int top, int bottom) {
+        if (count * STRIDE + STRIDE > commands.length) {
+            commands = Arrays.copyOf(commands, commands.length * 2);
+        }
+        int i = count * STRIDE;
+        commands[i] = op;
+        commands[i + 1] = a;
+        commands[i + 2] = b;
+        commands[i + 3] = c;
+        commands[i + 4] = d;
+        commands[i + 5] = argb;
+        commands[i + 6] = mode.ordinal();
+        int b0 = Math.max(0, top / bandHeight), b1 = Math.min(bands.length - 1, (bottom - 1) / bandHeight);
+        for (int band = b0; band <= b1; band++) {
+            if (binSizes[band] == bins[band].length) {
+                bins[band] = Arrays.copyOf(bins[band], binSizes[band] * 2);
+            }
+            bins[band][binSizes[band]++] = count;
+        }
+        count++;
+    }
+
+    /**
+     * Rasterize all the recorded commands, the bands in parallel if a parallelism has been set.
+     */
+    public void flush() {
+        if (count == 0) {
+            return;
+        }
+        if (pool == null || bands.length < 2) {
+            for (int b = 0; b < bands.length; b++) {
+                rasterize(b);
+            }
+        } else {
+            pool.invoke(new BandTask(0, bands.length));
+        }
+        count = 0;
+        Arrays.fill(images, 0, imageCount, null);
+        imageCount = 0;
+    }
+
+    private void rasterize(int band) {
+        long start = System.nanoTime();
+        Raster r = bands[band];
+        int[] bin = bins[band];
+        for (int k = 0; k < binSizes[band]; k++) {
+            int i = bin[k] * STRIDE;
+            int a = commands[i + 1], b = commands[i + 2], c = commands[i + 3], d = commands[i + 4];
+            switch (commands[i]) {
+                case FILL_RECT -> r.fillRect(a, b, c, d, commands[i + 5], MODES[commands[i + 6]]);
+                case LINE -> r.drawLine(a, b, c, d, commands[i + 5], MODES[commands[i + 6]]);
+                case IMAGE -> r.drawImage(images[c], a, b);
+                case CLEAR -> r.clear(commands[i + 5]);
+                case CLIP -> {
+                    int top = Math.max(b, band * bandHeight), bottom = Math.min(b + d, (band + 1) * bandHeight);
+                    r.setClip(a, top, c, Math.max(0, bottom - top));
+                }
+                default -> {
+                    // unknown command
+                }
+            }
+        }
+        binSizes[band] = 0;
+        bandTimes[band] += System.nanoTime() - start;
+    }
+
+    /**
+     * A ForkJoin task splitting the bands until one band per task.
+     */
+    private class BandTask extends RecursiveAction {
+        private final int from, to;
+
+        BandTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                rasterize(from);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BandTask(from, middle), new BandTask(middle, to));
+            }
+        }
+    }
+
+    /**
+     * Reset the accumulated band times, on each frame.
+     */
+    public void resetTimings() {
+        Arrays.fill(bandTimes, 0);
+    }
+
+    /**
+     * @param band the index of a band, from the top.
+     * @return the time spent rasterizing the band since the last reset, in ms.
+     */
+    public double getBandTime(int band) {
+        return bandTimes[band] / 1_000_000.0;
+    }
+
+    public int getBandCount() {
+        return bands.length;
+    }
+
+    public void dispose() {
+        setParallelism(0);
+    }
+}
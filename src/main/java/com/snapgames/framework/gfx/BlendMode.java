@@ -0,0 +1,18 @@
+package com.snapgames.framework.gfx;
+
+/**
+ * The way a color is blended into the pixels already drawn by a {@link Raster}.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public enum BlendMode {
+    /**
+     * The color covers the pixel according to its alpha ("source over").
+     */
+    ALPHA,
+    /**
+     * The color, weighted by its alpha, is added to the pixel (lights, sparks, fire).
+     */
+    ADDITIVE
+}
@@ -0,0 +1,282 @@
+package com.snapgames.framework.gfx;
+
+import com.snapgames.framework.entity.Entity;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link DirtyRegions} finds the areas of the drawbuffer to be drawn again, from the entities which
+ * changed since the previous frame.
+ * <p>
+ * On each frame, the drawn entities are tracked with their bounds in the drawbuffer and a signature of
+ * what is drawn (position, size, colors, text...). A new entity, or an entity whose bounds or signature
+ * changed, marks its previous and current bounds as dirty; an entity no longer drawn marks its previous
+ * bounds. The dirty rectangles are then merged until there are at most <code>maxRegions</code> disjoint
+ * regions. The whole drawbuffer is drawn again when it was invalidated (first frame, camera move...), or
+ * when the regions would cover more than <code>fullRatio</code> of it.
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * dirty.begin(width, height);
+ * for (Entity e : drawn) {
+ *     dirty.track(e, x0, y0, x1, y1, signature);
+ * }
+ * dirty.end();
+ * for (int i = 0; i &lt; dirty.getRegionCount(); i++) {
+ *     drawClippedTo(dirty.getRegion(i));
+ * }
+ * </code></pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class DirtyRegions {
+
+    private static class State {
+        private int x0, y0, x1, y1;
+        private long signature;
+        private long frame;
+    }
+
+    /**
+     * Above this number of dirty rectangles, the whole drawbuffer is drawn instead of merging them.
+     */
+    private static final int MAX_RECTANGLES = 256;
+    /**
+     * Rectangles closer than this distance in pixels are merged.
+     */
+    private static final int MERGE_DISTANCE = 4;
+
+    private final Map<Entity<?>, State> states = new IdentityHashMap<>();
+    private final List<Rectangle> regions = new ArrayList<>();
+    private int regionCount = 0;
+    private int[] rects = new int[4 * 64];
+    private int count = 0;
+
+    private int width = 0, height = 0;
+    private long frame = 0;
+    private boolean full = true;
+    private int maxRegions = 8;
+    private double fullRatio = 0.5;
+    private double dirtyRatio = 1.0;
+
+    /**
+     * Draw the whole drawbuffer on the next frame.
+     */
+    public void invalidate() {
+        full = true;
+    }
+
+    /**
+     * Forget all the tracked entities (e.g. on a scene change) and draw the whole drawbuffer on the next frame.
+     */
+    public void clear() {
+        states.clear();
+        full = true;
+    }
+
+    /**
+     * Start tracking the entities of a new frame.
+     *
+     * @param width  the width of the drawbuffer.
+     * @param height the height of the drawbuffer.
+     */
+    public void begin(int width, int height) {
+        if (width != this.width || height != this.height) {
+            this.width = width;
+            this.height = height;
+            full = true;
+        }
+        frame++;
+        count = 0;
+    }
+
+    /**
+     * Track an entity drawn during this frame.
+     *
+     * @param e         the drawn {@link Entity}.
+     * @param x0        the left of the drawn pixels, in the drawbuffer.
+     * @param y0        the top of the drawn pixels, in the drawbuffer.
+     * @param x1        the right of the drawn pixels (excluded).
+     * @param y1        the bottom of the drawn pixels (excluded).
+     * @param signature a hash of what is drawn, changing when the drawing changes.
+     */
+    public void track(Entity<?> e, int x0, int y0, int x1, int y1, long signature) {
+        State s = states.get(e);
+        if (s == null) {
+            s = new State();
+            states.put(e, s);
+            add(x0, y0, x1, y1);
+        } else if (s.signature != signature || s.x0 != x0 || s.y0 != y0 || s.x1 != x1 || s.y1 != y1) {
+            add(s.x0, s.y0, s.x1, s.y1);
+            add(x0, y0, x1, y1);
+        }
+        s.x0 = x0;
+        s.y0 = y0;
+        s.x1 = x1;
+        s.y1 = y1;
+        s.signature = signature;
+        s.frame = frame;
+    }
+
+    private void add(int x0, int y0, int x1, int y1) {
+        x0 = Math.max(0, x0);
+        y0 = Math.max(0, y0);
+        x1 = Math.min(width, x1);
+        y1 = Math.min(height, y1);
+        if (x0 >= x1 || y0 >= y1 || full) {
+            return;
+        }
+        if (count == MAX_RECTANGLES) {
+            full = true;
+            return;
+        }
+        if (count * 4 == rects.length) {
+            rects = Arrays.copyOf(rects, rects.length * 2);
+        }
+        rects[count * 4] = x0;
+        rects[count * 4 + 1] = y0;
+        rects[count * 4 + 2] = x1;
+        rects[count * 4 + 3] = y1;
+        count++;
+    }
+
+    /**
+     * End the frame: compute the regions to be drawn.
+     */
+    public void end() {
+        // the entities no longer drawn.
+        Iterator<State> it = states.values().iterator();
+        while (it.hasNext()) {
+            State s = it.next();
+            if (s.frame != frame) {
+                add(s.x0, s.y0, s.x1, s.y1);
+                it.remove();
+            }
+        }
+        if (!full) {
+            mergeClose();
+            while (count > maxRegions) {
+                mergeCheapest();
+                mergeClose();
+            }
+            long area = 0;
+            for (int i = 0; i < count; i++) {
+                area += (long) (rects[i * 4 + 2] - rects[i * 4]) * (rects[i * 4 + 3] - rects[i * 4 + 1]);
+            }
+            full = area > fullRatio * width * height;
+            dirtyRatio = (double) area / ((long) width * height);
+        }
+        if (full) {
+            count = 0;
+            full = false;
+            add(0, 0, width, height);
+            dirtyRatio = 1.0;
+        }
+        regionCount = count;
+        for (int i = 0; i < count; i++) {
+            if (i == regions.size()) {
+                regions.add(new Rectangle());
+            }
+            regions.get(i).setBounds(rects[i * 4], rects[i * 4 + 1],
+                    rects[i * 4 + 2] - rects[i * 4], rects[i * 4 + 3] - rects[i * 4 + 1]);
+        }
+    }
+
+    /**
+     * Merge the overlapping or close rectangles, until none of them overlap.
+     */
+    private void mergeClose() {
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            for (int i = 0; i < count; i++) {
+                for (int j = i + 1; j < count; j++) {
+                    if (rects[i * 4] <= rects[j * 4 + 2] + MERGE_DISTANCE
+                            && rects[j * 4] <= rects[i * 4 + 2] + MERGE_DISTANCE
+                            && rects[i * 4 + 1] <= rects[j * 4 + 3] + MERGE_DISTANCE
+                            && rects[j * 4 + 1] <= rects[i * 4 + 3] + MERGE_DISTANCE) {
+                        merge(i, j);
+                        merged = true;
+                        j--;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Merge the 2 rectangles whose union adds the smallest area.
+     */
+    private void mergeCheapest() {
+        int bi = 0, bj = 1;
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) {
+                long union = (long) (Math.max(rects[i * 4 + 2], rects[j * 4 + 2]) - Math.min(rects[i * 4], rects[j * 4]))
+                        * (Math.max(rects[i * 4 + 3], rects[j * 4 + 3]) - Math.min(rects[i * 4 + 1], rects[j * 4 + 1]));
+                long cost = union - area(i) - area(j);
+                if (cost < best) {
+                    best = cost;
+                    bi = i;
+                    bj = j;
+                }
+            }
+        }
+        merge(bi, bj);
+    }
+
+    private long area(int i) {
+        return (long) (rects[i * 4 + 2] - rects[i * 4]) * (rects[i * 4 + 3] - rects[i * 4 + 1]);
+    }
+
+    /**
+     * Replace the rectangle i by its union with the rectangle j, and remove j (replaced by the last one).
+     */
+    private void merge(int i, int j) {
+        rects[i * 4] = Math.min(rects[i * 4], rects[j * 4]);
+        rects[i * 4 + 1] = Math.min(rects[i * 4 + 1], rects[j * 4 + 1]);
+        rects[i * 4 + 2] = Math.max(rects[i * 4 + 2], rects[j * 4 + 2]);
+        rects[i * 4 + 3] = Math.max(rects[i * 4 + 3], rects[j * 4 + 3]);
+        count--;
+        System.arraycopy(rects, count * 4, rects, j * 4, 4);
+    }
+
+    /**
+     * @return the number of regions to be drawn during this frame.
+     */
+    public int getRegionCount() {
+        return regionCount;
+    }
+
+    /**
+     * @param i the index of a region.
+     * @return the region, in drawbuffer pixels.
+     */
+    public Rectangle getRegion(int i) {
+        return regions.get(i);
+    }
+
+    /**
+     * @return the ratio of the drawbuffer area drawn during this frame, from 0 to 1.
+     */
+    public double getDirtyRatio() {
+        return dirtyRatio;
+    }
+
+    public DirtyRegions setMaxRegions(int maxRegions) {
+        this.maxRegions = Math.max(1, maxRegions);
+        return this;
+    }
+
+    public DirtyRegions setFullRatio(double fullRatio) {
+        this.fullRatio = fullRatio;
+        return this;
+    }
+}
@@ -0,0 +1,31 @@
+package com.snapgames.framework.gfx;
+
+import com.snapgames.framework.entity.Entity;
+import com.snapgames.framework.scene.Scene;
+
+import java.awt.*;
+
+/**
+ * The {@link EntityRenderer} is the drawing code of one type of {@link Entity}, registered into the
+ * {@link EntityRendererRegistry} of the {@link Renderer}.
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * renderer.getRenderers().register(Ship.class, (g, scene, ship) -&gt; g.drawImage(ship.getImage(), ...));
+ * </code></pre>
+ *
+ * @param <T> the type of the drawn entity.
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+@FunctionalInterface
+public interface EntityRenderer<T extends Entity<?>> {
+    /**
+     * Draw an entity.
+     *
+     * @param g      the Graphics2D API instance.
+     * @param scene  the {@link Scene} the entity belongs to.
+     * @param entity the entity to be drawn.
+     */
+    void draw(Graphics2D g, Scene scene, T entity);
+}
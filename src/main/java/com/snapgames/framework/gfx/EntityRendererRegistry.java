@@ -0,0 +1,80 @@
+package com.snapgames.framework.gfx;
+
+import com.snapgames.framework.entity.Entity;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.snapgames.framework.utils.Log.error;
+
+/**
+ * The {@link EntityRendererRegistry} maps the entity classes to their {@link EntityRenderer}.
+ * <p>
+ * The renderer of a class is resolved once, and cached in a {@link ClassValue}: it is the renderer registered
+ * for the class itself or, failing that, for its closest superclass. An entity class without any renderer
+ * gets one logging an error, as there is nothing to draw it with.
+ * <p>
+ * Registering a renderer drops the resolved ones, which are resolved again on their next use.
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * registry.register(TextObject.class, (g, scene, t) -&gt; g.drawString(t.getText(), (int) t.x, (int) t.y));
+ * registry.get(e.getClass()).draw(g, scene, e);
+ * </code></pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class EntityRendererRegistry {
+    private static final EntityRenderer<Entity<?>> UNKNOWN = (g, scene, e) ->
+            error(EntityRendererRegistry.class, "Unknown object class %s", e.getClass());
+
+    private final Map<Class<?>, EntityRenderer<Entity<?>>> renderers = new ConcurrentHashMap<>();
+    private volatile ClassValue<EntityRenderer<Entity<?>>> resolved = newResolver();
+
+    private ClassValue<EntityRenderer<Entity<?>>> newResolver() {
+        return new ClassValue<>() {
+            @Override
+            protected EntityRenderer<Entity<?>> computeValue(Class<?> type) {
+                for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                    EntityRenderer<Entity<?>> renderer = renderers.get(c);
+                    if (renderer != null) {
+                        return renderer;
+                    }
+                }
+                return UNKNOWN;
+            }
+        };
+    }
+
+    /**
+     * Register the renderer of an entity class, also used for its subclasses without their own renderer.
+     *
+     * @param type     the entity class.
+     * @param renderer the {@link EntityRenderer} drawing the entities of this class.
+     * @param <T>      the type of the entity.
+     * @return the updated {@link EntityRendererRegistry}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Entity<?>> EntityRendererRegistry register(Class<T> type, EntityRenderer<? super T> renderer) {
+        renderers.put(type, (EntityRenderer<Entity<?>>) renderer);
+        resolved = newResolver();
+        return this;
+    }
+
+    /**
+     * @param type an entity class.
+     * @return the {@link EntityRenderer} of this class, never null.
+     */
+    public EntityRenderer<Entity<?>> get(Class<?> type) {
+        return resolved.get(type);
+    }
+
+    /**
+     * @param type an entity class.
+     * @return true if a renderer is registered for this class or one of its superclasses.
+     */
+    public boolean isRegistered(Class<?> type) {
+        return get(type) != UNKNOWN;
+    }
+}
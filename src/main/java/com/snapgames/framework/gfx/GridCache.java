@@ -0,0 +1,89 @@
+package com.snapgames.framework.gfx;
+
+import com.snapgames.framework.entity.GridObject;
+
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * The {@link GridCache} draws a {@link GridObject} with a single image blit: the grid lines are rendered once
+ * into an image covering the viewport plus one tile, which is drawn at the tile-aligned position of the
+ * viewport and clipped to the world.
+ * <p>
+ * The image is rebuilt only when the tile size, the grid color or the size of the covered area change.
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * gridCache.draw(g, grid, scene.getWorld(), scene.getActiveCamera());
+ * </code></pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class GridCache {
+    private BufferedImage image;
+    private int tileWidth, tileHeight, cols, rows;
+    private Color color;
+    private int rebuilds = 0;
+
+    /**
+     * Draw the grid lines visible in the view.
+     *
+     * @param g     the Graphics2D API instance, translated to the world coordinates.
+     * @param grid  the {@link GridObject} to be drawn.
+     * @param world the area covered by the grid.
+     * @param view  the visible area (the camera viewport), or null to draw the whole world.
+     */
+    public void draw(Graphics2D g, GridObject grid, Rectangle2D world, Rectangle2D view) {
+        int tw = Math.max(1, grid.getTileWidth()), th = Math.max(1, grid.getTileHeight());
+        Rectangle2D area = view != null ? view : world;
+        // one more tile, as the view is rarely aligned on the tiles.
+        int nbCols = (int) Math.ceil(area.getWidth() / tw) + 1;
+        int nbRows = (int) Math.ceil(area.getHeight() / th) + 1;
+        if (image == null || tw != tileWidth || th != tileHeight || nbCols != cols || nbRows != rows
+                || !grid.getColor().equals(color)) {
+            build(tw, th, nbCols, nbRows, grid.getColor());
+        }
+        // the tile-aligned origin of the view, relative to the world.
+        int x = (int) (world.getX() + Math.floor((area.getX() - world.getX()) / tw) * tw);
+        int y = (int) (world.getY() + Math.floor((area.getY() - world.getY()) / th) * th);
+
+        Shape clip = g.getClip();
+        g.clipRect((int) world.getX(), (int) world.getY(), (int) world.getWidth() + 1, (int) world.getHeight() + 1);
+        g.drawImage(image, x, y, null);
+        g.setClip(clip);
+    }
+
+    private void build(int tw, int th, int nbCols, int nbRows, Color c) {
+        tileWidth = tw;
+        tileHeight = th;
+        cols = nbCols;
+        rows = nbRows;
+        color = c;
+        int width = cols * tw + 1, height = rows * th + 1;
+        if (image == null || image.getWidth() != width || image.getHeight() != height) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        Graphics2D ig = image.createGraphics();
+        ig.setComposite(AlphaComposite.Clear);
+        ig.fillRect(0, 0, width, height);
+        ig.setComposite(AlphaComposite.SrcOver);
+        ig.setColor(c);
+        for (int ix = 0; ix < width; ix += tw) {
+            ig.fillRect(ix, 0, 1, height);
+        }
+        for (int iy = 0; iy < height; iy += th) {
+            ig.fillRect(0, iy, width, 1);
+        }
+        ig.dispose();
+        rebuilds++;
+    }
+
+    /**
+     * @return the number of times the grid image has been rendered.
+     */
+    public int getRebuilds() {
+        return rebuilds;
+    }
+}
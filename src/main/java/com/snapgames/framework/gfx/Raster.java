@@ -0,0 +1,280 @@
+package com.snapgames.framework.gfx;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+
+/**
+ * The {@link Raster} draws directly into the <code>int[]</code> pixels of a <code>TYPE_INT_ARGB</code> or
+ * <code>TYPE_INT_RGB</code> {@link BufferedImage}, without any Graphics2D call: this is the fast path for
+ * the thousands of tiny shapes like particles.
+ * <p>
+ * The destination is considered opaque (the Renderer clears it on each frame), the blended pixels are
+ * always written with a full alpha. All the coordinates are translated by the current translation
+ * (e.g. the camera position) and clipped to the clip rectangle (the whole image by default).
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * Raster raster = new Raster(drawbuffer);
+ * raster.setTranslation(-camera.x, -camera.y);
+ * raster.fillRect(x, y, 2, 2, 0x80FFFFFF, BlendMode.ADDITIVE);
+ * raster.drawImage(sprite, x, y);
+ * </code></pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class Raster {
+    private final int[] pixels;
+    private final int width, height;
+    private int translateX = 0, translateY = 0;
+    private int clipX0, clipY0, clipX1, clipY1;
+
+    /**
+     * @param image the image to draw into, must be backed by an int buffer.
+     * @throws IllegalArgumentException if the image is not backed by an int buffer.
+     */
+    public Raster(BufferedImage image) {
+        if (!(image.getRaster().getDataBuffer() instanceof DataBufferInt data)) {
+            throw new IllegalArgumentException("Raster needs an int based image, not type %d".formatted(image.getType()));
+        }
+        this.pixels = data.getData();
+        this.width = image.getWidth();
+        this.height = image.getHeight();
+        this.clipX1 = width;
+        this.clipY1 = height;
+    }
+
+    /**
+     * @param tx the horizontal translation added to all the coordinates.
+     * @param ty the vertical translation added to all the coordinates.
+     */
+    public void setTranslation(int tx, int ty) {
+        this.translateX = tx;
+        this.translateY = ty;
+    }
+
+    /**
+     * Restrict the drawing to a rectangle of the image, in pixels (not translated).
+     *
+     * @param x the left of the clip rectangle.
+     * @param y the top of the clip rectangle.
+     * @param w the width of the clip rectangle.
+     * @param h the height of the clip rectangle.
+     */
+    public void setClip(int x, int y, int w, int h) {
+        clipX0 = Math.max(0, x);
+        clipY0 = Math.max(0, y);
+        clipX1 = Math.max(clipX0, Math.min(width, x + w));
+        clipY1 = Math.max(clipY0, Math.min(height, y + h));
+    }
+
+    /**
+     * Fill the clip rectangle with an opaque color.
+     *
+     * @param rgb the color, its alpha is ignored.
+     */
+    public void clear(int rgb) {
+        for (int py = clipY0; py < clipY1; py++) {
+            Arrays.fill(pixels, py * width + clipX0, py * width + clipX1, rgb | 0xFF000000);
+        }
+    }
+
+    /**
+     * Fill a rectangle, clipped.
+     *
+     * @param x    the left of the rectangle, before translation.
+     * @param y    the top of the rectangle, before translation.
+     * @param w    the width of the rectangle.
+     * @param h    the height of the rectangle.
+     * @param argb the color, with its alpha.
+     * @param mode the {@link BlendMode}.
+     * @return true if some pixels have been drawn, false if the rectangle is out of the clip rectangle.
+     */
+    public boolean fillRect(int x, int y, int w, int h, int argb, BlendMode mode) {
+        int x0 = Math.max(clipX0, x + translateX), x1 = Math.min(clipX1, x + translateX + w);
+        int y0 = Math.max(clipY0, y + translateY), y1 = Math.min(clipY1, y + translateY + h);
+        if (x0 >= x1 || y0 >= y1) {
+            return false;
+        }
+        // alpha from 0..255 to 0..256, so that 255 is fully opaque.
+        int a = argb >>> 24;
+        a += a >> 7;
+        if (a == 0) {
+            return true;
+        }
+        if (mode == BlendMode.ALPHA && a == 256) {
+            int c = argb | 0xFF000000;
+            for (int py = y0; py < y1; py++) {
+                Arrays.fill(pixels, py * width + x0, py * width + x1, c);
+            }
+            return true;
+        }
+        int srb = argb & 0xFF00FF, sg = argb & 0x00FF00;
+        for (int py = y0; py < y1; py++) {
+            int row = py * width;
+            for (int i = row + x0; i < row + x1; i++) {
+                pixels[i] = mode == BlendMode.ALPHA
+                        ? blend(pixels[i], srb, sg, a)
+                        : add(pixels[i], argb, a);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Draw the outline of a rectangle, covering the same pixels as {@link java.awt.Graphics#drawRect}
+     * (from x to x + w and from y to y + h, both included).
+     *
+     * @param x    the left of the rectangle, before translation.
+     * @param y    the top of the rectangle, before translation.
+     * @param w    the width of the rectangle.
+     * @param h    the height of the rectangle.
+     * @param argb the color, with its alpha.
+     * @param mode the {@link BlendMode}.
+     * @return true if some pixels have been drawn.
+     */
+    public boolean drawRect(int x, int y, int w, int h, int argb, BlendMode mode) {
+        if (w < 0 || h < 0) {
+            return false;
+        }
+        boolean drawn = fillRect(x, y, w + 1, 1, argb, mode);
+        if (h > 0) {
+            drawn |= fillRect(x, y + h, w + 1, 1, argb, mode);
+            drawn |= fillRect(x, y + 1, 1, h - 1, argb, mode);
+            if (w > 0) {
+                drawn |= fillRect(x + w, y + 1, 1, h - 1, argb, mode);
+            }
+        }
+        return drawn;
+    }
+
+    /**
+     * Draw a one pixel wide line (Bresenham), both ends included.
+     *
+     * @param x0   the horizontal start of the line, before translation.
+     * @param y0   the vertical start of the line, before translation.
+     * @param x1   the horizontal end of the line, before translation.
+     * @param y1   the vertical end of the line, before translation.
+     * @param argb the color, with its alpha.
+     * @param mode the {@link BlendMode}.
+     * @return true if the line bounds overlap the clip rectangle.
+     */
+    public boolean drawLine(int x0, int y0, int x1, int y1, int argb, BlendMode mode) {
+        x0 += translateX;
+        y0 += translateY;
+        x1 += translateX;
+        y1 += translateY;
+        if (Math.max(x0, x1) < clipX0 || Math.min(x0, x1) >= clipX1
+                || Math.max(y0, y1) < clipY0 || Math.min(y0, y1) >= clipY1) {
+            return false;
+        }
+        int a = argb >>> 24;
+        a += a >> 7;
+        int srb = argb & 0xFF00FF, sg = argb & 0x00FF00;
+        int dx = Math.abs(x1 - x0), dy = -Math.abs(y1 - y0);
+        int sx = x0 < x1 ? 1 : -1, sy = y0 < y1 ? 1 : -1;
+        int err = dx + dy;
+        while (true) {
+            if (x0 >= clipX0 && x0 < clipX1 && y0 >= clipY0 && y0 < clipY1) {
+                int i = y0 * width + x0;
+                pixels[i] = mode == BlendMode.ALPHA ? blend(pixels[i], srb, sg, a) : add(pixels[i], argb, a);
+            }
+            if (x0 == x1 && y0 == y1) {
+                break;
+            }
+            int e2 = 2 * err;
+            if (e2 >= dy) {
+                err += dy;
+                x0 += sx;
+            }
+            if (e2 <= dx) {
+                err += dx;
+                y0 += sy;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Draw an image at its own size, blending each pixel with its alpha (<code>TYPE_INT_RGB</code> images
+     * are copied as opaque).
+     * <p>
+     * Only the <code>TYPE_INT_ARGB</code> and <code>TYPE_INT_RGB</code> images can be read directly: any other
+     * type is left to Graphics2D. Reading the pixels of an image prevents Java2D from caching it in video
+     * memory, this is why the sprites are only read by the raster backend.
+     *
+     * @param image the image to be drawn.
+     * @param x     the left of the image, before translation.
+     * @param y     the top of the image, before translation.
+     * @return false if the image type is not supported (nothing is drawn), true otherwise.
+     */
+    public boolean drawImage(BufferedImage image, int x, int y) {
+        if (!isReadable(image)) {
+            return false;
+        }
+        int type = image.getType();
+        WritableRaster wr = image.getRaster();
+        DataBufferInt data = (DataBufferInt) wr.getDataBuffer();
+        SinglePixelPackedSampleModel sm = (SinglePixelPackedSampleModel) wr.getSampleModel();
+        int[] src = data.getData();
+        int stride = sm.getScanlineStride();
+        // sub-images share the pixels of their parent image.
+        int offset = data.getOffset() - wr.getSampleModelTranslateY() * stride - wr.getSampleModelTranslateX();
+        int dx = x + translateX, dy = y + translateY;
+        int x0 = Math.max(clipX0, dx), x1 = Math.min(clipX1, dx + image.getWidth());
+        int y0 = Math.max(clipY0, dy), y1 = Math.min(clipY1, dy + image.getHeight());
+        boolean opaque = type == BufferedImage.TYPE_INT_RGB;
+        for (int py = y0; py < y1; py++) {
+            int s = offset + (py - dy) * stride + (x0 - dx);
+            int row = py * width;
+            for (int i = row + x0; i < row + x1; i++, s++) {
+                int c = src[s];
+                int a = opaque ? 256 : c >>> 24;
+                if (a == 255 || a == 256) {
+                    pixels[i] = c | 0xFF000000;
+                } else if (a != 0) {
+                    pixels[i] = blend(pixels[i], c & 0xFF00FF, c & 0x00FF00, a + (a >> 7));
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param image an image to be drawn.
+     * @return true if {@link Raster#drawImage(BufferedImage, int, int)} can read its pixels.
+     */
+    public static boolean isReadable(BufferedImage image) {
+        int type = image.getType();
+        WritableRaster wr = image.getRaster();
+        return (type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB)
+                && wr.getDataBuffer() instanceof DataBufferInt
+                && wr.getSampleModel() instanceof SinglePixelPackedSampleModel;
+    }
+
+    private static int blend(int dst, int srb, int sg, int a) {
+        int drb = dst & 0xFF00FF, dg = dst & 0x00FF00;
+        // both channels of a pair are computed at once, the sum stays within 32 unsigned bits.
+        int rb = ((srb * a + drb * (256 - a)) >>> 8) & 0xFF00FF;
+        int g = ((sg * a + dg * (256 - a)) >>> 8) & 0x00FF00;
+        return 0xFF000000 | rb | g;
+    }
+
+    private static int add(int dst, int src, int a) {
+        int r = Math.min(255, ((dst >> 16) & 0xFF) + ((((src >> 16) & 0xFF) * a) >> 8));
+        int g = Math.min(255, ((dst >> 8) & 0xFF) + ((((src >> 8) & 0xFF) * a) >> 8));
+        int b = Math.min(255, (dst & 0xFF) + (((src & 0xFF) * a) >> 8));
+        return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,254 @@
+package com.snapgames.framework.gfx;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The {@link RenderCommandBuffer} is the list of the drawing commands of a frame, packed into primitive
+ * arrays: type, bounds, color index, resource id (font, image) and priority.
+ * <p>
+ * The commands are sorted by priority, then by state key (type, resource, color), so that the commands
+ * sharing the same state are executed one after the other: the executor only changes the color or the font
+ * when the state key changes. The commands of the same priority and state keep their adding order.
+ * <p>
+ * The arrays grow as needed and are reused from one frame to the next: once the buffer reached the size
+ * of a frame, and the colors and resources have their id, adding the commands does not allocate anything
+ * (and the primitive sort of the keys does not allocate either, up to a few thousand commands).
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * commands.clear();
+ * commands.add(RenderCommandBuffer.RECT, e.x, e.y, e.width, e.height, e.getFillColor(), null, e, e.getPriority());
+ * commands.sort();
+ * for (int k = 0; k &lt; commands.size(); k++) {
+ *     int i = commands.get(k);
+ *     switch (commands.getType(i)) { ... }
+ * }
+ * </code></pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class RenderCommandBuffer {
+    /**
+     * A cached static layer, drawn first within its priority.
+     */
+    public static final int LAYER = 0;
+    /**
+     * A rectangle filled with the command color.
+     */
+    public static final int RECT = 1;
+    /**
+     * An image (the resource) drawn at the command position.
+     */
+    public static final int SPRITE = 2;
+    /**
+     * A text, drawn with the command font (the resource) and color.
+     */
+    public static final int TEXT = 3;
+    /**
+     * Any other entity, drawn by its own code.
+     */
+    public static final int ENTITY = 4;
+
+    /**
+     * Bits of the sort key: priority (16), type (3), resource id (12), color index (12), command index (20).
+     */
+    private static final int INDEX_BITS = 20, COLOR_SHIFT = 20, RESOURCE_SHIFT = 32, TYPE_SHIFT = 44,
+            PRIORITY_SHIFT = 47;
+    private static final int MAX_COMMANDS = 1 << INDEX_BITS;
+    /**
+     * Above this number of colors or resources, the ids are given again from scratch.
+     */
+    private static final int MAX_IDS = 4096;
+
+    private int[] types = new int[256];
+    private double[] bounds = new double[256 * 4];
+    private int[] colors = new int[256];
+    private int[] resources = new int[256];
+    private int[] priorities = new int[256];
+    private Object[] targets = new Object[256];
+    private long[] keys = new long[256];
+    private int count = 0;
+
+    private final Map<Color, Integer> colorIds = new HashMap<>();
+    private Color[] palette = new Color[64];
+    private final Map<Object, Integer> resourceIds = new IdentityHashMap<>();
+    private Object[] resourceTable = new Object[64];
+
+    /**
+     * Remove all the commands, keeping the arrays.
+     */
+    public void clear() {
+        Arrays.fill(targets, 0, count, null);
+        count = 0;
+        if (colorIds.size() > MAX_IDS) {
+            colorIds.clear();
+            Arrays.fill(palette, null);
+        }
+        if (resourceIds.size() > MAX_IDS) {
+            resourceIds.clear();
+            Arrays.fill(resourceTable, null);
+        }
+    }
+
+    /**
+     * Add a command.
+     *
+     * @param type     the type of the command ({@link RenderCommandBuffer#RECT}, ...).
+     * @param x        the left of the command bounds.
+     * @param y        the top of the command bounds.
+     * @param w        the width of the command bounds.
+     * @param h        the height of the command bounds.
+     * @param color    the color, may be null.
+     * @param resource the font or image, may be null.
+     * @param target   the object drawn by the command (entity, layer).
+     * @param priority the drawing priority, the lowest first.
+     * @return false if the buffer is full (the command is not added).
+     */
+    public boolean add(int type, double x, double y, double w, double h,
+                       Color color, Object resource, Object target, int priority) {
+        if (count == MAX_COMMANDS) {
+            return false;
+        }
+        if (count == types.length) {
+            grow();
+        }
+        int i = count++;
+        types[i] = type;
+        bounds[i * 4] = x;
+        bounds[i * 4 + 1] = y;
+        bounds[i * 4 + 2] = w;
+        bounds[i * 4 + 3] = h;
+        colors[i] = colorId(color);
+        resources[i] = resourceId(resource);
+        priorities[i] = priority;
+        targets[i] = target;
+        return true;
+    }
+
+    private void grow() {
+        int size = types.length * 2;
+        types = Arrays.copyOf(types, size);
+        bounds = Arrays.copyOf(bounds, size * 4);
+        colors = Arrays.copyOf(colors, size);
+        resources = Arrays.copyOf(resources, size);
+        priorities = Arrays.copyOf(priorities, size);
+        targets = Arrays.copyOf(targets, size);
+        keys = Arrays.copyOf(keys, size);
+    }
+
+    private int colorId(Color color) {
+        if (color == null) {
+            return 0;
+        }
+        Integer id = colorIds.get(color);
+        if (id == null) {
+            id = colorIds.size() + 1;
+            colorIds.put(color, id);
+            if (id >= palette.length) {
+                palette = Arrays.copyOf(palette, palette.length * 2);
+            }
+            palette[id] = color;
+        }
+        return id;
+    }
+
+    private int resourceId(Object resource) {
+        if (resource == null) {
+            return 0;
+        }
+        Integer id = resourceIds.get(resource);
+        if (id == null) {
+            id = resourceIds.size() + 1;
+            resourceIds.put(resource, id);
+            if (id >= resourceTable.length) {
+                resourceTable = Arrays.copyOf(resourceTable, resourceTable.length * 2);
+            }
+            resourceTable[id] = resource;
+        }
+        return id;
+    }
+
+    /**
+     * Sort the commands by priority, then by state key; see {@link RenderCommandBuffer#get(int)}.
+     */
+    public void sort() {
+        for (int i = 0; i < count; i++) {
+            long priority = Math.max(0, Math.min(0xFFFF, priorities[i] + 0x8000));
+            keys[i] = priority << PRIORITY_SHIFT
+                    | (long) types[i] << TYPE_SHIFT
+                    | (long) (resources[i] & 0xFFF) << RESOURCE_SHIFT
+                    | (long) (colors[i] & 0xFFF) << COLOR_SHIFT
+                    | i;
+        }
+        Arrays.sort(keys, 0, count);
+    }
+
+    /**
+     * @param k the position in the sorted order.
+     * @return the index of the command to be executed at this position.
+     */
+    public int get(int k) {
+        return (int) (keys[k] & (MAX_COMMANDS - 1));
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getType(int i) {
+        return types[i];
+    }
+
+    public double getX(int i) {
+        return bounds[i * 4];
+    }
+
+    public double getY(int i) {
+        return bounds[i * 4 + 1];
+    }
+
+    public double getWidth(int i) {
+        return bounds[i * 4 + 2];
+    }
+
+    public double getHeight(int i) {
+        return bounds[i * 4 + 3];
+    }
+
+    /**
+     * @param i the index of a command.
+     * @return the color index of the command (0 for no color), the same for equal colors.
+     */
+    public int getColorId(int i) {
+        return colors[i];
+    }
+
+    public Color getColor(int i) {
+        return palette[colors[i]];
+    }
+
+    /**
+     * @param i the index of a command.
+     * @return the resource id of the command (0 for no resource), the same for the same font or image.
+     */
+    public int getResourceId(int i) {
+        return resources[i];
+    }
+
+    public Object getResource(int i) {
+        return resourceTable[resources[i]];
+    }
+
+    public Object getTarget(int i) {
+        return targets[i];
+    }
+
+    public int getPriority(int i) {
+        return priorities[i];
+    }
+}
@@ -5,7 +5,11 @@ import com.snapgames.framework.GameInterface;
 import com.snapgames.framework.entity.*;
 import com.snapgames.framework.io.InputListener;
 import com.snapgames.framework.io.ResourceManager;
+import com.snapgames.framework.physic.CollisionManager;
 import com.snapgames.framework.physic.PhysicEngine;
+import com.snapgames.framework.physic.SpatialGrid;
+import com.snapgames.framework.physic.TileMap;
+import com.snapgames.framework.physic.World;
 import com.snapgames.framework.physic.math.Vector2d;
 import com.snapgames.framework.scene.Scene;
 import com.snapgames.framework.scene.SceneManager;
@@ -18,17 +22,21 @@ import java.awt.*;
 import java.awt.event.KeyListener;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 
 import static com.snapgames.framework.utils.Log.debug;
-import static com.snapgames.framework.utils.Log.error;
 
 /**
  * The Renderer class is responsible for rendering game scenes and entities onto a window.
@@ -44,6 +52,138 @@ public class Renderer implements GSystem {
 
     private boolean fullScreen = false;
 
+    /**
+     * Direct access to the drawbuffer pixels, used to draw the particles and the primitives of the raster
+     * backend.
+     */
+    private Raster raster;
+    /**
+     * True to draw the rectangles, lines and sprites with the {@link Raster} instead of Graphics2D
+     * (<code>app.render.backend=raster</code>); texts and other shapes are still drawn with Graphics2D.
+     */
+    private boolean rasterBackend = false;
+    /**
+     * Records the raster backend commands and rasterizes them by bands in parallel
+     * (<code>app.render.parallel.bands</code> greater than 1), null to draw them immediately.
+     */
+    private BandRasterizer bandRasterizer;
+    /**
+     * The Graphics2D of the drawbuffer for the current frame: the {@link Raster} can only replace this one.
+     */
+    private Graphics2D bufferGraphics;
+    /**
+     * True to draw the particles with the {@link Raster} instead of Graphics2D.
+     */
+    private boolean rasterParticles = true;
+    /**
+     * Number of particles drawn during the last frame.
+     */
+    private int particlesDrawn = 0;
+
+    private static final Comparator<Entity<?>> BY_PRIORITY = Comparator.comparingInt(Entity::getPriority);
+    /**
+     * The window icon image.
+     */
+    private static final String ICON = "/assets/images/thor-hammer.png";
+    /**
+     * True to only draw the world entities overlapping the active camera viewport.
+     */
+    private boolean culling = true;
+    /**
+     * Distance in pixels around the camera viewport in which the entities are still drawn.
+     */
+    private double cullingMargin = 16.0;
+    /**
+     * Reused list of the world entities to be drawn during the current frame.
+     */
+    private final List<Entity<?>> visible = new ArrayList<>();
+    /**
+     * The drawing code of each entity class, see {@link Renderer#getRenderers()}.
+     */
+    private final EntityRendererRegistry renderers = new EntityRendererRegistry();
+    /**
+     * Reused list of the entities fixed to the active camera.
+     */
+    private final List<Entity<?>> fixed = new ArrayList<>();
+    /**
+     * The drawing commands of the world entities and of the entities fixed to the camera, reused on each frame.
+     */
+    private final RenderCommandBuffer worldCommands = new RenderCommandBuffer();
+    private final RenderCommandBuffer hudCommands = new RenderCommandBuffer();
+    private final Rectangle2D.Double commandBounds = new Rectangle2D.Double();
+    /**
+     * Number of commands executed during the last frame.
+     */
+    private int commandCount = 0;
+    /**
+     * The scene being drawn, for the painter of the cached static layers.
+     */
+    private Scene currentScene;
+    private final BiConsumer<Graphics2D, Entity<?>> layerPainter = (cg, m) -> drawEntity(cg, currentScene, m);
+    /**
+     * The entities which can not be culled by their bounds (see {@link Renderer#isCullable(Entity)}), cached
+     * for a scene and its number of entities.
+     */
+    private final List<Entity<?>> unbounded = new ArrayList<>();
+    private Scene unboundedScene;
+    private int unboundedCount = -1;
+    /**
+     * The {@link ResourceManager} version, the scene and its number of entities the images were last resolved
+     * for, see {@link Renderer#resolveImages(Scene)}.
+     */
+    private long resourceVersion = 0;
+    private Scene resourceScene;
+    private int resourceEntityCount = -1;
+    /**
+     * The {@link CollisionManager} broad-phase build used by the previous frame, to detect a broad-phase not
+     * rebuilt since (game paused).
+     */
+    private long broadPhaseBuild = -1;
+    /**
+     * Number of world entities drawn and culled during the last frame.
+     */
+    private int drawnCount = 0, culledCount = 0;
+    /**
+     * The grid lines rendered once, blitted for each {@link GridObject}.
+     */
+    private final GridCache gridCache = new GridCache();
+    /**
+     * The {@link TileMap} of the World rendered by chunks, blitted for the visible ones.
+     */
+    private final TileMapCache tileMapCache = new TileMapCache();
+    /**
+     * The static entities baked into cached layers.
+     */
+    private final StaticLayerCache staticCache = new StaticLayerCache();
+    /**
+     * True to draw the static entities from the {@link StaticLayerCache}.
+     */
+    private boolean staticCaching = true;
+    /**
+     * The pre-rendered texts and digit atlases.
+     */
+    private final TextCache textCache = new TextCache();
+    /**
+     * True to draw the {@link TextObject} from the {@link TextCache}.
+     */
+    private boolean textCaching = true;
+    /**
+     * The areas of the drawbuffer changed since the previous frame.
+     */
+    private final DirtyRegions dirtyRegions = new DirtyRegions();
+    /**
+     * True to only draw again the {@link DirtyRegions} of the drawbuffer (<code>app.render.dirty.enabled</code>),
+     * the rest of the drawbuffer keeping the previous frame.
+     */
+    private boolean dirtyRendering = false;
+    /**
+     * Margin in pixels around the tracked entity bounds, for the antialiasing and the outlines.
+     */
+    private static final int DIRTY_MARGIN = 2;
+    private Scene dirtyScene;
+    private double dirtyCameraX = Double.NaN, dirtyCameraY = Double.NaN;
+    private long dirtyFrame = 0;
+
     /**
      * Constructs a new Renderer instance associated with the provided GameInterface.
      * This constructor initializes the Renderer by linking it to the game application
@@ -54,6 +194,12 @@ public class Renderer implements GSystem {
      */
     public Renderer(GameInterface app) {
         this.app = app;
+        renderers.register(GameObject.class, (g, scene, e) -> drawObject(g, e))
+                .register(WorldArea.class, (g, scene, e) -> drawObject(g, e))
+                .register(TextObject.class, (g, scene, e) -> drawText(g, e))
+                .register(GridObject.class, this::drawGrid)
+                .register(GaugeObject.class, (g, scene, e) -> drawGauge(g, e))
+                .register(ParticlesObject.class, (g, scene, e) -> drawParticles(g, e));
         debug(Renderer.class, "start of processing");
     }
 
@@ -85,7 +231,7 @@ public class Renderer implements GSystem {
         window = new JFrame(title);
         window.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
         window.setFocusTraversalKeysEnabled(true);
-        window.setIconImage(ResourceManager.get("/assets/images/thor-hammer.png"));
+        window.setIconImage(ResourceManager.get(ICON));
         if (fullScreen) {
             window.setUndecorated(fullScreen);
             if (il != null) {
@@ -124,50 +270,54 @@ public class Renderer implements GSystem {
 
     private void render(Scene scene) {
 
+        particlesDrawn = 0;
+        commandCount = 0;
+        textCache.resetCounters();
+        resolveImages(scene);
+        if (bandRasterizer != null) {
+            bandRasterizer.resetTimings();
+        }
         Graphics2D g = (Graphics2D) drawbuffer.createGraphics();
+        bufferGraphics = g;
         g.setRenderingHints(Map.of(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON));
         g.setRenderingHints(Map.of(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON));
-        // clear display
-        g.setColor(Color.BLACK);
-        g.fillRect(0, 0, drawbuffer.getWidth(), drawbuffer.getHeight());
-
-        if (Optional.ofNullable(scene.getActiveCamera()).isPresent()) {
-            g.translate(-scene.getActiveCamera().x, -scene.getActiveCamera().y);
-        }
-        // draw the scene
-        scene.getEntities().values().stream()
-                .filter(e -> !(e instanceof Camera))
-                .filter(Entity::isActive)
-                .filter(e -> e.getCameraIsStickedTo() == null)
-                .sorted(Comparator.comparingInt(Entity::getPriority))
-                .forEach(e -> {
-                    drawEntity(g, scene, e);
-                    if (app.isDebugGreaterThan(0)) {
-                        drawDebugInfoEntity(g, scene, e);
-                    }
-                });
 
-        // draw World borders
-        g.setColor(Color.DARK_GRAY);
-        g.draw(scene.getWorld());
-
-        if (Optional.ofNullable(scene.getActiveCamera()).isPresent()) {
-            g.translate(scene.getActiveCamera().x, scene.getActiveCamera().y);
-        }
-        // draw all entities fixed to the active Camera.
-        scene.getEntities().values().stream()
-                .filter(e -> !(e instanceof Camera))
-                .filter(Entity::isActive)
-                .filter(e -> e.getCameraIsStickedTo() != null && e.getCameraIsStickedTo().equals(scene.getActiveCamera()))
-                .sorted(Comparator.comparingInt(Entity::getPriority))
-                .forEach(e -> {
-                    drawEntity(g, scene, e);
-                });
+        // the commands of the scene entities visible through the camera, the static ones from their cached layer.
+        if (staticCaching) {
+            staticCache.update(scene);
+        }
+        collectVisible(scene, visible);
+        currentScene = scene;
+        emitCommands(worldCommands, visible);
+        // the commands of all entities fixed to the active Camera.
+        fixed.clear();
+        for (Entity<?> e : scene.getEntities().values()) {
+            if (!(e instanceof Camera) && e.isActive()
+                    && e.getCameraIsStickedTo() != null && e.getCameraIsStickedTo().equals(scene.getActiveCamera())) {
+                fixed.add(e);
+            }
+        }
+        emitCommands(hudCommands, fixed);
+
+        if (dirtyRendering) {
+            // only draw again the areas changed since the previous frame.
+            updateDirtyRegions(g, scene);
+            for (int i = 0; i < dirtyRegions.getRegionCount(); i++) {
+                drawScene(g, scene, dirtyRegions.getRegion(i));
+            }
+            setClip(g, null);
+        } else {
+            drawScene(g, scene, null);
+        }
 
+        flushRaster();
         g.dispose();
+        bufferGraphics = null;
 
         // copy buffer to window.
         if (window != null) {
+            // the window may have moved to another screen.
+            ResourceManager.setGraphicsConfiguration(window.getGraphicsConfiguration());
             BufferStrategy bf = window.getBufferStrategy();
             if (bf != null) {
                 bf.getDrawGraphics().drawImage(drawbuffer, 0, 0, window.getWidth(), window.getHeight(),
@@ -179,12 +329,447 @@ public class Renderer implements GSystem {
         }
     }
 
+    /**
+     * Draw the frame from the prepared commands: clear the drawbuffer, then draw the world through the camera
+     * and the entities fixed to the camera.
+     *
+     * @param g     the Graphics2D API instance of the drawbuffer.
+     * @param scene the {@link Scene} to be drawn.
+     * @param clip  the area of the drawbuffer to be drawn, or null for the whole drawbuffer.
+     */
+    private void drawScene(Graphics2D g, Scene scene, Rectangle clip) {
+        Camera camera = scene.getActiveCamera();
+        Rectangle2D view = getView(scene);
+        if (clip != null) {
+            setClip(g, clip);
+            double cx = camera != null ? camera.x : 0, cy = camera != null ? camera.y : 0;
+            view = view.createIntersection(new Rectangle2D.Double(cx + clip.x, cy + clip.y, clip.width, clip.height));
+        }
+        // clear display
+        if (rasterBackend) {
+            Optional.<Raster>ofNullable(bandRasterizer).orElse(raster).clear(Color.BLACK.getRGB());
+        } else {
+            g.setColor(Color.BLACK);
+            g.fillRect(0, 0, drawbuffer.getWidth(), drawbuffer.getHeight());
+        }
+
+        if (Optional.ofNullable(camera).isPresent()) {
+            g.translate(-camera.x, -camera.y);
+        }
+        // draw the World tiles, under all the entities.
+        if (scene.getWorld().getTileMap() != null) {
+            Raster r = getRaster(g);
+            if (r == null) {
+                flushRaster();
+            }
+            tileMapCache.draw(g, r, scene.getWorld().getTileMap(), view);
+        }
+        execute(g, scene, worldCommands, view, clip != null ? view : null);
+        if (app.isDebugGreaterThan(0)) {
+            for (Entity<?> e : visible) {
+                drawDebugInfoEntity(g, scene, e);
+            }
+        }
+
+        // draw World borders
+        Raster r = getRaster(g);
+        if (r != null) {
+            World w = scene.getWorld();
+            r.drawRect((int) w.x, (int) w.y, (int) w.width, (int) w.height, Color.DARK_GRAY.getRGB(), BlendMode.ALPHA);
+        } else {
+            g.setColor(Color.DARK_GRAY);
+            g.draw(scene.getWorld());
+        }
+
+        if (Optional.ofNullable(camera).isPresent()) {
+            g.translate(camera.x, camera.y);
+        }
+        execute(g, scene, hudCommands, null, clip);
+    }
+
+    /**
+     * Clip the drawing of the Graphics2D and of the rasters to an area of the drawbuffer.
+     *
+     * @param g    the Graphics2D API instance of the drawbuffer, not translated.
+     * @param clip the area of the drawbuffer, or null for the whole drawbuffer.
+     */
+    private void setClip(Graphics2D g, Rectangle clip) {
+        Rectangle c = clip != null ? clip : new Rectangle(0, 0, drawbuffer.getWidth(), drawbuffer.getHeight());
+        g.setClip(clip);
+        raster.setClip(c.x, c.y, c.width, c.height);
+        if (bandRasterizer != null) {
+            bandRasterizer.setClip(c.x, c.y, c.width, c.height);
+        }
+    }
+
+    /**
+     * Track the bounds and the signature of the entities to be drawn, to find the areas of the drawbuffer
+     * changed since the previous frame. The whole drawbuffer is drawn again on a scene change, when the camera
+     * moves, in debug mode, and when an entity has behaviors drawing over it (they may draw anywhere).
+     *
+     * @param g     the Graphics2D API instance of the drawbuffer, for the text metrics.
+     * @param scene the {@link Scene} to be drawn.
+     */
+    private void updateDirtyRegions(Graphics2D g, Scene scene) {
+        Camera camera = scene.getActiveCamera();
+        double cx = camera != null ? camera.x : 0, cy = camera != null ? camera.y : 0;
+        if (scene != dirtyScene) {
+            dirtyRegions.clear();
+            dirtyScene = scene;
+        }
+        if (cx != dirtyCameraX || cy != dirtyCameraY || app.isDebugGreaterThan(0)) {
+            dirtyRegions.invalidate();
+            dirtyCameraX = cx;
+            dirtyCameraY = cy;
+        }
+        dirtyFrame++;
+        dirtyRegions.begin(drawbuffer.getWidth(), drawbuffer.getHeight());
+        for (Entity<?> e : visible) {
+            trackDirty(g, e, cx, cy);
+        }
+        for (Entity<?> e : fixed) {
+            trackDirty(g, e, 0, 0);
+        }
+        dirtyRegions.end();
+    }
+
+    /**
+     * Track the pixels an entity is drawn on, with a margin for the antialiasing and the outlines.
+     *
+     * @param g  the Graphics2D API instance of the drawbuffer, for the text metrics.
+     * @param e  the {@link Entity} to be drawn.
+     * @param dx the horizontal offset from the entity position to the drawbuffer (the camera position).
+     * @param dy the vertical offset from the entity position to the drawbuffer.
+     */
+    private void trackDirty(Graphics2D g, Entity<?> e, double dx, double dy) {
+        if (StaticLayerCache.hasDrawingBehavior(e)) {
+            dirtyRegions.invalidate();
+        }
+        double x0 = e.x, y0 = e.y, x1 = e.x + e.width, y1 = e.y + e.height;
+        long signature = Double.hashCode(e.x);
+        signature = 31 * signature + Double.hashCode(e.y);
+        signature = 31 * signature + Double.hashCode(e.width);
+        signature = 31 * signature + Double.hashCode(e.height);
+        signature = 31 * signature + e.getPriority();
+        signature = 31 * signature + Objects.hashCode(e.getColor());
+        signature = 31 * signature + Objects.hashCode(e.getFillColor());
+        if (e instanceof TextObject te) {
+            Font font = Optional.ofNullable(te.getFont()).orElse(g.getFont());
+            FontMetrics fm = g.getFontMetrics(font);
+            // the glyphs may overhang their advance (italics).
+            int overhang = font.getSize() / 4;
+            x0 = te.x - overhang;
+            y0 = te.y - fm.getAscent();
+            x1 = te.x + fm.stringWidth(te.getText()) + overhang;
+            y1 = te.y + fm.getDescent();
+            signature = 31 * signature + Objects.hashCode(te.getText());
+            signature = 31 * signature + font.hashCode();
+        } else if (e instanceof GameObject go && go.getImage() != null) {
+            x1 = Math.max(x1, e.x + go.getImage().getWidth());
+            y1 = Math.max(y1, e.y + go.getImage().getHeight());
+            signature = 31 * signature + System.identityHashCode(go.getImage());
+        } else if (e instanceof GaugeObject gg) {
+            signature = 31 * signature + Double.hashCode(gg.getValue());
+            signature = 31 * signature + Double.hashCode(gg.getMinValue());
+            signature = 31 * signature + Double.hashCode(gg.getMaxValue());
+        } else if (e instanceof ParticlesObject po) {
+            // the particles move on each frame, only their own bounds are drawn.
+            ParticleBuffer p = po.getParticles();
+            x0 = y0 = Double.MAX_VALUE;
+            x1 = y1 = -Double.MAX_VALUE;
+            for (int i = 0; i < p.size(); i++) {
+                double s = Math.max(1, (int) p.size[i]);
+                x0 = Math.min(x0, p.x[i]);
+                y0 = Math.min(y0, p.y[i]);
+                x1 = Math.max(x1, p.x[i] + s);
+                y1 = Math.max(y1, p.y[i] + s);
+            }
+            signature = p.size() > 0 ? dirtyFrame : 0;
+        } else if (e.width <= 0 || e.height <= 0) {
+            // entities without area (like the grid) cover the whole drawbuffer.
+            x0 = dx;
+            y0 = dy;
+            x1 = dx + drawbuffer.getWidth();
+            y1 = dy + drawbuffer.getHeight();
+        }
+        if (x0 > x1 || y0 > y1) {
+            dirtyRegions.track(e, 0, 0, 0, 0, signature);
+            return;
+        }
+        dirtyRegions.track(e,
+                (int) Math.floor(x0 - dx) - DIRTY_MARGIN, (int) Math.floor(y0 - dy) - DIRTY_MARGIN,
+                (int) Math.ceil(x1 - dx) + DIRTY_MARGIN, (int) Math.ceil(y1 - dy) + DIRTY_MARGIN,
+                signature);
+    }
+
+    /**
+     * Fill a command buffer with the drawing commands of entities: one {@link RenderCommandBuffer#LAYER} command
+     * for each cached static layer (at its first entity), and a command typed from the class of each other
+     * entity. The entities with behaviors are always drawn by
+     * {@link Renderer#drawEntity(Graphics2D, Scene, Entity)}, as their behaviors draw over them.
+     *
+     * @param commands the {@link RenderCommandBuffer} to be filled (it is cleared first) and sorted.
+     * @param entities the entities to be drawn, sorted by {@link Renderer#collectVisible(Scene, List)}.
+     */
+    private void emitCommands(RenderCommandBuffer commands, List<Entity<?>> entities) {
+        commands.clear();
+        StaticLayerCache.Layer lastLayer = null;
+        for (Entity<?> e : entities) {
+            StaticLayerCache.Layer layer = staticCaching ? staticCache.getLayer(e) : null;
+            if (layer != null) {
+                if (layer != lastLayer) {
+                    commands.add(RenderCommandBuffer.LAYER, e.x, e.y, e.width, e.height,
+                            null, null, layer, e.getPriority());
+                    lastLayer = layer;
+                }
+                continue;
+            }
+            Class<?> c = e.getClass();
+            if (!e.getBehaviors().isEmpty()) {
+                commands.add(RenderCommandBuffer.ENTITY, e.x, e.y, e.width, e.height, null, null, e, e.getPriority());
+            } else if (c == GameObject.class && ((GameObject) e).getImage() != null) {
+                commands.add(RenderCommandBuffer.SPRITE, e.x, e.y, e.width, e.height,
+                        null, ((GameObject) e).getImage(), e, e.getPriority());
+            } else if (c == GameObject.class || c == WorldArea.class) {
+                if (e.getFillColor() != null) {
+                    commands.add(RenderCommandBuffer.RECT, e.x, e.y, e.width, e.height,
+                            e.getFillColor(), null, e, e.getPriority());
+                }
+            } else if (c == TextObject.class) {
+                commands.add(RenderCommandBuffer.TEXT, e.x, e.y, e.width, e.height,
+                        e.getColor(), ((TextObject) e).getFont(), e, e.getPriority());
+            } else {
+                commands.add(RenderCommandBuffer.ENTITY, e.x, e.y, e.width, e.height, null, null, e, e.getPriority());
+            }
+        }
+        commands.sort();
+        commandCount += commands.size();
+    }
+
+    /**
+     * Execute the sorted commands: the rectangles sharing the same color are filled without changing the
+     * Graphics2D color.
+     *
+     * @param g        the Graphics2D API instance.
+     * @param scene    the {@link Scene} to be drawn.
+     * @param commands the sorted {@link RenderCommandBuffer}.
+     * @param view     the visible world area, for the cached static layers.
+     * @param clip     the area being drawn (see {@link DirtyRegions}), the rectangles and sprites out of it are
+     *                 skipped; null to execute all the commands.
+     */
+    private void execute(Graphics2D g, Scene scene, RenderCommandBuffer commands, Rectangle2D view, Rectangle2D clip) {
+        Raster r = getRaster(g);
+        int color = -1;
+        for (int k = 0; k < commands.size(); k++) {
+            int i = commands.get(k);
+            if (clip != null && isOutOf(commands, i, clip)) {
+                continue;
+            }
+            switch (commands.getType(i)) {
+                case RenderCommandBuffer.RECT -> {
+                    commandBounds.setRect(commands.getX(i), commands.getY(i),
+                            commands.getWidth(i), commands.getHeight(i));
+                    if (r != null) {
+                        fillRect(r, commandBounds, commands.getColor(i));
+                    } else {
+                        if (commands.getColorId(i) != color) {
+                            color = commands.getColorId(i);
+                            g.setColor(commands.getColor(i));
+                        }
+                        g.fill(commandBounds);
+                    }
+                }
+                case RenderCommandBuffer.SPRITE -> drawObject(g, (Entity<?>) commands.getTarget(i));
+                case RenderCommandBuffer.LAYER -> {
+                    flushRaster();
+                    staticCache.draw(g, (StaticLayerCache.Layer) commands.getTarget(i), view, layerPainter);
+                    color = -1;
+                }
+                case RenderCommandBuffer.TEXT -> {
+                    drawText(g, (TextObject) commands.getTarget(i));
+                    color = -1;
+                }
+                default -> {
+                    drawEntity(g, scene, (Entity<?>) commands.getTarget(i));
+                    color = -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if the command is a rectangle or a sprite not overlapping the clip area (with one pixel
+     * of margin for the antialiasing).
+     */
+    private static boolean isOutOf(RenderCommandBuffer commands, int i, Rectangle2D clip) {
+        double w = commands.getWidth(i), h = commands.getHeight(i);
+        switch (commands.getType(i)) {
+            case RenderCommandBuffer.RECT -> {
+                // nothing to do, the bounds are the drawn area.
+            }
+            case RenderCommandBuffer.SPRITE -> {
+                BufferedImage image = (BufferedImage) commands.getResource(i);
+                w = Math.max(w, image.getWidth());
+                h = Math.max(h, image.getHeight());
+            }
+            default -> {
+                return false;
+            }
+        }
+        return !clip.intersects(commands.getX(i) - 1, commands.getY(i) - 1, w + 2, h + 2);
+    }
+
+    /**
+     * Collect the world entities to be drawn, sorted by priority.
+     * <p>
+     * With culling, only the entities overlapping the active camera viewport (extended by the culling margin)
+     * are kept. They are read from the {@link CollisionManager} broad-phase when it is up to date for this
+     * scene, so the off-screen entities are not even iterated; otherwise all the scene entities are tested.
+     * The broad-phase is out of date when it indexes another scene, was not rebuilt since the previous frame
+     * (game paused) or when entities were added or removed since its build. The entities which can not be
+     * culled by their bounds are always drawn.
+     *
+     * @param scene  the {@link Scene} to be drawn.
+     * @param result the list to be filled (it is cleared first).
+     */
+    private void collectVisible(Scene scene, List<Entity<?>> result) {
+        result.clear();
+        drawnCount = culledCount = 0;
+        Camera camera = scene.getActiveCamera();
+        if (!culling || camera == null) {
+            for (Entity<?> e : scene.getEntities().values()) {
+                if (isDrawnInWorld(e)) {
+                    result.add(e);
+                }
+            }
+        } else {
+            double x = camera.x - cullingMargin, y = camera.y - cullingMargin;
+            double w = camera.width + 2 * cullingMargin, h = camera.height + 2 * cullingMargin;
+            CollisionManager cm = SystemManager.get(CollisionManager.class);
+            if (isBroadPhaseUpToDate(cm, scene)) {
+                SpatialGrid broadPhase = cm.getBroadPhase();
+                broadPhase.query(x, y, w, h, result);
+                result.removeIf(e -> !isDrawnInWorld(e) || !isCullable(e));
+                refreshUnbounded(scene);
+                for (Entity<?> e : unbounded) {
+                    if (isDrawnInWorld(e)) {
+                        result.add(e);
+                    }
+                }
+                // the indexed entities which are not drawn.
+                culledCount = Math.max(0, broadPhase.getBodies().size() - result.size());
+            } else {
+                for (Entity<?> e : scene.getEntities().values()) {
+                    if (isDrawnInWorld(e)) {
+                        if (!isCullable(e) || e.intersects(x, y, w, h)) {
+                            result.add(e);
+                        } else {
+                            culledCount++;
+                        }
+                    }
+                }
+            }
+        }
+        result.sort(staticCaching ? staticCache.getComparator() : BY_PRIORITY);
+        drawnCount = result.size();
+    }
+
+    /**
+     * Replace the images handed out by the {@link ResourceManager} (window icon, {@link GameObject} images)
+     * with their version converted for the current screen, after a screen configuration change (checked again
+     * on a scene change or when entities are added or removed). The static
+     * layers and the dirty regions using these images are drawn again, their signature changing with them.
+     *
+     * @param scene the {@link Scene} to be drawn.
+     */
+    private void resolveImages(Scene scene) {
+        long version = ResourceManager.getVersion();
+        if (version == resourceVersion && scene == resourceScene
+                && scene.getEntities().size() == resourceEntityCount) {
+            return;
+        }
+        if (version != resourceVersion && window != null) {
+            window.setIconImage(ResourceManager.get(ICON));
+        }
+        resourceVersion = version;
+        resourceScene = scene;
+        resourceEntityCount = scene.getEntities().size();
+        if (version == 0) {
+            // nothing converted since the images were loaded.
+            return;
+        }
+        for (Entity<?> e : scene.getEntities().values()) {
+            if (e instanceof GameObject go && go.getImage() != null) {
+                go.setImage(ResourceManager.resolve(go.getImage()));
+            }
+        }
+    }
+
+    /**
+     * @param cm    the {@link CollisionManager}, if any.
+     * @param scene the {@link Scene} to be drawn.
+     * @return true if the broad-phase was built for this scene since the previous frame, with its current entities.
+     */
+    private boolean isBroadPhaseUpToDate(CollisionManager cm, Scene scene) {
+        if (cm == null) {
+            return false;
+        }
+        boolean rebuilt = cm.getBuildCount() != broadPhaseBuild;
+        broadPhaseBuild = cm.getBuildCount();
+        return rebuilt && cm.getIndexedScene() == scene && cm.getIndexedEntityCount() == scene.getEntities().size();
+    }
+
+    /**
+     * @param scene the {@link Scene} to be drawn.
+     * @return the world area visible in the drawbuffer.
+     */
+    private Rectangle2D getView(Scene scene) {
+        Camera camera = scene.getActiveCamera();
+        return camera != null
+                ? new Rectangle2D.Double(camera.x, camera.y, camera.width, camera.height)
+                : new Rectangle2D.Double(0, 0, drawbuffer.getWidth(), drawbuffer.getHeight());
+    }
+
+    private static boolean isDrawnInWorld(Entity<?> e) {
+        return e.isActive() && !(e instanceof Camera) && e.getCameraIsStickedTo() == null;
+    }
+
+    /**
+     * Entities without area (like the {@link GridObject}, covering the whole world) and the particles
+     * emitters (the particles fly out of the emitter bounds) are never culled.
+     *
+     * @param e the {@link Entity} to be tested.
+     * @return true if the entity is only drawn when its bounds overlap the viewport.
+     */
+    private static boolean isCullable(Entity<?> e) {
+        return e.width > 0 && e.height > 0 && !(e instanceof ParticlesObject);
+    }
+
+    private void refreshUnbounded(Scene scene) {
+        if (scene != unboundedScene || scene.getEntities().size() != unboundedCount) {
+            unbounded.clear();
+            for (Entity<?> e : scene.getEntities().values()) {
+                if (!isCullable(e)) {
+                    unbounded.add(e);
+                }
+            }
+            unboundedScene = scene;
+            unboundedCount = scene.getEntities().size();
+        }
+    }
+
     private void drawDebugInfoEntity(Graphics2D g, Scene scene, Entity<?> e) {
         Vector2d velocity = e.getVelocity();
         Vector2d acc = e.getAcceleration();
 
         g.setColor(Color.ORANGE);
-        g.draw(e);
+        Raster r = getRaster(g);
+        if (r != null) {
+            r.drawRect((int) e.x, (int) e.y, (int) e.width, (int) e.height, Color.ORANGE.getRGB(), BlendMode.ALPHA);
+        } else {
+            g.draw(e);
+        }
+        flushRaster();
         g.setFont(debugFont);
         g.drawString("#%d:%s".formatted(e.getId(), e.getName()), (int) (e.getX() + e.getWidth() + 4), (int) e.getY());
         // draw velocity vector
@@ -198,6 +783,11 @@ public class Renderer implements GSystem {
     }
 
     private void drawVector(Graphics2D g, double x, double y, double dx, double dy, Color c) {
+        Raster r = getRaster(g);
+        if (r != null) {
+            r.drawLine((int) x, (int) y, (int) (x + dx), (int) (y + dy), c.getRGB(), BlendMode.ALPHA);
+            return;
+        }
         g.setColor(c);
         g.drawLine(
                 (int) x, (int) y,
@@ -206,34 +796,80 @@ public class Renderer implements GSystem {
     }
 
     public void drawEntity(Graphics2D g, Scene scene, Entity<?> e) {
-        switch (e.getClass().getSimpleName()) {
-            case "GameObject", "WorldArea" -> {
-                drawObject(g, e);
-            }
-            case "TextObject" -> {
-                drawText(g, (TextObject) e);
-            }
-            case "GridObject" -> {
-                drawGrid(g, scene, (GridObject) e);
-            }
-            case "GaugeObject" -> {
-                drawGauge(g, (GaugeObject) e);
+        renderers.get(e.getClass()).draw(g, scene, e);
+        if (!e.getBehaviors().isEmpty()) {
+            flushRaster();
+            e.getBehaviors().forEach(b -> b.draw(g, e));
+        }
+    }
+
+    private void drawObject(Graphics2D g, Entity<?> e) {
+        Raster r = getRaster(g);
+        if (e instanceof GameObject go && go.getImage() != null) {
+            if (r == null || !r.drawImage(go.getImage(), (int) e.x, (int) e.y)) {
+                flushRaster();
+                g.drawImage(go.getImage(), (int) e.x, (int) e.y, null);
             }
-            default -> {
-                error(Renderer.class, "Unknown object class %s", e.getClass());
+        } else if (e.getFillColor() != null) {
+            if (r != null) {
+                fillRect(r, e, e.getFillColor());
+            } else {
+                g.setColor(e.getFillColor());
+                g.fill(e);
             }
         }
-        e.getBehaviors().forEach(b -> b.draw(g, e));
     }
 
-    private static void drawObject(Graphics2D g, Entity<?> e) {
-        if (e.getFillColor() != null) {
-            g.setColor(e.getFillColor());
-            g.fill(e);
+    /**
+     * Fill the pixels covered by the bounds of an entity, at least one pixel wide and high.
+     */
+    private static void fillRect(Raster r, Rectangle2D b, Color c) {
+        int x0 = (int) Math.floor(b.getMinX()), y0 = (int) Math.floor(b.getMinY());
+        int w = Math.max(1, (int) Math.floor(b.getMaxX()) - x0), h = Math.max(1, (int) Math.floor(b.getMaxY()) - y0);
+        r.fillRect(x0, y0, w, h, c.getRGB(), BlendMode.ALPHA);
+    }
+
+    /**
+     * @param g the Graphics2D API instance the entity would be drawn with.
+     * @return the {@link Raster} translated like <code>g</code> if the raster backend can replace it, or null
+     * to draw with Graphics2D.
+     */
+    private Raster getRaster(Graphics2D g) {
+        return rasterBackend ? toRaster(g, bandRasterizer != null ? bandRasterizer : raster) : null;
+    }
+
+    /**
+     * The {@link Raster} can only replace the drawbuffer Graphics2D (not the one of a cached image), when
+     * its transform is a simple translation.
+     */
+    private Raster toRaster(Graphics2D g, Raster target) {
+        if (target == null || g != bufferGraphics) {
+            return null;
+        }
+        AffineTransform t = g.getTransform();
+        if (t.getType() > AffineTransform.TYPE_TRANSLATION) {
+            return null;
+        }
+        target.setTranslation((int) Math.floor(t.getTranslateX()), (int) Math.floor(t.getTranslateY()));
+        return target;
+    }
+
+    /**
+     * Rasterize the commands recorded by the {@link BandRasterizer}, before drawing with Graphics2D over them.
+     */
+    private void flushRaster() {
+        if (bandRasterizer != null) {
+            bandRasterizer.flush();
         }
     }
 
-    private static void drawText(Graphics2D g, TextObject te) {
+    private void drawText(Graphics2D g, TextObject te) {
+        flushRaster();
+        if (textCaching) {
+            Font font = Optional.ofNullable(te.getFont()).orElse(g.getFont());
+            textCache.drawString(g, te.getText(), font, te.getColor(), (int) te.x, (int) te.y);
+            return;
+        }
         g.setColor(te.getColor());
         if (Optional.ofNullable(te.getFont()).isPresent()) {
             g.setFont(te.getFont());
@@ -241,30 +877,72 @@ public class Renderer implements GSystem {
         g.drawString(te.getText(), (int) te.x, (int) te.y);
     }
 
+    /**
+     * Draw all the particles of an emitter, in one pass directly into the drawbuffer pixels, or with
+     * Graphics2D if the raster path and the raster backend are disabled, or the transform is not a simple
+     * translation (the Graphics2D path always blends with the alpha).
+     *
+     * @param g  the Graphics2D API instance.
+     * @param po the {@link ParticlesObject} emitter.
+     */
+    private void drawParticles(Graphics2D g, ParticlesObject po) {
+        ParticleBuffer p = po.getParticles();
+        int[] palette = po.getPalette();
+        Raster r = rasterBackend ? getRaster(g) : rasterParticles ? toRaster(g, raster) : null;
+        if (r != null) {
+            BlendMode mode = po.getBlendMode();
+            for (int i = 0; i < p.size(); i++) {
+                int s = Math.max(1, (int) p.size[i]);
+                if (r.fillRect((int) p.x[i], (int) p.y[i], s, s, palette[p.color[i]], mode)) {
+                    particlesDrawn++;
+                }
+            }
+            return;
+        }
+        Color[] colors = po.getColors();
+        int current = -1;
+        for (int i = 0; i < p.size(); i++) {
+            // only change the color when needed.
+            if (p.color[i] != current) {
+                current = p.color[i];
+                g.setColor(colors[current]);
+            }
+            int s = Math.max(1, (int) p.size[i]);
+            g.fillRect((int) p.x[i], (int) p.y[i], s, s);
+        }
+        particlesDrawn += p.size();
+    }
+
     private void drawGauge(Graphics2D g, GaugeObject gg) {
+        int x = (int) gg.getX(), y = (int) gg.getY(), w = (int) gg.getWidth(), h = (int) gg.getHeight();
+        int value = (int) (gg.getWidth() - 5 * ((gg.getMaxValue() - gg.getMinValue()) / gg.getValue()));
+        Raster r = getRaster(g);
+        if (r != null) {
+            int black = Color.BLACK.getRGB();
+            r.drawRect(x, y, w, h, black, BlendMode.ALPHA);
+            r.drawRect(x + 2, y + 2, w - 4, h - 4, black, BlendMode.ALPHA);
+            r.drawRect(x + 1, y + 1, w - 2, h - 2, gg.getColor().getRGB(), BlendMode.ALPHA);
+            r.fillRect(x + 3, y + 3, value, h - 5, gg.getFillColor().getRGB(), BlendMode.ALPHA);
+            return;
+        }
         g.setColor(Color.BLACK);
-        g.drawRect((int) gg.getX(), (int) gg.getY(), (int) gg.getWidth(), (int) gg.getHeight());
-        g.drawRect((int) gg.getX() + 2, (int) gg.getY() + 2, (int) gg.getWidth() - 4, (int) gg.getHeight() - 4);
+        g.drawRect(x, y, w, h);
+        g.drawRect(x + 2, y + 2, w - 4, h - 4);
         g.setColor(gg.getColor());
-        g.drawRect((int) gg.getX() + 1, (int) gg.getY() + 1, (int) gg.getWidth() - 2, (int) gg.getHeight() - 2);
+        g.drawRect(x + 1, y + 1, w - 2, h - 2);
         g.setColor(gg.getFillColor());
-        g.fillRect(
-                (int) gg.getX() + 3, (int) gg.getY() + 3,
-                (int) (gg.getWidth() - 5 * ((gg.getMaxValue() - gg.getMinValue()) / gg.getValue())), (int) gg.getHeight() - 5);
+        g.fillRect(x + 3, y + 3, value, h - 5);
     }
 
     private void drawGrid(Graphics2D g, Scene scene, GridObject go) {
-        g.setColor(go.getColor());
-        for (int iy = 0; iy < scene.getWorld().getHeight(); iy += go.getTileWidth()) {
-            for (int ix = 0; ix < scene.getWorld().getWidth(); ix += go.getTileWidth()) {
-                g.drawRect(ix, iy, go.getTileWidth(), (int) (iy + go.getTileHeight() < scene.getWorld().getHeight()
-                        ? go.getTileHeight()
-                        : go.getTileHeight() - (scene.getWorld().getHeight() - iy)));
-            }
-        }
+        flushRaster();
+        gridCache.draw(g, go, scene.getWorld(), scene.getActiveCamera());
     }
 
     public void dispose() {
+        if (bandRasterizer != null) {
+            bandRasterizer.dispose();
+        }
         if (window != null && window.isEnabled() && window.isActive()) {
             window.dispose();
 
@@ -273,13 +951,20 @@ public class Renderer implements GSystem {
         debug(Renderer.class, "End of processing.");
     }
 
+    /**
+     * @return the {@link EntityRendererRegistry}, to register the drawing code of new entity classes.
+     */
+    public EntityRendererRegistry getRenderers() {
+        return renderers;
+    }
+
     public JFrame getWindow() {
         return window;
     }
 
     @Override
     public Collection<Class<?>> getDependencies() {
-        return List.of(Config.class, SceneManager.class, PhysicEngine.class, InputListener.class);
+        return List.of(Config.class, SceneManager.class, PhysicEngine.class, CollisionManager.class, InputListener.class);
     }
 
     @Override
@@ -287,6 +972,28 @@ public class Renderer implements GSystem {
         Config config = SystemManager.get(Config.class);
         Dimension bufferSize = config.get("app.render.buffer.size");
         drawbuffer = new BufferedImage(bufferSize.width, bufferSize.height, BufferedImage.TYPE_INT_ARGB);
+        raster = new Raster(drawbuffer);
+        rasterParticles = config.get("app.render.particles.raster");
+        rasterBackend = "raster".equalsIgnoreCase(config.get("app.render.backend"));
+        int nbBands = config.get("app.render.parallel.bands");
+        if (rasterBackend && nbBands > 1) {
+            int threads = config.get("app.render.parallel.threads");
+            bandRasterizer = new BandRasterizer(drawbuffer, nbBands).setParallelism(threads);
+        }
+        culling = config.get("app.render.culling.enabled");
+        cullingMargin = config.get("app.render.culling.margin");
+        staticCaching = config.get("app.render.static.enabled");
+        int chunkSize = config.get("app.render.static.chunk.size");
+        int maxMemory = config.get("app.render.static.memory.max");
+        staticCache.setChunkSize(chunkSize).setMaxMemory(maxMemory * 1024L * 1024L);
+        tileMapCache.setChunkSize(chunkSize)
+                .setColors(config.get("app.render.tilemap.color.solid"), config.get("app.render.tilemap.color.oneway"));
+        textCaching = config.get("app.render.text.cache.enabled");
+        int maxTextMemory = config.get("app.render.text.cache.memory.max");
+        textCache.setMaxMemory(maxTextMemory * 1024L * 1024L);
+        dirtyRendering = config.get("app.render.dirty.enabled");
+        int maxRegions = config.get("app.render.dirty.regions.max");
+        dirtyRegions.setMaxRegions(maxRegions);
 
         Dimension windowSize = config.get("app.render.window.size");
         String title = config.get("app.render.window.title");
@@ -315,6 +1022,36 @@ public class Renderer implements GSystem {
     public void process(GameInterface game, double elapsed, Map<String, Object> stats) {
         SceneManager sm = SystemManager.get(SceneManager.class);
         render(sm.getActiveScene());
+        stats.put("particles.drawn", particlesDrawn);
+        stats.put("render.drawn", drawnCount);
+        stats.put("render.culled", culledCount);
+        stats.put("render.commands", commandCount);
+        stats.put("render.grid.rebuilds", gridCache.getRebuilds());
+        stats.put("render.tilemap.rebuilds", tileMapCache.getRebuilds());
+        if (staticCaching) {
+            stats.put("render.static.layers", staticCache.getLayerCount());
+            stats.put("render.static.hit.ratio", staticCache.getHitRatio());
+            stats.put("render.static.memory", staticCache.getMemory());
+        }
+        if (bandRasterizer != null) {
+            double max = 0, total = 0;
+            for (int b = 0; b < bandRasterizer.getBandCount(); b++) {
+                double time = bandRasterizer.getBandTime(b);
+                stats.put("render.band.%d.time".formatted(b), time);
+                max = Math.max(max, time);
+                total += time;
+            }
+            stats.put("render.bands.time.max", max);
+            stats.put("render.bands.time.avg", total / bandRasterizer.getBandCount());
+        }
+        if (textCaching) {
+            stats.put("render.text.hit.ratio", textCache.getHitRatio());
+            stats.put("render.text.memory", textCache.getMemory());
+        }
+        if (dirtyRendering) {
+            stats.put("render.dirty.ratio", dirtyRegions.getDirtyRatio() * 100.0);
+            stats.put("render.dirty.regions", dirtyRegions.getRegionCount());
+        }
     }
 
     @Override
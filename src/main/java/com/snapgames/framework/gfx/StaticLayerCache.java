@@ -0,0 +1,360 @@
+package com.snapgames.framework.gfx;
+
+import com.snapgames.framework.behaviors.Behavior;
+import com.snapgames.framework.entity.Camera;
+import com.snapgames.framework.entity.Entity;
+import com.snapgames.framework.entity.GameObject;
+import com.snapgames.framework.entity.WorldArea;
+import com.snapgames.framework.physic.PhysicType;
+import com.snapgames.framework.scene.Scene;
+
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.*;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * The {@link StaticLayerCache} bakes the static entities of a {@link Scene} into off-screen images, to be
+ * composited instead of drawing each entity on every frame.
+ * <p>
+ * The world entities are sorted by priority, the cacheable ones first within a priority (see
+ * {@link StaticLayerCache#isCacheable(Entity)}). Each run of contiguous cacheable entities in this order is
+ * merged into one {@link Layer}: drawing the layer at the place of its first entity gives the same result
+ * as drawing its entities one by one.
+ * <p>
+ * A layer is split into square chunks in world coordinates, and a chunk image is only rendered when it
+ * becomes visible. All the chunks of a layer are dropped as soon as one of its entities changes (position,
+ * size, color, sprite, priority). The least recently used chunks are dropped when the memory cap is exceeded.
+ * The layers are computed again when the scene or its number of entities changes, or when an entity is
+ * no longer cacheable.
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * cache.update(scene);
+ * visible.sort(cache.getComparator());
+ * for (Entity e : visible) {
+ *     Layer layer = cache.getLayer(e);
+ *     if (layer == null) {
+ *         drawEntity(g, e);
+ *     } else if (layer != lastLayer) {
+ *         cache.draw(g, layer, camera, (cg, m) -&gt; drawEntity(cg, m));
+ *         lastLayer = layer;
+ *     }
+ * }
+ * </code></pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class StaticLayerCache {
+
+    /**
+     * A run of contiguous static entities, rendered together.
+     */
+    public static class Layer {
+        private final List<Entity<?>> members = new ArrayList<>();
+        private final Map<Long, Chunk> chunks = new HashMap<>();
+        private final Rectangle2D bounds = new Rectangle2D.Double();
+        private long signature;
+
+        public List<Entity<?>> getMembers() {
+            return members;
+        }
+    }
+
+    private static class Chunk {
+        private final BufferedImage image;
+        private final int x, y;
+        private long lastUsed;
+
+        Chunk(BufferedImage image, int x, int y) {
+            this.image = image;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    /**
+     * True if a {@link Behavior} class overrides the draw method.
+     */
+    private static final ClassValue<Boolean> DRAWING_BEHAVIOR = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> c) {
+            try {
+                return c.getMethod("draw", Graphics2D.class, Object.class).getDeclaringClass() != Behavior.class;
+            } catch (NoSuchMethodException e) {
+                return true;
+            }
+        }
+    };
+
+    private final List<Layer> layers = new ArrayList<>();
+    private final Map<Entity<?>, Layer> layerOf = new IdentityHashMap<>();
+    private final Comparator<Entity<?>> comparator = Comparator
+            .<Entity<?>>comparingInt(Entity::getPriority)
+            .thenComparingInt(e -> layerOf.containsKey(e) ? 0 : 1);
+
+    private Scene scene;
+    private int entityCount = -1;
+    private boolean regroup = true;
+
+    private int chunkSize = 256;
+    private long maxMemory = 16L * 1024 * 1024;
+    private long memory = 0;
+    private long frame = 0;
+    private int hits = 0, misses = 0;
+
+    /**
+     * Prepare a new frame: compute the layers again if needed.
+     *
+     * @param scene the {@link Scene} to be drawn.
+     */
+    public void update(Scene scene) {
+        frame++;
+        hits = misses = 0;
+        if (regroup || scene != this.scene || scene.getEntities().size() != entityCount) {
+            group(scene);
+        }
+    }
+
+    private void group(Scene scene) {
+        clear();
+        this.scene = scene;
+        this.entityCount = scene.getEntities().size();
+        this.regroup = false;
+
+        List<Entity<?>> sorted = new ArrayList<>();
+        for (Entity<?> e : scene.getEntities().values()) {
+            if (e.isActive() && !(e instanceof Camera) && e.getCameraIsStickedTo() == null) {
+                sorted.add(e);
+            }
+        }
+        sorted.sort(Comparator.<Entity<?>>comparingInt(Entity::getPriority)
+                .thenComparingInt(e -> isCacheable(e) ? 0 : 1));
+        Layer current = null;
+        for (Entity<?> e : sorted) {
+            if (!isCacheable(e)) {
+                current = null;
+                continue;
+            }
+            if (current == null) {
+                current = new Layer();
+                layers.add(current);
+            }
+            current.members.add(e);
+            layerOf.put(e, current);
+        }
+        for (Layer layer : layers) {
+            layer.signature = signature(layer);
+            computeBounds(layer);
+        }
+    }
+
+    /**
+     * A cacheable entity is an active {@link PhysicType#STATIC} {@link GameObject} or {@link WorldArea}
+     * living in the world, with an area and without any behavior drawing on it.
+     *
+     * @param e the {@link Entity} to be tested.
+     * @return true if the entity can be baked into a layer.
+     */
+    public static boolean isCacheable(Entity<?> e) {
+        if (!e.isActive()
+                || !e.getPhysicType().equals(PhysicType.STATIC)
+                || e.getCameraIsStickedTo() != null
+                || e.width <= 0 || e.height <= 0
+                || (e.getClass() != GameObject.class && e.getClass() != WorldArea.class)) {
+            return false;
+        }
+        return !hasDrawingBehavior(e);
+    }
+
+    /**
+     * @param e the {@link Entity} to be tested.
+     * @return true if one of the entity behaviors overrides the draw method.
+     */
+    static boolean hasDrawingBehavior(Entity<?> e) {
+        for (Behavior<?> b : e.getBehaviors()) {
+            if (DRAWING_BEHAVIOR.get(b.getClass())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long signature(Layer layer) {
+        long h = 17;
+        for (Entity<?> e : layer.members) {
+            h = 31 * h + Double.hashCode(e.x);
+            h = 31 * h + Double.hashCode(e.y);
+            h = 31 * h + Double.hashCode(e.width);
+            h = 31 * h + Double.hashCode(e.height);
+            h = 31 * h + e.getPriority();
+            h = 31 * h + (e.getFillColor() != null ? e.getFillColor().getRGB() : 0);
+            h = 31 * h + (e instanceof GameObject go ? System.identityHashCode(go.getImage()) : 0);
+        }
+        return h;
+    }
+
+    private static void computeBounds(Layer layer) {
+        layer.bounds.setRect(layer.members.get(0));
+        for (Entity<?> e : layer.members) {
+            Rectangle2D.union(layer.bounds, e, layer.bounds);
+        }
+    }
+
+    /**
+     * @param e an {@link Entity} of the scene.
+     * @return the {@link Layer} the entity is baked into, or null if it must be drawn on its own.
+     */
+    public Layer getLayer(Entity<?> e) {
+        return layerOf.get(e);
+    }
+
+    /**
+     * @return the order the entities must be drawn in: by priority, the layered entities first.
+     */
+    public Comparator<Entity<?>> getComparator() {
+        return comparator;
+    }
+
+    /**
+     * Draw the visible chunks of a layer, rendering the missing ones with the painter.
+     *
+     * @param g       the Graphics2D API instance, translated to the world coordinates.
+     * @param layer   the {@link Layer} to be drawn.
+     * @param view    the visible area (the camera viewport).
+     * @param painter draws an entity with the given Graphics2D.
+     */
+    public void draw(Graphics2D g, Layer layer, Rectangle2D view, BiConsumer<Graphics2D, Entity<?>> painter) {
+        for (Entity<?> e : layer.members) {
+            if (!isCacheable(e)) {
+                // draw the layer entities directly for this frame, and compute the layers again on the next one.
+                regroup = true;
+                layer.members.stream().filter(Entity::isActive).forEach(m -> painter.accept(g, m));
+                return;
+            }
+        }
+        long signature = signature(layer);
+        if (signature != layer.signature) {
+            dropChunks(layer);
+            layer.signature = signature;
+            computeBounds(layer);
+        }
+        Rectangle2D area = layer.bounds.createIntersection(view);
+        if (area.isEmpty()) {
+            return;
+        }
+        int cx0 = (int) Math.floor(area.getMinX() / chunkSize), cx1 = (int) Math.floor(area.getMaxX() / chunkSize);
+        int cy0 = (int) Math.floor(area.getMinY() / chunkSize), cy1 = (int) Math.floor(area.getMaxY() / chunkSize);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                long key = ((long) cy << 32) | (cx & 0xFFFFFFFFL);
+                Chunk chunk = layer.chunks.get(key);
+                if (chunk == null) {
+                    chunk = render(g, layer, cx * chunkSize, cy * chunkSize, painter);
+                    layer.chunks.put(key, chunk);
+                    misses++;
+                } else {
+                    hits++;
+                }
+                chunk.lastUsed = frame;
+                g.drawImage(chunk.image, chunk.x, chunk.y, null);
+            }
+        }
+        if (memory > maxMemory) {
+            evict();
+        }
+    }
+
+    private Chunk render(Graphics2D g, Layer layer, int x, int y, BiConsumer<Graphics2D, Entity<?>> painter) {
+        BufferedImage image = new BufferedImage(chunkSize, chunkSize, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D cg = image.createGraphics();
+        cg.setRenderingHints(g.getRenderingHints());
+        cg.translate(-x, -y);
+        for (Entity<?> e : layer.members) {
+            if (e.intersects(x, y, chunkSize, chunkSize)) {
+                painter.accept(cg, e);
+            }
+        }
+        cg.dispose();
+        memory += (long) chunkSize * chunkSize * 4;
+        return new Chunk(image, x, y);
+    }
+
+    /**
+     * Drop the least recently used chunks (but not the ones used in this frame) until the memory cap is met.
+     */
+    private void evict() {
+        List<Map.Entry<Long, Chunk>> candidates = new ArrayList<>();
+        List<Layer> owners = new ArrayList<>();
+        for (Layer layer : layers) {
+            for (Map.Entry<Long, Chunk> entry : layer.chunks.entrySet()) {
+                if (entry.getValue().lastUsed < frame) {
+                    candidates.add(entry);
+                    owners.add(layer);
+                }
+            }
+        }
+        Integer[] order = new Integer[candidates.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> candidates.get(i).getValue().lastUsed));
+        for (int i = 0; i < order.length && memory > maxMemory; i++) {
+            owners.get(order[i]).chunks.remove(candidates.get(order[i]).getKey());
+            memory -= (long) chunkSize * chunkSize * 4;
+        }
+    }
+
+    private void dropChunks(Layer layer) {
+        memory -= (long) layer.chunks.size() * chunkSize * chunkSize * 4;
+        layer.chunks.clear();
+    }
+
+    /**
+     * Drop all the layers and their chunks.
+     */
+    public void clear() {
+        layers.forEach(this::dropChunks);
+        layers.clear();
+        layerOf.clear();
+        memory = 0;
+        scene = null;
+        entityCount = -1;
+    }
+
+    public StaticLayerCache setChunkSize(int chunkSize) {
+        this.chunkSize = Math.max(16, chunkSize);
+        clear();
+        return this;
+    }
+
+    /**
+     * @param maxMemory the maximum memory of the chunk images, in bytes.
+     * @return the updated {@link StaticLayerCache}.
+     */
+    public StaticLayerCache setMaxMemory(long maxMemory) {
+        this.maxMemory = maxMemory;
+        return this;
+    }
+
+    /**
+     * @return the ratio of chunks drawn from the cache (not rendered) during the current frame.
+     */
+    public double getHitRatio() {
+        return hits + misses == 0 ? 1.0 : (double) hits / (hits + misses);
+    }
+
+    /**
+     * @return the memory used by the chunk images, in bytes.
+     */
+    public long getMemory() {
+        return memory;
+    }
+
+    public int getLayerCount() {
+        return layers.size();
+    }
+}
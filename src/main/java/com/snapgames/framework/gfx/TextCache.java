@@ -0,0 +1,257 @@
+package com.snapgames.framework.gfx;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * The {@link TextCache} draws texts from pre-rendered images instead of rasterizing the glyphs on each frame.
+ * <p>
+ * A (text, font, color) triplet is rendered once into an image fitting the text pixel bounds, and reused until
+ * one of them changes. The least recently used images are dropped when the memory cap is exceeded.
+ * <p>
+ * Numeric texts (digits only, like scores and counters) change often: they are not cached, but drawn digit by
+ * digit from a glyph atlas holding the 10 digits of a (font, color) pair, with one image copy per digit instead
+ * of rasterizing the glyphs. The atlases share the same least recently used order and memory cap as the text
+ * images.
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * textCache.drawString(g, "Score", font, Color.WHITE, x, y);
+ * </code></pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class TextCache {
+
+    private static class Key {
+        private final String text;
+        private final Font font;
+        private final int rgb;
+
+        Key(String text, Font font, int rgb) {
+            this.text = text;
+            this.font = font;
+            this.rgb = rgb;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && rgb == k.rgb && text.equals(k.text) && font.equals(k.font);
+        }
+
+        @Override
+        public int hashCode() {
+            return (text.hashCode() * 31 + font.hashCode()) * 31 + rgb;
+        }
+    }
+
+    /**
+     * An image held by the cache, a rendered text or a digit atlas.
+     */
+    private static class CachedImage {
+        protected BufferedImage image;
+    }
+
+    /**
+     * A rendered text, with the offset of its pixel bounds from the text origin (on the baseline).
+     */
+    private static class TextImage extends CachedImage {
+        private final int dx, dy;
+
+        TextImage(BufferedImage image, int dx, int dy) {
+            this.image = image;
+            this.dx = dx;
+            this.dy = dy;
+        }
+    }
+
+    /**
+     * The 10 digits of a font and color, side by side, cached with an empty text key.
+     */
+    private static class DigitAtlas extends CachedImage {
+        private final int[] srcX = new int[10], dx = new int[10], dy = new int[10];
+        private final int[] width = new int[10], height = new int[10], advance = new int[10];
+    }
+
+    private final LinkedHashMap<Key, CachedImage> images = new LinkedHashMap<>(64, 0.75f, true);
+
+    private long maxMemory = 4L * 1024 * 1024;
+    private long memory = 0;
+    private int textCount = 0;
+    private int hits = 0, misses = 0;
+
+    /**
+     * Draw a text with its baseline starting at (x, y), like {@link Graphics2D#drawString(String, int, int)}.
+     *
+     * @param g     the Graphics2D API instance.
+     * @param text  the text to be drawn.
+     * @param font  the font of the text.
+     * @param color the color of the text.
+     * @param x     the horizontal position of the text origin.
+     * @param y     the vertical position of the text baseline.
+     */
+    public void drawString(Graphics2D g, String text, Font font, Color color, int x, int y) {
+        if (text == null || text.isEmpty() || color == null) {
+            return;
+        }
+        if (isNumeric(text)) {
+            drawDigits(g, text, font, color, x, y);
+            return;
+        }
+        Key key = new Key(text, font, color.getRGB());
+        TextImage ti = (TextImage) images.get(key);
+        if (ti == null) {
+            ti = render(g, text, font, color);
+            images.put(key, ti);
+            textCount++;
+            memory += size(ti.image);
+            evict();
+            misses++;
+        } else {
+            hits++;
+        }
+        g.drawImage(ti.image, x + ti.dx, y + ti.dy, null);
+    }
+
+    private static boolean isNumeric(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Draw a numeric text digit by digit from the atlas of its font and color, without any image per text.
+     */
+    private void drawDigits(Graphics2D g, String text, Font font, Color color, int x, int y) {
+        Key key = new Key("", font, color.getRGB());
+        DigitAtlas atlas = (DigitAtlas) images.get(key);
+        if (atlas == null) {
+            atlas = renderDigits(g, font, color);
+            images.put(key, atlas);
+            memory += size(atlas.image);
+            evict();
+            misses++;
+        } else {
+            hits++;
+        }
+        int pen = x;
+        for (int i = 0; i < text.length(); i++) {
+            int d = text.charAt(i) - '0';
+            int px = pen + atlas.dx[d], py = y + atlas.dy[d];
+            g.drawImage(atlas.image,
+                    px, py, px + atlas.width[d], py + atlas.height[d],
+                    atlas.srcX[d], 0, atlas.srcX[d] + atlas.width[d], atlas.height[d], null);
+            pen += atlas.advance[d];
+        }
+    }
+
+    private static TextImage render(Graphics2D g, String text, Font font, Color color) {
+        FontRenderContext frc = g.getFontRenderContext();
+        Rectangle bounds = font.createGlyphVector(frc, text).getPixelBounds(frc, 0, 0);
+        BufferedImage image = new BufferedImage(
+                Math.max(1, bounds.width), Math.max(1, bounds.height), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D ig = image.createGraphics();
+        ig.setRenderingHints(g.getRenderingHints());
+        ig.setFont(font);
+        ig.setColor(color);
+        ig.drawString(text, -bounds.x, -bounds.y);
+        ig.dispose();
+        return new TextImage(image, bounds.x, bounds.y);
+    }
+
+    private static DigitAtlas renderDigits(Graphics2D g, Font font, Color color) {
+        FontRenderContext frc = g.getFontRenderContext();
+        FontMetrics fm = g.getFontMetrics(font);
+        DigitAtlas atlas = new DigitAtlas();
+        Rectangle[] bounds = new Rectangle[10];
+        int totalWidth = 0, maxHeight = 1;
+        for (int d = 0; d < 10; d++) {
+            bounds[d] = font.createGlyphVector(frc, String.valueOf((char) ('0' + d))).getPixelBounds(frc, 0, 0);
+            atlas.srcX[d] = totalWidth;
+            atlas.dx[d] = bounds[d].x;
+            atlas.dy[d] = bounds[d].y;
+            atlas.width[d] = bounds[d].width;
+            atlas.height[d] = bounds[d].height;
+            atlas.advance[d] = fm.charWidth('0' + d);
+            totalWidth += bounds[d].width;
+            maxHeight = Math.max(maxHeight, bounds[d].height);
+        }
+        atlas.image = new BufferedImage(Math.max(1, totalWidth), maxHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D ig = atlas.image.createGraphics();
+        ig.setRenderingHints(g.getRenderingHints());
+        ig.setFont(font);
+        ig.setColor(color);
+        for (int d = 0; d < 10; d++) {
+            ig.setClip(atlas.srcX[d], 0, atlas.width[d], maxHeight);
+            ig.drawString(String.valueOf((char) ('0' + d)), atlas.srcX[d] - bounds[d].x, -bounds[d].y);
+        }
+        ig.dispose();
+        return atlas;
+    }
+
+    private static long size(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * 4;
+    }
+
+    /**
+     * Drop the least recently used texts and digit atlases until the memory cap is met (the last rendered
+     * one is always kept).
+     */
+    private void evict() {
+        Iterator<CachedImage> it = images.values().iterator();
+        while (memory > maxMemory && images.size() > 1 && it.hasNext()) {
+            CachedImage ci = it.next();
+            memory -= size(ci.image);
+            if (ci instanceof TextImage) {
+                textCount--;
+            }
+            it.remove();
+        }
+    }
+
+    /**
+     * Reset the hit and miss counters, on each frame.
+     */
+    public void resetCounters() {
+        hits = misses = 0;
+    }
+
+    /**
+     * @param maxMemory the maximum memory of the text images, in bytes.
+     * @return the updated {@link TextCache}.
+     */
+    public TextCache setMaxMemory(long maxMemory) {
+        this.maxMemory = maxMemory;
+        evict();
+        return this;
+    }
+
+    /**
+     * @return the ratio of texts drawn from the cache since the counters reset.
+     */
+    public double getHitRatio() {
+        return hits + misses == 0 ? 1.0 : (double) hits / (hits + misses);
+    }
+
+    /**
+     * @return the memory used by the text images and the digit atlases, in bytes.
+     */
+    public long getMemory() {
+        return memory;
+    }
+
+    /**
+     * @return the number of cached text images.
+     */
+    public int size() {
+        return textCount;
+    }
+}
@@ -0,0 +1,174 @@
+package com.snapgames.framework.gfx;
+
+import com.snapgames.framework.physic.TileMap;
+
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@link TileMapCache} draws the {@link TileMap} of a World from pre-rendered images instead of drawing
+ * each tile on every frame.
+ * <p>
+ * The map is split into square chunks in world coordinates. A chunk image is only rendered when it becomes
+ * visible, and only the chunks overlapping the view are drawn. All the chunks are dropped when the tiles,
+ * the map position or the colors change. The chunks without any tile are not drawn at all.
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * tileMapCache.draw(g, raster, world.getTileMap(), view);
+ * </code></pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class TileMapCache {
+
+    private final Map<Long, BufferedImage> chunks = new HashMap<>();
+    private final Polygon slope = new Polygon();
+
+    private TileMap map;
+    private int version;
+    private double originX, originY;
+    private int chunkSize = 256;
+    private Color solidColor = Color.GRAY, oneWayColor = Color.LIGHT_GRAY;
+    private int rebuilds = 0;
+
+    /**
+     * Draw the chunks of the map visible in the view.
+     *
+     * @param g    the Graphics2D API instance, translated to the world coordinates.
+     * @param r    the {@link Raster} drawing the chunk images into the drawbuffer pixels, or null to draw them
+     *             with Graphics2D.
+     * @param map  the {@link TileMap} to be drawn.
+     * @param view the visible area (the camera viewport), or null to draw the whole map.
+     */
+    public void draw(Graphics2D g, Raster r, TileMap map, Rectangle2D view) {
+        if (map != this.map || map.getVersion() != version || map.getX() != originX || map.getY() != originY) {
+            clear();
+            this.map = map;
+            version = map.getVersion();
+            originX = map.getX();
+            originY = map.getY();
+        }
+        Rectangle2D area = new Rectangle2D.Double(originX, originY,
+                (double) map.getCols() * map.getTileWidth(), (double) map.getRows() * map.getTileHeight());
+        if (view != null) {
+            area = area.createIntersection(view);
+        }
+        if (area.isEmpty()) {
+            return;
+        }
+        int cx0 = (int) Math.floor((area.getMinX() - originX) / chunkSize);
+        int cx1 = (int) Math.floor((area.getMaxX() - originX) / chunkSize);
+        int cy0 = (int) Math.floor((area.getMinY() - originY) / chunkSize);
+        int cy1 = (int) Math.floor((area.getMaxY() - originY) / chunkSize);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                long key = ((long) cy << 32) | (cx & 0xFFFFFFFFL);
+                BufferedImage image = chunks.get(key);
+                if (image == null && !chunks.containsKey(key)) {
+                    image = render(g, cx * chunkSize, cy * chunkSize);
+                    chunks.put(key, image);
+                }
+                if (image != null) {
+                    int x = (int) originX + cx * chunkSize, y = (int) originY + cy * chunkSize;
+                    if (r == null || !r.drawImage(image, x, y)) {
+                        g.drawImage(image, x, y, null);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Render the tiles of a chunk.
+     *
+     * @param g the Graphics2D API instance of the drawbuffer, for its rendering hints.
+     * @param x the left of the chunk, relative to the map origin.
+     * @param y the top of the chunk, relative to the map origin.
+     * @return the chunk image, or null if the chunk has no tile.
+     */
+    private BufferedImage render(Graphics2D g, int x, int y) {
+        int tw = map.getTileWidth(), th = map.getTileHeight();
+        int c0 = x / tw, c1 = Math.min(map.getCols() - 1, (x + chunkSize - 1) / tw);
+        int r0 = y / th, r1 = Math.min(map.getRows() - 1, (y + chunkSize - 1) / th);
+        BufferedImage image = null;
+        Graphics2D cg = null;
+        for (int cy = r0; cy <= r1; cy++) {
+            for (int cx = c0; cx <= c1; cx++) {
+                byte tile = map.getTile(cx, cy);
+                if (tile == TileMap.EMPTY) {
+                    continue;
+                }
+                if (cg == null) {
+                    image = new BufferedImage(chunkSize, chunkSize, BufferedImage.TYPE_INT_ARGB);
+                    cg = image.createGraphics();
+                    cg.setRenderingHints(g.getRenderingHints());
+                    cg.translate(-x, -y);
+                }
+                int tx = cx * tw, ty = cy * th;
+                switch (tile) {
+                    case TileMap.SOLID -> {
+                        cg.setColor(solidColor);
+                        cg.fillRect(tx, ty, tw, th);
+                    }
+                    case TileMap.ONE_WAY -> {
+                        cg.setColor(oneWayColor);
+                        cg.fillRect(tx, ty, tw, 3);
+                    }
+                    case TileMap.SLOPE_UP, TileMap.SLOPE_DOWN -> {
+                        slope.reset();
+                        slope.addPoint(tile == TileMap.SLOPE_UP ? tx : tx + tw, ty + th);
+                        slope.addPoint(tile == TileMap.SLOPE_UP ? tx + tw : tx, ty);
+                        slope.addPoint(tile == TileMap.SLOPE_UP ? tx + tw : tx, ty + th);
+                        cg.setColor(solidColor);
+                        cg.fillPolygon(slope);
+                    }
+                    default -> {
+                        // unknown tile, not drawn.
+                    }
+                }
+            }
+        }
+        if (cg != null) {
+            cg.dispose();
+            rebuilds++;
+        }
+        return image;
+    }
+
+    /**
+     * Drop all the chunk images, to be rendered again when visible.
+     */
+    public void clear() {
+        chunks.clear();
+    }
+
+    public TileMapCache setChunkSize(int chunkSize) {
+        this.chunkSize = Math.max(16, chunkSize);
+        clear();
+        return this;
+    }
+
+    /**
+     * @param solidColor  the color of the solid tiles and the slopes.
+     * @param oneWayColor the color of the one-way tiles top side.
+     * @return the updated {@link TileMapCache}.
+     */
+    public TileMapCache setColors(Color solidColor, Color oneWayColor) {
+        this.solidColor = solidColor;
+        this.oneWayColor = oneWayColor;
+        clear();
+        return this;
+    }
+
+    /**
+     * @return the number of chunk images rendered since the cache creation.
+     */
+    public int getRebuilds() {
+        return rebuilds;
+    }
+}
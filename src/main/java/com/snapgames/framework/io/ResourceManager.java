@@ -4,8 +4,11 @@ import com.snapgames.framework.utils.Log;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -17,12 +20,37 @@ import java.util.concurrent.ConcurrentHashMap;
  * Font f = ResourceManager.get("path/to/my/resource.tff");
  * BufferedImage i = ResourceManager.get("path/to/my/resource.png");
  * </PRE>
+ * <p>The images are converted once at load time to the format of the screen {@link GraphicsConfiguration}
+ * (or to an int based format when there is no screen), so that drawing them never needs any format
+ * conversion; the images are converted again when the screen configuration changes
+ * (see {@link ResourceManager#setGraphicsConfiguration(GraphicsConfiguration)}).</p>
+ * <p>The images already handed out are not changed by a conversion: their holders check the
+ * {@link ResourceManager#getVersion()} and retrieve the converted image with
+ * {@link ResourceManager#resolve(BufferedImage)}.</p>
+ * <PRE>
+ * if (ResourceManager.getVersion() != version) {
+ *     version = ResourceManager.getVersion();
+ *     sprite = ResourceManager.resolve(sprite);
+ * }
+ * </PRE>
  *
  * @author Frédéric Delorme
  * @since 1.0.9
  */
 public class ResourceManager {
     private static Map<String, Object> resources = new ConcurrentHashMap<>();
+    /**
+     * The screen configuration the images are converted for, null when headless.
+     */
+    private static GraphicsConfiguration graphicsConfiguration;
+    /**
+     * The path of every image handed out, converted ones included, as long as they are used.
+     */
+    private static final Map<BufferedImage, String> imagePaths = Collections.synchronizedMap(new WeakHashMap<>());
+    /**
+     * Number of image conversions for a new screen configuration.
+     */
+    private static volatile long version = 0;
 
     public static <T> T get(String pathToResource) {
         T object = null;
@@ -40,7 +68,10 @@ public class ResourceManager {
         switch (ext) {
             case "PNG", "JPG" -> {
                 try {
-                    resources.put(pathToResource, ImageIO.read(ResourceManager.class.getResourceAsStream(pathToResource)));
+                    BufferedImage image = toCompatibleImage(
+                            ImageIO.read(ResourceManager.class.getResourceAsStream(pathToResource)));
+                    resources.put(pathToResource, image);
+                    imagePaths.put(image, pathToResource);
                 } catch (IOException e) {
                     Log.error(ResourceManager.class, "Unable to read Icon: %s", e.getMessage());
                 }
@@ -63,4 +94,89 @@ public class ResourceManager {
     public static void remove(String s) {
         resources.entrySet().stream().filter((e) -> e.getKey().equals(s)).toList().forEach(e -> resources.remove(e.getKey()));
     }
-}
\ No newline at end of file
+
+    /**
+     * Convert an image to the format of the screen, keeping its transparency. Without any screen, the image
+     * is converted to <code>TYPE_INT_RGB</code> or <code>TYPE_INT_ARGB</code>, the formats blitted without
+     * conversion into the Renderer drawbuffer.
+     *
+     * @param image the image to be converted.
+     * @return the compatible image, or the image itself if it is already in the right format.
+     */
+    public static BufferedImage toCompatibleImage(BufferedImage image) {
+        int transparency = image.getColorModel().getTransparency();
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        BufferedImage target = gc != null
+                ? gc.createCompatibleImage(image.getWidth(), image.getHeight(), transparency)
+                : new BufferedImage(image.getWidth(), image.getHeight(),
+                transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        if (target.getType() == image.getType() && target.getColorModel().equals(image.getColorModel())) {
+            return image;
+        }
+        Graphics2D g = target.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return target;
+    }
+
+    /**
+     * Set the screen configuration the images are displayed on (e.g. when the window moves to another screen
+     * or the display mode changes): all the loaded images are converted to its format and the
+     * {@link ResourceManager#getVersion()} is increased.
+     * <p>
+     * Only the cached images are replaced, so only the future {@link ResourceManager#get(String)} calls return
+     * the converted images: the images already handed out keep their previous format until their holder
+     * replaces them with {@link ResourceManager#resolve(BufferedImage)}.
+     *
+     * @param gc the new {@link GraphicsConfiguration}.
+     */
+    public static synchronized void setGraphicsConfiguration(GraphicsConfiguration gc) {
+        if (gc == null || gc == graphicsConfiguration || (graphicsConfiguration != null
+                && gc.getDevice() == graphicsConfiguration.getDevice()
+                && gc.getColorModel().equals(graphicsConfiguration.getColorModel()))) {
+            return;
+        }
+        graphicsConfiguration = gc;
+        resources.replaceAll((path, resource) -> {
+            if (resource instanceof BufferedImage image) {
+                BufferedImage converted = toCompatibleImage(image);
+                imagePaths.put(converted, path);
+                return converted;
+            }
+            return resource;
+        });
+        version++;
+        Log.debug(ResourceManager.class, "Images converted for the screen configuration %s", gc);
+    }
+
+    /**
+     * @return the number of image conversions, increased each time the cached images are converted for a new
+     * screen configuration.
+     */
+    public static long getVersion() {
+        return version;
+    }
+
+    /**
+     * Retrieve the current version of an image handed out by {@link ResourceManager#get(String)}, converted
+     * for the current screen configuration.
+     *
+     * @param image an image, loaded by the {@link ResourceManager} or not.
+     * @return the cached image loaded from the same path, or the image itself if it was not loaded by the
+     * {@link ResourceManager} (or was removed from its cache).
+     */
+    public static BufferedImage resolve(BufferedImage image) {
+        String path = image != null ? imagePaths.get(image) : null;
+        Object resource = path != null ? resources.get(path) : null;
+        return resource instanceof BufferedImage current ? current : image;
+    }
+
+    private static GraphicsConfiguration getGraphicsConfiguration() {
+        if (graphicsConfiguration == null && !GraphicsEnvironment.isHeadless()) {
+            graphicsConfiguration = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+        }
+        return graphicsConfiguration;
+    }
+}
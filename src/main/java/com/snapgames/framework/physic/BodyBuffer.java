@@ -0,0 +1,162 @@
+package com.snapgames.framework.physic;
+
+import com.snapgames.framework.entity.Entity;
+import com.snapgames.framework.entity.WorldArea;
+import com.snapgames.framework.physic.math.Vector2d;
+
+import java.util.List;
+
+/**
+ * The {@link BodyBuffer} stores the physic state of a list of dynamic {@link Entity} as packed
+ * <code>double</code> arrays (one array per component), to be processed by an {@link Integrator}.
+ * <p>
+ * The forces (entity, {@link World} and {@link WorldArea} ones) and the areas friction are gathered once
+ * per update, then the integrated positions and velocities are written back to the entities.
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * buffer.gather(bodies, world, forceField);
+ * integrator.integrate(buffer, 0, buffer.size(), step, subSteps, world);
+ * buffer.scatter(bodies);
+ * </code></pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class BodyBuffer {
+    /**
+     * Position and size.
+     */
+    public double[] x, y, width, height;
+    /**
+     * Velocity and acceleration.
+     */
+    public double[] vx, vy, ax, ay;
+    /**
+     * Sum of the forces applied during this update.
+     */
+    public double[] fx, fy;
+    /**
+     * Product of the friction of all the {@link WorldArea} the body is in.
+     */
+    public double[] areaFriction;
+    /**
+     * Material properties.
+     */
+    public double[] friction, elasticity;
+    /**
+     * Area and material frictions scaled to the sub-step duration, see {@link #scaleFriction(int, int, double)}.
+     */
+    public double[] stepAreaFriction, stepFriction;
+
+    private int size = 0;
+
+    public BodyBuffer() {
+        this(256);
+    }
+
+    public BodyBuffer(int capacity) {
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        x = new double[capacity];
+        y = new double[capacity];
+        width = new double[capacity];
+        height = new double[capacity];
+        vx = new double[capacity];
+        vy = new double[capacity];
+        ax = new double[capacity];
+        ay = new double[capacity];
+        fx = new double[capacity];
+        fy = new double[capacity];
+        areaFriction = new double[capacity];
+        friction = new double[capacity];
+        elasticity = new double[capacity];
+        stepAreaFriction = new double[capacity];
+        stepFriction = new double[capacity];
+    }
+
+    /**
+     * Read the state of all the bodies, gathering their forces with the {@link World} ones and
+     * the effects of the {@link WorldArea}s they are in.
+     *
+     * @param bodies the dynamic entities to be integrated.
+     * @param world  the {@link World} instance to take into account.
+     * @param field  the {@link ForceFieldGrid} of the World areas, up to date.
+     */
+    public void gather(List<Entity<?>> bodies, World world, ForceFieldGrid field) {
+        size = bodies.size();
+        if (x.length < size) {
+            allocate(Math.max(size, x.length * 2));
+        }
+        for (int i = 0; i < size; i++) {
+            Entity<?> e = bodies.get(i);
+            x[i] = e.x;
+            y[i] = e.y;
+            width[i] = e.width;
+            height[i] = e.height;
+            vx[i] = e.velocity.x;
+            vy[i] = e.velocity.y;
+            friction[i] = e.getMaterial().friction;
+            elasticity[i] = e.getMaterial().elasticity;
+
+            double sx = 0, sy = 0, af = 1.0;
+            for (Vector2d f : e.getForces()) {
+                sx += f.x;
+                sy += f.y;
+            }
+            e.getForces().clear();
+            if (world.contains(e)) {
+                for (Vector2d f : world.getForces()) {
+                    sx += f.x;
+                    sy += f.y;
+                }
+                int cell = field.indexOf(e);
+                if (cell >= 0 && field.isContact(cell)) {
+                    sx += field.getForceX(cell);
+                    sy += field.getForceY(cell);
+                    af = field.getFriction(cell);
+                }
+            }
+            fx[i] = sx;
+            fy[i] = sy;
+            areaFriction[i] = af;
+        }
+    }
+
+    /**
+     * Scale the area and material frictions of a range of bodies to the sub-step duration, into
+     * <code>stepAreaFriction</code> and <code>stepFriction</code>. The gathered frictions are kept, so the
+     * buffer can be integrated again with another sub-step duration.
+     *
+     * @param from the first body index (inclusive).
+     * @param to   the last body index (exclusive).
+     * @param step the duration of one sub-step, in milliseconds.
+     */
+    public void scaleFriction(int from, int to, double step) {
+        for (int i = from; i < to; i++) {
+            stepAreaFriction[i] = Integrator.frictionFor(areaFriction[i], step);
+            stepFriction[i] = Integrator.frictionFor(friction[i], step);
+        }
+    }
+
+    /**
+     * Write the integrated positions, velocities and accelerations back to the entities.
+     *
+     * @param bodies the same list of entities as the one gathered.
+     */
+    public void scatter(List<Entity<?>> bodies) {
+        for (int i = 0; i < size; i++) {
+            Entity<?> e = bodies.get(i);
+            e.setPosition(x[i], y[i]);
+            e.velocity.set(vx[i], vy[i]);
+            e.acceleration.set(ax[i], ay[i]);
+            e.setContact(false);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -2,6 +2,7 @@ package com.snapgames.framework.physic;
 
 import com.snapgames.framework.Game;
 import com.snapgames.framework.GameInterface;
+import com.snapgames.framework.entity.Camera;
 import com.snapgames.framework.entity.Entity;
 import com.snapgames.framework.scene.Scene;
 import com.snapgames.framework.scene.SceneManager;
@@ -19,6 +20,19 @@ public class CollisionManager implements GSystem {
 
     private final Game app;
 
+    private final ContactSolver solver = new ContactSolver();
+    private final SpatialGrid broadPhase = new SpatialGrid();
+    private final IslandManager islands = new IslandManager();
+    /**
+     * The scene indexed by the broad-phase during the last collision detection.
+     */
+    private Scene indexedScene;
+    /**
+     * Number of broad-phase builds and number of entities of the indexed scene at the last build.
+     */
+    private long buildCount = 0;
+    private int indexedEntityCount = 0;
+
     public CollisionManager(Game app) {
         this.app = app;
         debug(CollisionManager.class, "Start of processing");
@@ -26,19 +40,90 @@ public class CollisionManager implements GSystem {
     }
 
     public void update(Scene scn, double elapsed) {
-        scn.getEntities().values().stream().filter(Entity::isActive).forEach(e1 -> {
-            scn.getEntities().values().stream()
-                .filter(e2 -> {
-                    return e2.isActive()
-                        && !e2.getName().equals(e1.getName());
-                }).forEach(e2 -> {
-                    if (e1.intersects(e2)) {
-                        e1.getBehaviors().forEach(b -> b.onCollision(e1, e2));
-                        e2.getBehaviors().forEach(b -> b.onCollision(e2, e1));
-                    }
-                });
-
+        solver.begin();
+        broadPhase.build(scn.getEntities().values(), scn.getWorld(), CollisionManager::isInWorld);
+        indexedScene = scn;
+        indexedEntityCount = scn.getEntities().size();
+        buildCount++;
+        broadPhase.forEachOverlappingPair((e1, e2) -> {
+            e1.getBehaviors().forEach(b -> b.onCollision(e1, e2));
+            e2.getBehaviors().forEach(b -> b.onCollision(e2, e1));
+            // sleeping islands (and static entities) are not solved.
+            if (isSolid(e1) && isSolid(e2) && (isAwake(e1) || isAwake(e2))) {
+                solver.addContact(e1, e2);
+            }
         });
+        solver.solve();
+        islands.update(broadPhase.getBodies(), solver.getContacts());
+    }
+
+    private static boolean isAwake(Entity<?> e) {
+        return e.getPhysicType().equals(PhysicType.DYNAMIC) && !e.isSleeping();
+    }
+
+    /**
+     * Only the active entities living in the world coordinates are indexed by the broad-phase:
+     * cameras, entities fixed to a camera and entities frozen by the {@link SimulationLod} are excluded.
+     *
+     * @param e the {@link Entity} to be tested.
+     * @return true if the entity must be part of the collision detection.
+     */
+    private static boolean isInWorld(Entity<?> e) {
+        return e.isActive()
+            && !(e instanceof Camera)
+            && e.getCameraIsStickedTo() == null
+            && e.getLodTier() != SimulationLod.Tier.FROZEN;
+    }
+
+    /**
+     * Only solid entities living in the world take part in the contact resolution.
+     *
+     * @param e the {@link Entity} to be tested.
+     * @return true if the entity must be pushed by (or push) other solid entities.
+     */
+    static boolean isSolid(Entity<?> e) {
+        return e.isSolid()
+            && e.getCameraIsStickedTo() == null
+            && !e.getPhysicType().equals(PhysicType.NONE);
+    }
+
+    public ContactSolver getSolver() {
+        return solver;
+    }
+
+    /**
+     * Retrieve the broad-phase, to be used by the behaviors for spatial queries (AABB, radius and raycast),
+     * also from the behaviors updated in parallel in region mode:
+     * <pre><code>
+     * SystemManager.get(CollisionManager.class).getBroadPhase().raycast(x, y, 0, 1, 4, LAYER_GROUND, hit);
+     * </code></pre>
+     *
+     * @return the broad-phase {@link SpatialGrid} as built during the last collision detection.
+     */
+    public SpatialGrid getBroadPhase() {
+        return broadPhase;
+    }
+
+    /**
+     * @return the {@link Scene} whose entities are indexed by the broad-phase, null before the first update.
+     */
+    public Scene getIndexedScene() {
+        return indexedScene;
+    }
+
+    /**
+     * @return the number of broad-phase builds, increased on each collision detection (not while paused).
+     */
+    public long getBuildCount() {
+        return buildCount;
+    }
+
+    /**
+     * @return the number of entities of the indexed {@link Scene} when the broad-phase was built, to detect
+     * the entities added or removed since.
+     */
+    public int getIndexedEntityCount() {
+        return indexedEntityCount;
     }
 
     @Override
@@ -49,7 +134,12 @@ public class CollisionManager implements GSystem {
 
     @Override
     public void initialize(GameInterface game) {
-
+        Config config = SystemManager.get(Config.class);
+        solver.setIterations(config.get("app.physic.solver.iterations"));
+        solver.setMaxSolveTime(config.get("app.physic.solver.time.max"));
+        broadPhase.setCellSize(config.get("app.physic.broadphase.cell.size"));
+        islands.setSleepVelocity(config.get("app.physic.sleep.velocity"));
+        islands.setSleepFrames(config.get("app.physic.sleep.frames"));
     }
 
     @Override
@@ -62,6 +152,10 @@ public class CollisionManager implements GSystem {
         if (game.isNotPaused()) {
             SceneManager sm = SystemManager.get(SceneManager.class);
             update(sm.getActiveScene(), elapsed);
+            stats.put("collision.bodies", broadPhase.getBodies().size());
+            stats.put("solver.contacts", solver.getContacts().size());
+            stats.put("solver.iterations", solver.getLastIterations());
+            stats.put("solver.time", solver.getLastSolveTime());
         }
     }
 
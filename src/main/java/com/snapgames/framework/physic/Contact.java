@@ -0,0 +1,100 @@
+package com.snapgames.framework.physic;
+
+import com.snapgames.framework.entity.Entity;
+
+/**
+ * A {@link Contact} describes the overlap between two solid {@link Entity} AABB, as detected by the
+ * {@link CollisionManager}, and keeps the impulses accumulated by the {@link ContactSolver}.
+ * <p>
+ * Contacts are cached from one frame to the next (see {@link ContactSolver}), so the accumulated
+ * normal and tangent impulses can be re-applied at the start of the next solve (warm starting).
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class Contact {
+    /**
+     * the two entities in contact, the normal is pointing from <code>a</code> to <code>b</code>.
+     */
+    Entity<?> a, b;
+    /**
+     * Contact normal (unit vector, axis aligned for AABB).
+     */
+    double nx, ny;
+    /**
+     * Penetration depth along the normal.
+     */
+    double penetration;
+    /**
+     * Accumulated impulses along the normal and the tangent.
+     */
+    double normalImpulse, tangentImpulse;
+    /**
+     * Target normal velocity computed from the elasticity at the start of the solve.
+     */
+    double velocityBias;
+    /**
+     * Mixed material values for this pair.
+     */
+    double restitution, friction;
+    /**
+     * The frame this contact was last detected on, used to drop stale cached contacts.
+     */
+    long frame;
+
+    public Contact(Entity<?> a, Entity<?> b) {
+        this.a = a;
+        this.b = b;
+    }
+
+    /**
+     * Compute penetration and normal for the two AABB.
+     *
+     * @return true if the two AABB are still overlapping.
+     */
+    public boolean update() {
+        double overlapX = Math.min(a.x + a.width, b.x + b.width) - Math.max(a.x, b.x);
+        double overlapY = Math.min(a.y + a.height, b.y + b.height) - Math.max(a.y, b.y);
+        if (overlapX <= 0 || overlapY <= 0) {
+            return false;
+        }
+        if (overlapX < overlapY) {
+            nx = (b.getCenterX() < a.getCenterX()) ? -1 : 1;
+            ny = 0;
+            penetration = overlapX;
+        } else {
+            nx = 0;
+            ny = (b.getCenterY() < a.getCenterY()) ? -1 : 1;
+            penetration = overlapY;
+        }
+        return true;
+    }
+
+    public Entity<?> getA() {
+        return a;
+    }
+
+    public Entity<?> getB() {
+        return b;
+    }
+
+    public double getPenetration() {
+        return penetration;
+    }
+
+    public double getNormalImpulse() {
+        return normalImpulse;
+    }
+
+    @Override
+    public String toString() {
+        return "Contact{" +
+            "a='" + a.getName() + '\'' +
+            ", b='" + b.getName() + '\'' +
+            ", n=(" + nx + "," + ny + ")" +
+            ", penetration=" + penetration +
+            ", jn=" + normalImpulse +
+            ", jt=" + tangentImpulse +
+            '}';
+    }
+}
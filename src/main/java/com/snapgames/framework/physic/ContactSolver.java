@@ -0,0 +1,227 @@
+package com.snapgames.framework.physic;
+
+import com.snapgames.framework.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link ContactSolver} resolves the {@link Contact}s detected by the {@link CollisionManager} with
+ * a sequential impulse solver, using the {@link Entity} mass and the {@link Material} elasticity and friction.
+ * <p>
+ * Contacts are cached between frames on the pair of entities: the impulses accumulated during the previous
+ * frame are applied first (warm starting), so resting stacks converge in a few iterations.
+ * <p>
+ * The number of iterations and the maximum time allowed for one solve are configurable through the
+ * <code>app.physic.solver.iterations</code> and <code>app.physic.solver.time.max</code> configuration keys.
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * solver.begin();
+ * solver.addContact(e1, e2);
+ * // [...]
+ * solver.solve();
+ * </code></pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class ContactSolver {
+    /**
+     * Under this approaching velocity (in pixel/ms), a contact is considered as resting and does not bounce.
+     */
+    public static final double RESTING_VELOCITY = 0.1;
+    /**
+     * Allowed penetration before applying a position correction.
+     */
+    private static final double PENETRATION_SLOP = 0.1;
+    /**
+     * Ratio of the penetration corrected per frame.
+     */
+    private static final double CORRECTION_RATIO = 0.8;
+
+    private final Map<Long, Contact> cache = new HashMap<>();
+    private final List<Contact> contacts = new ArrayList<>();
+
+    private int iterations = 8;
+    private double maxSolveTime = 2.0;
+
+    private long frame = 0;
+    private int lastIterations = 0;
+    private double lastSolveTime = 0;
+
+    /**
+     * Compute the velocity after hitting a static obstacle (World border, tile, packed bounds): the velocity is
+     * reversed according to the elasticity, unless it is under the {@link #RESTING_VELOCITY} and the body is
+     * considered as resting against the obstacle.
+     *
+     * @param v          the velocity component along the obstacle normal.
+     * @param elasticity the {@link Material} elasticity of the body.
+     * @return the new velocity component.
+     */
+    static double bounce(double v, double elasticity) {
+        return Math.abs(v) < RESTING_VELOCITY ? 0 : -v * elasticity;
+    }
+
+    /**
+     * Start a new frame of contact detection.
+     */
+    public void begin() {
+        frame++;
+        contacts.clear();
+    }
+
+    /**
+     * Register a contact between two solid entities if their AABB are overlapping. An already known contact
+     * from the previous frame is reused with its accumulated impulses.
+     *
+     * @param e1 the first entity
+     * @param e2 the second entity
+     * @return the {@link Contact} or null if those two entities are not overlapping or can not move.
+     */
+    public Contact addContact(Entity<?> e1, Entity<?> e2) {
+        if (inverseMass(e1) + inverseMass(e2) == 0) {
+            return null;
+        }
+        // always keep the same order for a pair to retrieve the cached contact.
+        Entity<?> a = e1.getId() < e2.getId() ? e1 : e2;
+        Entity<?> b = a == e1 ? e2 : e1;
+        long key = (a.getId() << 32) ^ b.getId();
+        Contact c = cache.get(key);
+        if (c == null) {
+            c = new Contact(a, b);
+        }
+        if (!c.update()) {
+            cache.remove(key);
+            return null;
+        }
+        if (c.frame != frame - 1) {
+            // not a persistent contact: nothing to warm start with.
+            c.normalImpulse = 0;
+            c.tangentImpulse = 0;
+        }
+        c.frame = frame;
+        c.restitution = Math.min(a.getMaterial().elasticity, b.getMaterial().elasticity);
+        c.friction = Math.sqrt(a.getMaterial().friction * b.getMaterial().friction);
+        cache.put(key, c);
+        contacts.add(c);
+        return c;
+    }
+
+    /**
+     * Solve all the registered contacts for the current frame: warm start, velocity iterations
+     * and finally position correction.
+     */
+    public void solve() {
+        long start = System.nanoTime();
+        // the elasticity bias must be computed on the velocities before any warm starting impulse.
+        contacts.forEach(c -> {
+            double vn = normalVelocity(c);
+            c.velocityBias = vn < -RESTING_VELOCITY ? -c.restitution * vn : 0;
+        });
+        contacts.forEach(this::warmStart);
+
+        lastIterations = 0;
+        double maxTimeNs = maxSolveTime * 1_000_000.0;
+        while (lastIterations < iterations) {
+            contacts.forEach(this::applyImpulse);
+            lastIterations++;
+            if (System.nanoTime() - start > maxTimeNs) {
+                break;
+            }
+        }
+        contacts.forEach(this::correctPosition);
+
+        // drop all cached contacts not detected during this frame.
+        Iterator<Contact> it = cache.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().frame != frame) {
+                it.remove();
+            }
+        }
+        lastSolveTime = (System.nanoTime() - start) / 1_000_000.0;
+    }
+
+    private void warmStart(Contact c) {
+        // re-apply the impulses accumulated during the previous frame.
+        double px = c.nx * c.normalImpulse - c.ny * c.tangentImpulse;
+        double py = c.ny * c.normalImpulse + c.nx * c.tangentImpulse;
+        apply(c, px, py);
+        c.a.setContact(true);
+        c.b.setContact(true);
+    }
+
+    private void applyImpulse(Contact c) {
+        double invMassSum = inverseMass(c.a) + inverseMass(c.b);
+
+        // normal impulse, accumulated impulse clamped to keep the bodies only pushing each other.
+        double vn = normalVelocity(c);
+        double dj = (c.velocityBias - vn) / invMassSum;
+        double jn = Math.max(c.normalImpulse + dj, 0);
+        dj = jn - c.normalImpulse;
+        c.normalImpulse = jn;
+        apply(c, c.nx * dj, c.ny * dj);
+
+        // friction impulse, limited by the Coulomb cone.
+        double tx = -c.ny, ty = c.nx;
+        double vt = (c.b.velocity.x - c.a.velocity.x) * tx + (c.b.velocity.y - c.a.velocity.y) * ty;
+        double maxFriction = c.friction * c.normalImpulse;
+        double jt = Math.max(-maxFriction, Math.min(c.tangentImpulse - vt / invMassSum, maxFriction));
+        dj = jt - c.tangentImpulse;
+        c.tangentImpulse = jt;
+        apply(c, tx * dj, ty * dj);
+    }
+
+    private void correctPosition(Contact c) {
+        double invA = inverseMass(c.a), invB = inverseMass(c.b);
+        double correction = Math.max(c.penetration - PENETRATION_SLOP, 0) * CORRECTION_RATIO / (invA + invB);
+        if (correction > 0) {
+            c.a.setPosition(c.a.x - c.nx * correction * invA, c.a.y - c.ny * correction * invA);
+            c.b.setPosition(c.b.x + c.nx * correction * invB, c.b.y + c.ny * correction * invB);
+        }
+    }
+
+    private static double normalVelocity(Contact c) {
+        return (c.b.velocity.x - c.a.velocity.x) * c.nx + (c.b.velocity.y - c.a.velocity.y) * c.ny;
+    }
+
+    private static void apply(Contact c, double px, double py) {
+        double invA = inverseMass(c.a), invB = inverseMass(c.b);
+        c.a.velocity.x -= px * invA;
+        c.a.velocity.y -= py * invA;
+        c.b.velocity.x += px * invB;
+        c.b.velocity.y += py * invB;
+    }
+
+    /**
+     * Only {@link PhysicType#DYNAMIC} entities with a mass can be moved by a contact.
+     */
+    static double inverseMass(Entity<?> e) {
+        return e.getPhysicType() == PhysicType.DYNAMIC && e.getMass() > 0 ? 1.0 / e.getMass() : 0.0;
+    }
+
+    public ContactSolver setIterations(int iterations) {
+        this.iterations = Math.max(1, iterations);
+        return this;
+    }
+
+    public ContactSolver setMaxSolveTime(double maxSolveTime) {
+        this.maxSolveTime = maxSolveTime;
+        return this;
+    }
+
+    public List<Contact> getContacts() {
+        return contacts;
+    }
+
+    public int getLastIterations() {
+        return lastIterations;
+    }
+
+    public double getLastSolveTime() {
+        return lastSolveTime;
+    }
+}
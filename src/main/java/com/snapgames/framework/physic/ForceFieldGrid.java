@@ -0,0 +1,231 @@
+package com.snapgames.framework.physic;
+
+import com.snapgames.framework.entity.Entity;
+import com.snapgames.framework.entity.WorldArea;
+import com.snapgames.framework.physic.math.Vector2d;
+
+import java.util.Arrays;
+
+/**
+ * The {@link ForceFieldGrid} bakes the effects of the {@link WorldArea}s of a {@link World} into a coarse
+ * grid: each cell stores the sum of the forces, the product of the frictions and a contact flag of all the
+ * areas covering the cell center. Looking up the effects for an entity is then a single cell access, whatever
+ * the number of areas.
+ * <p>
+ * The grid is only rebuilt when the World bounds, the areas or their forces change (e.g. when a behavior
+ * updates the wind force of an area), detected by a signature computed on each {@link #update(World)}. The
+ * cells whose effects changed with the last rebuild are flagged (see {@link #isChanged(int)}), e.g. to wake up
+ * the sleeping entities lying in them.
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * field.update(world);
+ * int cell = field.indexOf(entity);
+ * if (cell &gt;= 0 &amp;&amp; field.isContact(cell)) {
+ *     entity.addForce(field.getForceX(cell), field.getForceY(cell));
+ * }
+ * </code></pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class ForceFieldGrid {
+
+    private double cellSize = 16;
+    private double originX, originY;
+    private int cols = 0, rows = 0;
+
+    private double[] forceX = new double[0], forceY = new double[0], friction = new double[0];
+    private boolean[] contact = new boolean[0];
+    /**
+     * The cells of the previous build, swapped with the current ones on each rebuild to find the changed cells.
+     */
+    private double[] previousForceX = new double[0], previousForceY = new double[0], previousFriction = new double[0];
+    private boolean[] previousContact = new boolean[0];
+    private boolean[] changed = new boolean[0];
+
+    private long signature = 0;
+    private int rebuilds = 0;
+
+    public ForceFieldGrid() {
+    }
+
+    public ForceFieldGrid(double cellSize) {
+        setCellSize(cellSize);
+    }
+
+    /**
+     * Rebuild the grid if the {@link World} or its areas changed since the last update.
+     *
+     * @param world the {@link World} containing the {@link WorldArea}s.
+     * @return true if the grid has been rebuilt.
+     */
+    public boolean update(World world) {
+        long s = computeSignature(world);
+        if (s == signature && cols > 0) {
+            return false;
+        }
+        signature = s;
+        rebuild(world);
+        return true;
+    }
+
+    private long computeSignature(World world) {
+        long s = 17;
+        s = mix(s, world.x, world.y, world.width, world.height, cellSize);
+        for (var child : world.getChildren()) {
+            WorldArea a = (WorldArea) child;
+            s = mix(s, a.x, a.y, a.width, a.height, a.getMaterial().friction);
+            for (Vector2d f : a.getForces()) {
+                s = mix(s, f.x, f.y);
+            }
+            s = 31 * s + a.getForces().size();
+        }
+        return s;
+    }
+
+    private static long mix(long s, double... values) {
+        for (double v : values) {
+            s = 31 * s + Double.doubleToLongBits(v);
+        }
+        return s;
+    }
+
+    private void rebuild(World world) {
+        boolean sameLayout = cols > 0 && originX == world.x && originY == world.y
+                && cols == Math.max(1, (int) Math.ceil(world.width / cellSize))
+                && rows == Math.max(1, (int) Math.ceil(world.height / cellSize));
+        swapBuffers();
+        originX = world.x;
+        originY = world.y;
+        cols = Math.max(1, (int) Math.ceil(world.width / cellSize));
+        rows = Math.max(1, (int) Math.ceil(world.height / cellSize));
+        int nbCells = cols * rows;
+        if (forceX.length < nbCells) {
+            forceX = new double[nbCells];
+            forceY = new double[nbCells];
+            friction = new double[nbCells];
+            contact = new boolean[nbCells];
+        }
+        Arrays.fill(forceX, 0, nbCells, 0.0);
+        Arrays.fill(forceY, 0, nbCells, 0.0);
+        Arrays.fill(friction, 0, nbCells, 1.0);
+        Arrays.fill(contact, 0, nbCells, false);
+
+        for (var child : world.getChildren()) {
+            WorldArea a = (WorldArea) child;
+            double fx = 0, fy = 0;
+            for (Vector2d f : a.getForces()) {
+                fx += f.x;
+                fy += f.y;
+            }
+            // cells whose center is inside the area.
+            int x0 = Math.max(0, (int) Math.ceil((a.x - originX) / cellSize - 0.5));
+            int x1 = Math.min(cols - 1, (int) Math.ceil((a.x + a.width - originX) / cellSize - 0.5) - 1);
+            int y0 = Math.max(0, (int) Math.ceil((a.y - originY) / cellSize - 0.5));
+            int y1 = Math.min(rows - 1, (int) Math.ceil((a.y + a.height - originY) / cellSize - 0.5) - 1);
+            for (int cy = y0; cy <= y1; cy++) {
+                for (int cx = x0; cx <= x1; cx++) {
+                    int c = cy * cols + cx;
+                    forceX[c] += fx;
+                    forceY[c] += fy;
+                    friction[c] *= a.getMaterial().friction;
+                    contact[c] = true;
+                }
+            }
+        }
+        if (changed.length < nbCells) {
+            changed = new boolean[nbCells];
+        }
+        for (int c = 0; c < nbCells; c++) {
+            changed[c] = !sameLayout
+                    || forceX[c] != previousForceX[c] || forceY[c] != previousForceY[c]
+                    || friction[c] != previousFriction[c] || contact[c] != previousContact[c];
+        }
+        rebuilds++;
+    }
+
+    private void swapBuffers() {
+        double[] fx = forceX, fy = forceY, fr = friction;
+        boolean[] ct = contact;
+        forceX = previousForceX;
+        forceY = previousForceY;
+        friction = previousFriction;
+        contact = previousContact;
+        previousForceX = fx;
+        previousForceY = fy;
+        previousFriction = fr;
+        previousContact = ct;
+    }
+
+    /**
+     * Retrieve the cell containing the center of an entity.
+     *
+     * @param e the {@link Entity} to look for.
+     * @return the cell index, or -1 if the entity center is outside the grid.
+     */
+    public int indexOf(Entity<?> e) {
+        return indexOf(e.x + e.width * 0.5, e.y + e.height * 0.5);
+    }
+
+    /**
+     * Retrieve the cell containing a point.
+     *
+     * @param x the point horizontal position
+     * @param y the point vertical position
+     * @return the cell index, or -1 if the point is outside the grid.
+     */
+    public int indexOf(double x, double y) {
+        int cx = (int) Math.floor((x - originX) / cellSize);
+        int cy = (int) Math.floor((y - originY) / cellSize);
+        if (cx < 0 || cy < 0 || cx >= cols || cy >= rows) {
+            return -1;
+        }
+        return cy * cols + cx;
+    }
+
+    public double getForceX(int cell) {
+        return forceX[cell];
+    }
+
+    public double getForceY(int cell) {
+        return forceY[cell];
+    }
+
+    public double getFriction(int cell) {
+        return friction[cell];
+    }
+
+    /**
+     * @param cell the cell index
+     * @return true if at least one {@link WorldArea} covers this cell.
+     */
+    public boolean isContact(int cell) {
+        return contact[cell];
+    }
+
+    /**
+     * @param cell the cell index
+     * @return true if the forces, friction or contact of this cell changed with the last rebuild (all the cells
+     * when the grid layout changed).
+     */
+    public boolean isChanged(int cell) {
+        return changed[cell];
+    }
+
+    public ForceFieldGrid setCellSize(double cellSize) {
+        this.cellSize = Math.max(1, cellSize);
+        return this;
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * @return the number of rebuilds since the grid creation.
+     */
+    public int getRebuilds() {
+        return rebuilds;
+    }
+}
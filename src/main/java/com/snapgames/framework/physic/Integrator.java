@@ -0,0 +1,84 @@
+package com.snapgames.framework.physic;
+
+import java.awt.geom.Rectangle2D;
+
+import static com.snapgames.framework.utils.Log.warn;
+
+/**
+ * An {@link Integrator} computes the move of the bodies packed into a {@link BodyBuffer}, with the same rules
+ * as the {@link PhysicEngine} object path: area friction, clamped acceleration and velocity, position update,
+ * {@link World} bounds constraint with elasticity and finally the material friction.
+ * <p>
+ * The frictions are given for a {@link #FRICTION_STEP} duration and scaled to the sub-step duration, so
+ * the damping over an update does not depend on the number of sub-steps.
+ * <p>
+ * Two implementations are available: the {@link ScalarIntegrator} and the {@link VectorIntegrator} using the
+ * JDK Vector API (<code>jdk.incubator.vector</code> module, to be added to the JVM options with
+ * <code>--add-modules jdk.incubator.vector</code>), only built with <code>project.build.vector=true</code>
+ * in <code>build.properties</code>.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public interface Integrator {
+    /**
+     * Maximum acceleration of a body.
+     */
+    double MAX_ACCELERATION = 0.3;
+    /**
+     * Maximum velocity of a body.
+     */
+    double MAX_VELOCITY = 0.5;
+    /**
+     * Duration in milliseconds the material and area frictions are given for (one frame at 60 FPS).
+     */
+    double FRICTION_STEP = 16.0;
+
+    /**
+     * Integrate a range of bodies of the buffer.
+     *
+     * @param buffer   the packed bodies.
+     * @param from     the first body index (inclusive).
+     * @param to       the last body index (exclusive).
+     * @param step     the duration of one sub-step, in milliseconds.
+     * @param subSteps the number of sub-steps to be computed.
+     * @param bounds   the {@link World} bounds the bodies must stay in.
+     */
+    void integrate(BodyBuffer buffer, int from, int to, double step, int subSteps, Rectangle2D bounds);
+
+    /**
+     * Scale a friction to a sub-step duration: applied on each sub-step, it gives the same damping over
+     * the elapsed time whatever the number of sub-steps.
+     *
+     * @param friction the friction factor for a {@link #FRICTION_STEP} duration.
+     * @param step     the duration of one sub-step, in milliseconds.
+     * @return the friction factor to be applied on one sub-step.
+     */
+    static double frictionFor(double friction, double step) {
+        return friction == 1.0 || step == FRICTION_STEP ? friction : Math.pow(friction, step / FRICTION_STEP);
+    }
+
+    /**
+     * Create the requested integrator.
+     *
+     * @param vectorized true to use the Vector API implementation if the <code>jdk.incubator.vector</code>
+     *                   module is available.
+     * @return the {@link Integrator} instance, the {@link ScalarIntegrator} as a fallback.
+     */
+    static Integrator create(boolean vectorized) {
+        if (vectorized) {
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+                try {
+                    // loaded by name to never link the Vector API when the module is not there.
+                    return (Integrator) Class.forName("com.snapgames.framework.physic.VectorIntegrator")
+                        .getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    warn(Integrator.class, "Unable to create the vector integrator: %s", e.getMessage());
+                }
+            } else {
+                warn(Integrator.class, "Module jdk.incubator.vector not available, fallback to scalar integrator.");
+            }
+        }
+        return new ScalarIntegrator();
+    }
+}
@@ -0,0 +1,115 @@
+package com.snapgames.framework.physic;
+
+import com.snapgames.framework.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link IslandManager} tracks the resting {@link PhysicType#DYNAMIC} entities and puts them to sleep.
+ * <p>
+ * Dynamic entities touching each other (through the {@link Contact}s of the current frame) are grouped into
+ * simulation islands. An island falls asleep only when all its entities have been moving slower than the
+ * sleep velocity threshold for a number of consecutive frames; an awake entity touching a sleeping one wakes
+ * up its whole island.
+ * <p>
+ * The threshold and the number of frames are set through the <code>app.physic.sleep.velocity</code> and
+ * <code>app.physic.sleep.frames</code> configuration keys (a number of frames of 0 disables sleeping).
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class IslandManager {
+
+    private double sleepVelocity = 0.01;
+    private int sleepFrames = 30;
+
+    private final List<Entity<?>> dynamics = new ArrayList<>();
+    private final Map<Entity<?>, Integer> index = new IdentityHashMap<>();
+    private int[] parent = new int[0];
+    private boolean[] ready = new boolean[0];
+
+    /**
+     * Update the resting state of the dynamic entities and the sleeping state of their islands.
+     *
+     * @param bodies   the entities indexed by the collision broad-phase.
+     * @param contacts the contacts detected during this frame.
+     */
+    public void update(List<Entity<?>> bodies, List<Contact> contacts) {
+        if (sleepFrames <= 0) {
+            return;
+        }
+        dynamics.clear();
+        index.clear();
+        for (Entity<?> e : bodies) {
+            if (e.getPhysicType() == PhysicType.DYNAMIC) {
+                index.put(e, dynamics.size());
+                dynamics.add(e);
+            }
+        }
+        int n = dynamics.size();
+        if (parent.length < n) {
+            parent = new int[Math.max(n, parent.length * 2)];
+            ready = new boolean[parent.length];
+        }
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            ready[i] = true;
+            Entity<?> e = dynamics.get(i);
+            if (!e.isSleeping()) {
+                e.setRestingFrames(e.getVelocity().length() < sleepVelocity ? e.getRestingFrames() + 1 : 0);
+            }
+        }
+        // group the dynamic entities in contact into islands.
+        for (Contact c : contacts) {
+            Integer ia = index.get(c.a);
+            Integer ib = index.get(c.b);
+            if (ia != null && ib != null) {
+                union(ia, ib);
+            }
+        }
+        // an island is ready to sleep when all its entities are resting for long enough.
+        for (int i = 0; i < n; i++) {
+            Entity<?> e = dynamics.get(i);
+            if (!e.isSleeping() && e.getRestingFrames() < sleepFrames) {
+                ready[find(i)] = false;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            Entity<?> e = dynamics.get(i);
+            boolean islandReady = ready[find(i)];
+            if (islandReady && !e.isSleeping()) {
+                e.setSleeping(true);
+            } else if (!islandReady && e.isSleeping()) {
+                e.wakeUp();
+            }
+        }
+    }
+
+    private int find(int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private void union(int a, int b) {
+        int ra = find(a), rb = find(b);
+        if (ra != rb) {
+            parent[ra] = rb;
+        }
+    }
+
+    public IslandManager setSleepVelocity(double sleepVelocity) {
+        this.sleepVelocity = sleepVelocity;
+        return this;
+    }
+
+    public IslandManager setSleepFrames(int sleepFrames) {
+        this.sleepFrames = sleepFrames;
+        return this;
+    }
+}
@@ -2,7 +2,9 @@ package com.snapgames.framework.physic;
 
 import com.snapgames.framework.Game;
 import com.snapgames.framework.GameInterface;
+import com.snapgames.framework.entity.Camera;
 import com.snapgames.framework.entity.Entity;
+import com.snapgames.framework.entity.ParticlesObject;
 import com.snapgames.framework.entity.WorldArea;
 import com.snapgames.framework.physic.math.Vector2d;
 import com.snapgames.framework.scene.Scene;
@@ -12,11 +14,16 @@ import com.snapgames.framework.system.SystemManager;
 import com.snapgames.framework.utils.Config;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.snapgames.framework.utils.Log.debug;
+import static com.snapgames.framework.utils.Log.warn;
 
 /**
  * The {@link PhysicEngine} service compute everything about move and update of all the entities in a {@link Scene}.
@@ -43,6 +50,91 @@ public class PhysicEngine implements GSystem {
      * Represents the current time in milliseconds within the PhysicEngine.
      */
     private long currentTime = 0;
+    /**
+     * The collision broad-phase used to find the candidates of the continuous collision detection.
+     */
+    private SpatialGrid broadPhase;
+    /**
+     * Reused buffer for the continuous collision detection candidates.
+     */
+    private final List<Entity<?>> sweepCandidates = new ArrayList<>();
+    /**
+     * Maximum duration (in ms) of one integration step, a longer elapsed time is split into sub-steps.
+     */
+    private double maxSubStepDuration = 20.0;
+    /**
+     * Maximum number of sub-steps per update, any remaining elapsed time is dropped (except for the reduced
+     * tier entities catching up with the frames they skipped, see {@link SimulationLod}).
+     */
+    private int maxSubSteps = 4;
+    /**
+     * Number of sub-steps computed during the last update.
+     */
+    private int lastSubSteps = 0;
+    /**
+     * Number of awake and sleeping dynamic entities during the last update.
+     */
+    private int awakeBodies = 0, sleepingBodies = 0;
+    /**
+     * Reused list of the awake dynamic entities to be integrated during the current update.
+     */
+    private final List<Entity<?>> bodies = new ArrayList<>();
+    /**
+     * Reused list of the awake bullet entities, always integrated on the game thread after the other ones.
+     */
+    private final List<Entity<?>> bullets = new ArrayList<>();
+    /**
+     * Pool used for the parallel integration, null when integration is sequential.
+     */
+    private ForkJoinPool pool;
+    /**
+     * Number of entities integrated by one parallel task.
+     */
+    private int chunkSize = 256;
+    /**
+     * The packed {@link Integrator}, null when the entities are integrated one by one (the "object" mode).
+     */
+    private Integrator integrator;
+    /**
+     * True if the packed {@link Integrator} is used during the current update.
+     */
+    private boolean packed = false;
+    /**
+     * True once the user has been warned that the packed {@link Integrator} is bypassed by a {@link TileMap}.
+     */
+    private boolean tileMapWarned = false;
+    /**
+     * Packed state of the awake dynamic entities, used by the {@link Integrator}.
+     */
+    private final BodyBuffer buffer = new BodyBuffer();
+    /**
+     * The {@link WorldArea} effects baked into a grid, rebuilt only when the areas change.
+     */
+    private final ForceFieldGrid forceField = new ForceFieldGrid();
+    /**
+     * The simulation level of detail, deciding which entities are updated during this frame.
+     */
+    private final SimulationLod lod = new SimulationLod();
+    /**
+     * Reused list of the awake dynamic entities of the reduced tier due for an update during this frame.
+     */
+    private final List<Entity<?>> reducedBodies = new ArrayList<>();
+    /**
+     * Split the world into regions updated in parallel, when the region mode is on.
+     */
+    private final RegionScheduler regions = new RegionScheduler();
+    /**
+     * True to update the entities (integration and behaviors) region by region.
+     */
+    private boolean regionMode = false;
+    /**
+     * Number of particles moved by one parallel task, for the emitters having more live particles.
+     */
+    private int particleChunkSize = 8192;
+    /**
+     * Number of particles updated during the current update (emitters may be updated by the region workers).
+     */
+    private final AtomicInteger particlesUpdated = new AtomicInteger();
 
     /**
      * Constructs a new PhysicEngine associated with the specified Game application.
@@ -60,59 +152,378 @@ public class PhysicEngine implements GSystem {
      * This includes updating the physical states of dynamic entities, keeping entities
      * within the world boundaries, and updating behaviors for all entities.
      * Additionally, the active camera is also updated if present.
+     * <p>
+     * The awake dynamic entities are integrated first, in parallel chunks if a parallelism has been set
+     * (see {@link PhysicEngine#setParallelism(int)}), then the behaviors are updated on the game thread.
+     * <p>
+     * Only the entities due for an update according to the {@link SimulationLod} are processed, with the
+     * elapsed time accumulated since their previous update.
+     * <p>
+     * In region mode (see {@link RegionScheduler}), the integration and the behaviors of each entity are
+     * processed together, region by region, in parallel if a parallelism has been set.
      *
      * @param scene   The scene containing the entities and the world they reside in.
      * @param elapsed The time elapsed since the last update, in milliseconds.
      */
-    private void update(Scene scene, double elapsed) {
-        scene.getEntities().values().stream()
-                .filter(Entity::isActive)
-                .forEach(entity -> {
-                    World world = scene.getWorld();
-                    if (entity.getPhysicType().equals(PhysicType.DYNAMIC)) {
-                        applyWorldPhysicRules(entity, world);
-                        updatePhysicEntity(entity, world, elapsed);
-                    }
-                    entity.getBehaviors().forEach(b -> b.update(entity, elapsed));
-                    constrainToWorldArea(entity, world);
-                });
+    public void update(Scene scene, double elapsed) {
+        CollisionManager cm = SystemManager.get(CollisionManager.class);
+        broadPhase = cm != null ? cm.getBroadPhase() : null;
+        lastSubSteps = getSubSteps(elapsed);
+        World world = scene.getWorld();
+
+        lod.update(scene, elapsed);
+        particlesUpdated.set(0);
+        bodies.clear();
+        bullets.clear();
+        reducedBodies.clear();
+        sleepingBodies = 0;
+        boolean fieldChanged = forceField.update(world);
+        for (Entity<?> entity : scene.getEntities().values()) {
+            if (entity.isActive() && entity.getPhysicType().equals(PhysicType.DYNAMIC)) {
+                if (entity.isSleeping() && fieldChanged) {
+                    wakeUpInChangedCell(entity);
+                }
+                if (entity.isSleeping()) {
+                    sleepingBodies++;
+                } else if (!lod.isDue(entity)) {
+                    continue;
+                } else if (entity.isBullet()) {
+                    bullets.add(entity);
+                } else if (entity.getLodTier() == SimulationLod.Tier.FULL) {
+                    bodies.add(entity);
+                } else {
+                    reducedBodies.add(entity);
+                }
+            }
+        }
+        awakeBodies = bodies.size() + bullets.size() + reducedBodies.size();
+        if (regionMode) {
+            updateByRegions(scene, world);
+        } else {
+            // the packed integrators know nothing about the tiles.
+            packed = integrator != null && world.getTileMap() == null;
+            if (integrator != null && !packed && !tileMapWarned) {
+                warn(PhysicEngine.class, "The packed integrator %s is bypassed: the World has a TileMap, "
+                        + "its entities are integrated one by one.", integrator.getClass().getSimpleName());
+                tileMapWarned = true;
+            }
+            integrateAll(world, elapsed);
+            // the reduced tier entities catch up with their accumulated elapsed time.
+            reducedBodies.forEach(b -> integrateLod(b, world));
+
+            scene.getEntities().values().stream()
+                    .filter(Entity::isActive)
+                    .filter(lod::isDue)
+                    .forEach(entity -> updateBehaviors(entity, world));
+        }
         if (Optional.ofNullable(scene.getActiveCamera()).isPresent()) {
             scene.getActiveCamera().update(elapsed);
         }
     }
 
+    /**
+     * Wake up a sleeping entity when the {@link WorldArea} effects (forces, friction) of its cell changed with
+     * the last {@link ForceFieldGrid} rebuild; the {@link IslandManager} then wakes up the rest of its island.
+     *
+     * @param entity the sleeping {@link Entity}.
+     */
+    private void wakeUpInChangedCell(Entity<?> entity) {
+        int cell = forceField.indexOf(entity);
+        if (cell >= 0 && forceField.isChanged(cell)) {
+            entity.wakeUp();
+        }
+    }
+
+    /**
+     * Update the behaviors of an entity (and the particles of an emitter) and keep it inside the world.
+     *
+     * @param entity the {@link Entity} to be updated.
+     * @param world  the {@link World} instance to take into account.
+     */
+    private void updateBehaviors(Entity<?> entity, World world) {
+        double entityElapsed = entity.getLodElapsed();
+        entity.getBehaviors().forEach(b -> b.update(entity, entityElapsed));
+        if (entity instanceof ParticlesObject particles) {
+            particlesUpdated.addAndGet(particles.updateParticles(entityElapsed, pool, particleChunkSize));
+        }
+        // a sleeping entity is resting inside the world, nothing to constrain.
+        if (!entity.isSleeping()) {
+            constrainToWorldArea(entity, world);
+        }
+        lod.consume(entity);
+    }
+
+    /**
+     * Update the world entities region by region, then the bullets and the entities living outside the world
+     * coordinates on the game thread.
+     *
+     * @param scene the {@link Scene} to be updated.
+     * @param world the {@link World} instance to take into account.
+     */
+    private void updateByRegions(Scene scene, World world) {
+        regions.build(scene.getEntities().values(), world, PhysicEngine::isRegionScheduled);
+        regions.run(pool, entity -> {
+            if (lod.isDue(entity)) {
+                if (entity.getPhysicType().equals(PhysicType.DYNAMIC) && !entity.isSleeping()) {
+                    integrateLod(entity, world);
+                }
+                updateBehaviors(entity, world);
+            }
+        });
+        bullets.forEach(b -> integrateLod(b, world));
+        scene.getEntities().values().stream()
+                .filter(Entity::isActive)
+                .filter(e -> !isRegionScheduled(e))
+                .filter(lod::isDue)
+                .forEach(entity -> updateBehaviors(entity, world));
+    }
+
+    /**
+     * Bullets (reading the broad-phase), cameras and entities fixed to a camera are not updated by region.
+     *
+     * @param e the {@link Entity} to be tested.
+     * @return true if the entity is updated by the {@link RegionScheduler}.
+     */
+    private static boolean isRegionScheduled(Entity<?> e) {
+        return e.isActive()
+                && !e.isBullet()
+                && !(e instanceof Camera)
+                && e.getCameraIsStickedTo() == null;
+    }
+
+    /**
+     * Set the region update mode.
+     *
+     * @param regionMode true to update the entities region by region.
+     * @return the updated {@link PhysicEngine}.
+     */
+    public PhysicEngine setRegionMode(boolean regionMode) {
+        this.regionMode = regionMode;
+        return this;
+    }
+
+    /**
+     * @return the {@link RegionScheduler} used in region mode.
+     */
+    public RegionScheduler getRegions() {
+        return regions;
+    }
+
+    /**
+     * Integrate all the awake dynamic entities. Each entity only reads the {@link World} and its areas and
+     * only writes its own state, so the parallel path gives the exact same result as the sequential one.
+     * Bullets read the other entities positions and are always integrated sequentially afterward.
+     * <p>
+     * With a packed {@link Integrator}, the entities state is gathered into the {@link BodyBuffer} first;
+     * the forces and the {@link WorldArea} effects are then evaluated once for the whole update instead
+     * of once per sub-step. A {@link World} with a {@link TileMap} is always integrated one entity at a time.
+     *
+     * @param world   the {@link World} instance to take into account.
+     * @param elapsed the time elapsed since the last update, in milliseconds.
+     */
+    private void integrateAll(World world, double elapsed) {
+        if (packed) {
+            buffer.gather(bodies, world, forceField);
+        }
+        if (pool != null && bodies.size() > chunkSize) {
+            pool.invoke(new IntegrationTask(world, elapsed, 0, bodies.size()));
+        } else {
+            integrateRange(world, elapsed, 0, bodies.size());
+        }
+        if (packed) {
+            buffer.scatter(bodies);
+        }
+        bullets.forEach(b -> integrateLod(b, world));
+    }
+
+    private void integrateRange(World world, double elapsed, int from, int to) {
+        if (packed) {
+            int subSteps = getSubSteps(elapsed);
+            integrator.integrate(buffer, from, to, Math.min(elapsed / subSteps, maxSubStepDuration), subSteps, world);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            integrate(bodies.get(i), world, elapsed);
+        }
+    }
+
+    /**
+     * A ForkJoin task splitting a range of the bodies list into chunks of contiguous entities.
+     */
+    private class IntegrationTask extends RecursiveAction {
+        private final World world;
+        private final double elapsed;
+        private final int from, to;
+
+        IntegrationTask(World world, double elapsed, int from, int to) {
+            this.world = world;
+            this.elapsed = elapsed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                integrateRange(world, elapsed, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new IntegrationTask(world, elapsed, from, middle),
+                        new IntegrationTask(world, elapsed, middle, to));
+            }
+        }
+    }
+
+    /**
+     * Set the number of threads used to integrate the dynamic entities.
+     *
+     * @param threads the number of threads, 1 or less to integrate on the game thread.
+     * @return the updated {@link PhysicEngine}.
+     */
+    public PhysicEngine setParallelism(int threads) {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        return this;
+    }
+
+    /**
+     * Set the number of contiguous entities integrated by one parallel task.
+     *
+     * @param chunkSize the chunk size.
+     * @return the updated {@link PhysicEngine}.
+     */
+    public PhysicEngine setChunkSize(int chunkSize) {
+        this.chunkSize = Math.max(1, chunkSize);
+        return this;
+    }
+
+    /**
+     * Set the number of contiguous particles moved by one parallel task: the particles of an emitter are moved
+     * in parallel (with the parallelism threads) when it has more live particles than this size.
+     *
+     * @param particleChunkSize the particle chunk size.
+     * @return the updated {@link PhysicEngine}.
+     */
+    public PhysicEngine setParticleChunkSize(int particleChunkSize) {
+        this.particleChunkSize = Math.max(1, particleChunkSize);
+        return this;
+    }
+
+    /**
+     * Set the integration mode of the dynamic entities (bullets are always integrated one by one).
+     *
+     * @param mode "object" to integrate each entity on its own, "packed" to use the {@link ScalarIntegrator}
+     *             on packed arrays, "vector" to use the {@link VectorIntegrator} when the
+     *             <code>jdk.incubator.vector</code> module is available. A {@link World} with a {@link TileMap}
+     *             is always integrated one entity at a time (a warning is logged once).
+     * @return the updated {@link PhysicEngine}.
+     */
+    public PhysicEngine setIntegrator(String mode) {
+        tileMapWarned = false;
+        integrator = switch (mode) {
+            case "packed" -> Integrator.create(false);
+            case "vector" -> Integrator.create(true);
+            default -> null;
+        };
+        return this;
+    }
+
+    /**
+     * Compute the number of sub-steps needed to integrate the elapsed time without exceeding
+     * the maximum sub-step duration, bounded by the maximum number of sub-steps.
+     *
+     * @param elapsed the time elapsed since the last update, in milliseconds.
+     * @return the number of sub-steps.
+     */
+    private int getSubSteps(double elapsed) {
+        return (int) Math.max(1, Math.min(maxSubSteps, Math.ceil(elapsed / maxSubStepDuration)));
+    }
+
+    /**
+     * Integrate a dynamic entity over the elapsed time, split into sub-steps: the world rules,
+     * the integration and the world constraint are applied on each sub-step. The forces applied
+     * to the entity before this update are applied on every sub-step.
+     *
+     * @param entity  the dynamic {@link Entity} to be updated.
+     * @param world   the {@link World} instance to take into account.
+     * @param elapsed the time elapsed since the last update, in milliseconds.
+     */
+    private void integrate(Entity<?> entity, World world, double elapsed) {
+        integrate(entity, world, elapsed, getSubSteps(elapsed));
+    }
+
+    /**
+     * Integrate a dynamic entity over its elapsed time accumulated by the {@link SimulationLod}. A reduced
+     * tier entity catches up with all the frames it skipped: its sub-steps are not bounded by the maximum
+     * number of sub-steps of one frame, so no elapsed time is dropped (the accumulated time is bounded by the
+     * reduced rate of its profile).
+     *
+     * @param entity the dynamic {@link Entity} to be updated.
+     * @param world  the {@link World} instance to take into account.
+     */
+    private void integrateLod(Entity<?> entity, World world) {
+        double elapsed = entity.getLodElapsed();
+        if (entity.getLodTier() == SimulationLod.Tier.FULL) {
+            integrate(entity, world, elapsed);
+        } else {
+            integrate(entity, world, elapsed, (int) Math.max(1, Math.ceil(elapsed / maxSubStepDuration)));
+        }
+    }
+
+    /**
+     * Integrate a dynamic entity over the elapsed time, split into the given number of sub-steps.
+     *
+     * @param entity   the dynamic {@link Entity} to be updated.
+     * @param world    the {@link World} instance to take into account.
+     * @param elapsed  the time elapsed since the last update, in milliseconds.
+     * @param subSteps the number of sub-steps, each one lasting at most the maximum sub-step duration.
+     */
+    private void integrate(Entity<?> entity, World world, double elapsed, int subSteps) {
+        double step = Math.min(elapsed / subSteps, maxSubStepDuration);
+        Vector2d external = new Vector2d().addAll(entity.getForces());
+        entity.getForces().clear();
+        for (int i = 0; i < subSteps; i++) {
+            entity.getForces().add(external);
+            applyWorldPhysicRules(entity, world, step);
+            updatePhysicEntity(entity, world, step);
+        }
+    }
+
     /**
      * Apply all {@link World} rules: apply all world forces on any contained
      * {@link Entity}.
      *
      * @param entity the {@link Entity} to be updated
      * @param world  the {@link World} instance to take into account.
+     * @param step   the duration of the sub-step, in milliseconds.
      */
-    private void applyWorldPhysicRules(Entity<?> entity, World world) {
+    private void applyWorldPhysicRules(Entity<?> entity, World world, double step) {
         if (world.contains(entity)) {
             // apply all World forces to the PhysicComponent.
             entity.getForces().addAll(world.getForces());
-            applyWorldEffects(world, entity);
+            applyWorldEffects(world, entity, step);
         }
     }
 
     /**
      * Applies physical effects of the world on a specified entity.
-     * This method iterates through the areas in the world to check if the entity
-     * is within or intersects with any area, subsequently applying forces and
-     * friction effects from the area to the entity.
+     * The forces and friction of the areas covering the entity center are read from the
+     * {@link ForceFieldGrid}, whatever the number of areas in the world. The friction is scaled to the
+     * sub-step duration (see {@link Integrator#frictionFor(double, double)}).
      *
      * @param world The world containing multiple areas that may exert forces.
      * @param e     The entity on which the world effects are to be applied.
+     * @param step  the duration of the sub-step, in milliseconds.
      */
-    private void applyWorldEffects(World world, Entity<?> e) {
-        world.getChildren().forEach(a -> {
-            if (a.contains(e) || a.intersects(e)) {
-                e.getForces().addAll(((WorldArea) a).getForces());
-                e.setVelocity(e.getVelocity().multiply(((WorldArea) a).getMaterial().friction));
-                e.setContact(true);
-            }
-        });
+    private void applyWorldEffects(World world, Entity<?> e, double step) {
+        int cell = forceField.indexOf(e);
+        if (cell >= 0 && forceField.isContact(cell)) {
+            e.getForces().add(new Vector2d(forceField.getForceX(cell), forceField.getForceY(cell)));
+            e.setVelocity(e.getVelocity().multiply(Integrator.frictionFor(forceField.getFriction(cell), step)));
+            e.setContact(true);
+        }
     }
 
     /**
@@ -133,13 +544,22 @@ public class PhysicEngine implements GSystem {
 
                 entity.setAcceleration(new Vector2d().addAll(entity.getForces()).maximize(0.3));
                 entity.setVelocity(entity.getVelocity().add(entity.getAcceleration().multiply(0.5 * elapsed)).maximize(0.5));
-                entity.setPosition(entity.getPosition().add(entity.getVelocity().multiply(elapsed)));
+                Vector2d move = entity.getVelocity().multiply(elapsed);
+                if (entity.isBullet()) {
+                    move = sweep(entity, move);
+                }
+                if (world.getTileMap() != null) {
+                    world.getTileMap().move(entity, move.x, move.y);
+                } else {
+                    entity.setPosition(entity.getPosition().add(move));
+                }
 
                 entity.getForces().clear();
                 constrainToWorldArea(entity, world);
 
-                // apply Material roughness on velocity
-                entity.setVelocity(entity.getVelocity().multiply(entity.getMaterial().friction));
+                // apply Material roughness on velocity, scaled to the sub-step duration.
+                entity.setVelocity(entity.getVelocity()
+                        .multiply(Integrator.frictionFor(entity.getMaterial().friction, elapsed)));
 
             }
             case STATIC -> {
@@ -152,6 +572,79 @@ public class PhysicEngine implements GSystem {
     }
 
 
+    /**
+     * Continuous collision detection for a bullet entity: its AABB is swept along the move against
+     * the solid candidates from the collision broad-phase. On the first hit, the move is clamped to the
+     * time of impact and the velocity is reflected along the hit normal according to the elasticity.
+     * <p>
+     * The candidates are the ones indexed by the {@link CollisionManager} during the previous frame;
+     * without any {@link CollisionManager}, the move is not clamped.
+     *
+     * @param entity the bullet {@link Entity} to be moved.
+     * @param move   the move for this update.
+     * @return the move, clamped to the first time of impact if any.
+     */
+    private Vector2d sweep(Entity<?> entity, Vector2d move) {
+        if (broadPhase == null) {
+            return move;
+        }
+        double sx = Math.min(entity.x, entity.x + move.x);
+        double sy = Math.min(entity.y, entity.y + move.y);
+        broadPhase.query(sx, sy, entity.width + Math.abs(move.x), entity.height + Math.abs(move.y), sweepCandidates);
+
+        double toi = 1.0;
+        double nx = 0, ny = 0;
+        for (Entity<?> other : sweepCandidates) {
+            if (other == entity || !CollisionManager.isSolid(other)) {
+                continue;
+            }
+            // entry and exit times on each axis for the moving AABB against the other one.
+            double xEntry, xExit, yEntry, yExit;
+            if (move.x == 0) {
+                boolean overlapX = entity.x < other.x + other.width && entity.x + entity.width > other.x;
+                xEntry = overlapX ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+                xExit = Double.POSITIVE_INFINITY;
+            } else if (move.x > 0) {
+                xEntry = (other.x - (entity.x + entity.width)) / move.x;
+                xExit = (other.x + other.width - entity.x) / move.x;
+            } else {
+                xEntry = (other.x + other.width - entity.x) / move.x;
+                xExit = (other.x - (entity.x + entity.width)) / move.x;
+            }
+            if (move.y == 0) {
+                boolean overlapY = entity.y < other.y + other.height && entity.y + entity.height > other.y;
+                yEntry = overlapY ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+                yExit = Double.POSITIVE_INFINITY;
+            } else if (move.y > 0) {
+                yEntry = (other.y - (entity.y + entity.height)) / move.y;
+                yExit = (other.y + other.height - entity.y) / move.y;
+            } else {
+                yEntry = (other.y + other.height - entity.y) / move.y;
+                yExit = (other.y - (entity.y + entity.height)) / move.y;
+            }
+            double entry = Math.max(xEntry, yEntry);
+            double exit = Math.min(xExit, yExit);
+            // already overlapping (entry < 0) is left to the contact solver.
+            if (entry <= exit && entry >= 0 && entry < toi) {
+                toi = entry;
+                nx = xEntry > yEntry ? -Math.signum(move.x) : 0;
+                ny = xEntry > yEntry ? 0 : -Math.signum(move.y);
+            }
+        }
+        if (toi < 1.0) {
+            Vector2d velocity = entity.getVelocity();
+            double elasticity = entity.getMaterial().elasticity;
+            if (nx != 0) {
+                velocity.x = ContactSolver.bounce(velocity.x, elasticity);
+            }
+            if (ny != 0) {
+                velocity.y = ContactSolver.bounce(velocity.y, elasticity);
+            }
+            return move.multiply(toi);
+        }
+        return move;
+    }
+
     /**
      * Ensures the given entity remains within the boundaries of the world defined in the scene.
      * If the entity exceeds the world's boundaries, it will be repositioned and its velocity will be
@@ -163,18 +656,24 @@ public class PhysicEngine implements GSystem {
     private void constrainToWorldArea(Entity<?> entity, World world) {
         Vector2d position = entity.getPosition();
         Vector2d size = new Vector2d(entity.getWidth(), entity.getHeight());
+        Vector2d velocity = entity.getVelocity();
+        double elasticity = entity.getMaterial().elasticity;
 
         if (position.x < world.getX()) {
             position.x = world.getX();
+            velocity.x = ContactSolver.bounce(velocity.x, elasticity);
         }
         if (position.x + size.x > world.getX() + world.getWidth()) {
             position.x = world.getX() + world.getWidth() - size.x;
+            velocity.x = ContactSolver.bounce(velocity.x, elasticity);
         }
         if (position.y < world.getY()) {
             position.y = world.getY();
+            velocity.y = ContactSolver.bounce(velocity.y, elasticity);
         }
         if (position.y + size.y > world.getY() + world.getHeight()) {
             position.y = world.getY() + world.getHeight() - size.y;
+            velocity.y = ContactSolver.bounce(velocity.y, elasticity);
         }
         entity.setPosition(position);
     }
@@ -183,6 +682,7 @@ public class PhysicEngine implements GSystem {
      * Disposes of the resources and performs cleanup tasks associated with the PhysicEngine.
      */
     public void dispose() {
+        setParallelism(0);
         debug(PhysicEngine.class, "End of processing");
 
     }
@@ -213,7 +713,24 @@ public class PhysicEngine implements GSystem {
      */
     @Override
     public void initialize(GameInterface game) {
-
+        Config config = SystemManager.get(Config.class);
+        maxSubStepDuration = config.get("app.physic.substep.duration.max");
+        maxSubSteps = config.get("app.physic.substep.count.max");
+        setParallelism(config.get("app.physic.parallel.threads"));
+        setChunkSize(config.get("app.physic.parallel.chunk.size"));
+        setParticleChunkSize(config.get("app.physic.particles.chunk.size"));
+        setIntegrator(config.get("app.physic.integrator"));
+        forceField.setCellSize(config.get("app.physic.forcefield.cell.size"));
+        setRegionMode(config.get("app.physic.regions.enabled"));
+        regions.setRegionSize(config.get("app.physic.regions.size"))
+                .setMargin(config.get("app.physic.regions.margin"))
+                .setDeterministic(config.get("app.physic.regions.deterministic"));
+        lod.setEnabled(config.get("app.physic.lod.enabled"))
+                .setDefaultProfile(new SimulationLod.Profile(
+                        config.get("app.physic.lod.full.distance"),
+                        config.get("app.physic.lod.frozen.distance"),
+                        config.get("app.physic.lod.reduced.rate")))
+                .setProfiles(config.get("app.physic.lod.profiles"));
     }
 
     /**
@@ -242,6 +759,18 @@ public class PhysicEngine implements GSystem {
         if (game.isNotPaused()) {
             SceneManager sm = SystemManager.get(SceneManager.class);
             update(sm.getActiveScene(), elapsed);
+            stats.put("physic.substeps", lastSubSteps);
+            stats.put("physic.bodies.awake", awakeBodies);
+            stats.put("physic.bodies.sleeping", sleepingBodies);
+            stats.put("physic.forcefield.rebuilds", forceField.getRebuilds());
+            if (regionMode) {
+                stats.put("physic.regions", regions.getRegionCount());
+                stats.put("physic.regions.border", regions.getBorderCount());
+            }
+            stats.put("lod.full", lod.getFullCount());
+            stats.put("lod.reduced", lod.getReducedCount());
+            stats.put("lod.frozen", lod.getFrozenCount());
+            stats.put("particles.updated", particlesUpdated.get());
         }
     }
 
@@ -274,6 +803,6 @@ public class PhysicEngine implements GSystem {
      */
     @Override
     public void dispose(GameInterface game) {
-
+        dispose();
     }
 }
\ No newline at end of file
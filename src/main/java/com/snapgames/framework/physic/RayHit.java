@@ -0,0 +1,60 @@
+package com.snapgames.framework.physic;
+
+import com.snapgames.framework.entity.Entity;
+
+/**
+ * A {@link RayHit} is the result of a raycast against the entities of the {@link SpatialGrid}: the hit entity,
+ * the distance from the ray origin, the hit point and the normal of the hit side (0,0 when the ray starts
+ * inside the entity).
+ * <p>
+ * The hits are provided by the caller and reused from one raycast to another.
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * RayHit hit = new RayHit();
+ * if (grid.raycast(x, y, dx, dy, 200, LAYER_GROUND, hit)) {
+ *     double groundY = hit.y;
+ * }
+ * </code></pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class RayHit {
+    public Entity<?> entity;
+    public double distance;
+    public double x, y;
+    public double nx, ny;
+
+    void set(Entity<?> entity, double distance, double x, double y, double nx, double ny) {
+        this.entity = entity;
+        this.distance = distance;
+        this.x = x;
+        this.y = y;
+        this.nx = nx;
+        this.ny = ny;
+    }
+
+    void set(RayHit other) {
+        set(other.entity, other.distance, other.x, other.y, other.nx, other.ny);
+    }
+
+    /**
+     * Clear the hit.
+     */
+    public void reset() {
+        set(null, Double.POSITIVE_INFINITY, 0, 0, 0, 0);
+    }
+
+    @Override
+    public String toString() {
+        return "RayHit{" +
+            "entity=" + (entity != null ? entity.getName() : "null") +
+            ", distance=" + distance +
+            ", x=" + x +
+            ", y=" + y +
+            ", nx=" + nx +
+            ", ny=" + ny +
+            '}';
+    }
+}
@@ -0,0 +1,204 @@
+package com.snapgames.framework.physic;
+
+import com.snapgames.framework.entity.Entity;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * The {@link RegionScheduler} splits the {@link World} into square regions to update the entities in parallel
+ * without two workers ever touching neighbouring entities at the same time.
+ * <p>
+ * Each entity is assigned to the region containing its center. An entity whose bounds, extended by the margin,
+ * stay inside its region is an interior entity; the others are border entities. The update is then done in
+ * 5 passes:
+ * <ol>
+ *     <li>the interior entities of all the regions, in parallel,</li>
+ *     <li>the border entities, in 4 passes, one per region colour: regions sharing a colour (same column and
+ *     row parity) are never adjacent, so their border entities can be processed in parallel.</li>
+ * </ol>
+ * An entity update may then safely read or write the entities closer than the margin, and query the
+ * collision broad-phase ({@link SpatialGrid} keeps the scratch state of its queries per thread).
+ * <p>
+ * In deterministic mode, or without a pool, the exact same schedule is run on the calling thread, region by
+ * region: as regions processed in parallel never interact, both modes give the same result.
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * scheduler.build(scene.getEntities().values(), world, Entity::isActive);
+ * scheduler.run(pool, entity -&gt; update(entity));
+ * </code></pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class RegionScheduler {
+
+    private double regionSize = 512;
+    private double margin = 32;
+    private boolean deterministic = false;
+
+    private int cols, rows;
+    private final List<List<Entity<?>>> interior = new ArrayList<>();
+    private final List<List<Entity<?>>> border = new ArrayList<>();
+    // non-empty regions per pass: interior, then the 4 border colours.
+    private final int[][] passes = new int[5][0];
+    private final int[] passSizes = new int[5];
+    private int borderCount;
+
+    /**
+     * Assign the entities to the regions.
+     *
+     * @param entities the entities to be updated.
+     * @param bounds   the area to be split into regions (usually the {@link World}).
+     * @param filter   only the entities matching this filter are scheduled.
+     */
+    public void build(Collection<Entity<?>> entities, Rectangle2D bounds, Predicate<Entity<?>> filter) {
+        cols = Math.max(1, (int) Math.ceil(bounds.getWidth() / regionSize));
+        rows = Math.max(1, (int) Math.ceil(bounds.getHeight() / regionSize));
+        int nbRegions = cols * rows;
+        while (interior.size() < nbRegions) {
+            interior.add(new ArrayList<>());
+            border.add(new ArrayList<>());
+        }
+        for (int r = 0; r < nbRegions; r++) {
+            interior.get(r).clear();
+            border.get(r).clear();
+        }
+        borderCount = 0;
+        for (Entity<?> e : entities) {
+            if (!filter.test(e)) {
+                continue;
+            }
+            int rx = clamp((int) Math.floor((e.getCenterX() - bounds.getX()) / regionSize), cols);
+            int ry = clamp((int) Math.floor((e.getCenterY() - bounds.getY()) / regionSize), rows);
+            double left = bounds.getX() + rx * regionSize, top = bounds.getY() + ry * regionSize;
+            boolean inside = e.x - margin >= left && e.x + e.width + margin <= left + regionSize
+                && e.y - margin >= top && e.y + e.height + margin <= top + regionSize;
+            if (inside) {
+                interior.get(ry * cols + rx).add(e);
+            } else {
+                border.get(ry * cols + rx).add(e);
+                borderCount++;
+            }
+        }
+        // list the non-empty regions of each pass.
+        for (int p = 0; p < passes.length; p++) {
+            if (passes[p].length < nbRegions) {
+                passes[p] = new int[nbRegions];
+            }
+            passSizes[p] = 0;
+        }
+        for (int ry = 0; ry < rows; ry++) {
+            for (int rx = 0; rx < cols; rx++) {
+                int r = ry * cols + rx;
+                if (!interior.get(r).isEmpty()) {
+                    passes[0][passSizes[0]++] = r;
+                }
+                if (!border.get(r).isEmpty()) {
+                    int colour = 1 + (rx & 1) + 2 * (ry & 1);
+                    passes[colour][passSizes[colour]++] = r;
+                }
+            }
+        }
+    }
+
+    private static int clamp(int v, int size) {
+        return Math.max(0, Math.min(size - 1, v));
+    }
+
+    /**
+     * Run the update of all the scheduled entities, pass after pass.
+     *
+     * @param pool   the pool processing the regions of a pass in parallel, may be null.
+     * @param update the update to be applied on each entity.
+     */
+    public void run(ForkJoinPool pool, Consumer<Entity<?>> update) {
+        for (int p = 0; p < passes.length; p++) {
+            List<List<Entity<?>>> lists = p == 0 ? interior : border;
+            if (pool == null || deterministic || passSizes[p] < 2) {
+                for (int i = 0; i < passSizes[p]; i++) {
+                    lists.get(passes[p][i]).forEach(update);
+                }
+            } else {
+                pool.invoke(new RegionTask(lists, passes[p], 0, passSizes[p], update));
+            }
+        }
+    }
+
+    /**
+     * A ForkJoin task splitting the regions of a pass until one region per task.
+     */
+    private static class RegionTask extends RecursiveAction {
+        private final List<List<Entity<?>>> lists;
+        private final int[] regions;
+        private final int from, to;
+        private final Consumer<Entity<?>> update;
+
+        RegionTask(List<List<Entity<?>>> lists, int[] regions, int from, int to, Consumer<Entity<?>> update) {
+            this.lists = lists;
+            this.regions = regions;
+            this.from = from;
+            this.to = to;
+            this.update = update;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                lists.get(regions[from]).forEach(update);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RegionTask(lists, regions, from, middle, update),
+                    new RegionTask(lists, regions, middle, to, update));
+            }
+        }
+    }
+
+    public RegionScheduler setRegionSize(double regionSize) {
+        this.regionSize = Math.max(1, regionSize);
+        return this;
+    }
+
+    /**
+     * Set the distance an entity update may reach around the entity.
+     *
+     * @param margin the margin in pixels, must be lower than half the region size.
+     * @return the updated {@link RegionScheduler}.
+     */
+    public RegionScheduler setMargin(double margin) {
+        this.margin = Math.max(0, margin);
+        return this;
+    }
+
+    public RegionScheduler setDeterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+        return this;
+    }
+
+    /**
+     * @return the number of non-empty regions during the last build.
+     */
+    public int getRegionCount() {
+        int count = 0;
+        for (int r = 0; r < cols * rows; r++) {
+            if (!interior.get(r).isEmpty() || !border.get(r).isEmpty()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of border entities during the last build.
+     */
+    public int getBorderCount() {
+        return borderCount;
+    }
+}
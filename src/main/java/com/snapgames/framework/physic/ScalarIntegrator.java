@@ -0,0 +1,59 @@
+package com.snapgames.framework.physic;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * The {@link ScalarIntegrator} is the plain loop implementation of the {@link Integrator}, used when the
+ * JDK Vector API is not available and to process the remaining bodies of the {@link VectorIntegrator}.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class ScalarIntegrator implements Integrator {
+
+    @Override
+    public void integrate(BodyBuffer b, int from, int to, double step, int subSteps, Rectangle2D bounds) {
+        double minX = bounds.getX(), minY = bounds.getY();
+        double maxX = bounds.getX() + bounds.getWidth(), maxY = bounds.getY() + bounds.getHeight();
+        b.scaleFriction(from, to, step);
+        for (int i = from; i < to; i++) {
+            double x = b.x[i], y = b.y[i], vx = b.vx[i], vy = b.vy[i];
+            double ax = clamp(b.fx[i], MAX_ACCELERATION), ay = clamp(b.fy[i], MAX_ACCELERATION);
+            double e = b.elasticity[i];
+            for (int s = 0; s < subSteps; s++) {
+                vx = clamp(vx * b.stepAreaFriction[i] + ax * 0.5 * step, MAX_VELOCITY);
+                vy = clamp(vy * b.stepAreaFriction[i] + ay * 0.5 * step, MAX_VELOCITY);
+                x += vx * step;
+                y += vy * step;
+                if (x < minX) {
+                    x = minX;
+                    vx = ContactSolver.bounce(vx, e);
+                }
+                if (x + b.width[i] > maxX) {
+                    x = maxX - b.width[i];
+                    vx = ContactSolver.bounce(vx, e);
+                }
+                if (y < minY) {
+                    y = minY;
+                    vy = ContactSolver.bounce(vy, e);
+                }
+                if (y + b.height[i] > maxY) {
+                    y = maxY - b.height[i];
+                    vy = ContactSolver.bounce(vy, e);
+                }
+                vx *= b.stepFriction[i];
+                vy *= b.stepFriction[i];
+            }
+            b.x[i] = x;
+            b.y[i] = y;
+            b.vx[i] = vx;
+            b.vy[i] = vy;
+            b.ax[i] = ax;
+            b.ay[i] = ay;
+        }
+    }
+
+    private static double clamp(double v, double max) {
+        return Math.abs(v) > max ? Math.signum(v) * max : v;
+    }
+}
@@ -0,0 +1,206 @@
+package com.snapgames.framework.physic;
+
+import com.snapgames.framework.entity.Camera;
+import com.snapgames.framework.entity.Entity;
+import com.snapgames.framework.scene.Scene;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.snapgames.framework.utils.Log.warn;
+
+/**
+ * The {@link SimulationLod} (simulation level of detail) sorts the entities of a {@link Scene} into tiers
+ * according to the distance between their bounds and the active {@link Camera} viewport:
+ * <ul>
+ *     <li>{@link Tier#FULL}: updated on every frame,</li>
+ *     <li>{@link Tier#REDUCED}: updated once every N frames with the elapsed time accumulated since
+ *     their last update (the updates are spread over the frames according to the entity id),</li>
+ *     <li>{@link Tier#FROZEN}: not updated at all, the time spent frozen is dropped.</li>
+ * </ul>
+ * The distances and the reduced rate are defined by a default {@link Profile} and can be overridden per entity
+ * class (e.g. <code>app.physic.lod.profiles=ParticlesObject:200:600:8</code>). Entities fixed to the camera
+ * and scenes without camera are always in the full tier.
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * lod.update(scene, elapsed);
+ * if (lod.isDue(entity)) {
+ *     update(entity, entity.getLodElapsed());
+ *     lod.consume(entity);
+ * }
+ * </code></pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class SimulationLod {
+
+    /**
+     * The simulation tiers.
+     */
+    public enum Tier {
+        FULL, REDUCED, FROZEN
+    }
+
+    /**
+     * Distances (in pixels from the camera viewport) and reduced update rate of a class of entities.
+     */
+    public static class Profile {
+        /**
+         * Below this distance, the entity is in the full tier.
+         */
+        public final double fullDistance;
+        /**
+         * Beyond this distance, the entity is frozen.
+         */
+        public final double frozenDistance;
+        /**
+         * A reduced entity is updated once every reducedRate frames.
+         */
+        public final int reducedRate;
+
+        public Profile(double fullDistance, double frozenDistance, int reducedRate) {
+            this.fullDistance = fullDistance;
+            this.frozenDistance = frozenDistance;
+            this.reducedRate = Math.max(1, reducedRate);
+        }
+    }
+
+    private boolean enabled = true;
+    private Profile defaultProfile = new Profile(400, 1200, 4);
+    private final Map<String, Profile> profiles = new HashMap<>();
+    // read from the region update workers.
+    private final Map<Class<?>, Profile> profileCache = new ConcurrentHashMap<>();
+
+    private long frame = 0;
+    private int full, reduced, frozen;
+
+    /**
+     * Compute the tier of all the active entities of the scene for this frame and accumulate their
+     * elapsed time.
+     *
+     * @param scene   the {@link Scene} to be processed.
+     * @param elapsed the time elapsed since the previous frame, in milliseconds.
+     */
+    public void update(Scene scene, double elapsed) {
+        frame++;
+        full = reduced = frozen = 0;
+        Camera camera = scene.getActiveCamera();
+        for (Entity<?> e : scene.getEntities().values()) {
+            if (!e.isActive()) {
+                continue;
+            }
+            Tier tier = getTier(e, camera);
+            e.setLodTier(tier);
+            switch (tier) {
+                case FULL -> full++;
+                case REDUCED -> reduced++;
+                case FROZEN -> frozen++;
+            }
+            e.setLodElapsed(tier == Tier.FROZEN ? 0 : e.getLodElapsed() + elapsed);
+        }
+    }
+
+    private Tier getTier(Entity<?> e, Camera camera) {
+        if (!enabled || camera == null || e instanceof Camera || e.getCameraIsStickedTo() != null) {
+            return Tier.FULL;
+        }
+        Profile p = getProfile(e);
+        // distance between the entity bounds and the camera viewport (0 if they overlap).
+        double dx = Math.max(0, Math.max(camera.x - (e.x + e.width), e.x - (camera.x + camera.width)));
+        double dy = Math.max(0, Math.max(camera.y - (e.y + e.height), e.y - (camera.y + camera.height)));
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        if (distance <= p.fullDistance) {
+            return Tier.FULL;
+        }
+        return distance <= p.frozenDistance ? Tier.REDUCED : Tier.FROZEN;
+    }
+
+    private Profile getProfile(Entity<?> e) {
+        return profileCache.computeIfAbsent(e.getClass(),
+            c -> profiles.getOrDefault(c.getSimpleName(), defaultProfile));
+    }
+
+    /**
+     * @param e the {@link Entity} to be tested.
+     * @return true if the entity must be updated during this frame, with {@link Entity#getLodElapsed()}.
+     */
+    public boolean isDue(Entity<?> e) {
+        return switch (e.getLodTier()) {
+            case FULL -> true;
+            case REDUCED -> (frame + e.getId()) % getProfile(e).reducedRate == 0;
+            case FROZEN -> false;
+        };
+    }
+
+    /**
+     * Reset the accumulated elapsed time of an entity once it has been updated.
+     *
+     * @param e the updated {@link Entity}.
+     */
+    public void consume(Entity<?> e) {
+        e.setLodElapsed(0);
+    }
+
+    public SimulationLod setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        return this;
+    }
+
+    public SimulationLod setDefaultProfile(Profile profile) {
+        this.defaultProfile = profile;
+        profileCache.clear();
+        return this;
+    }
+
+    /**
+     * Set the profile of a class of entities.
+     *
+     * @param className the simple name of the entity class (e.g. "GameObject").
+     * @param profile   the {@link Profile} for this class.
+     * @return the updated {@link SimulationLod}.
+     */
+    public SimulationLod setProfile(String className, Profile profile) {
+        profiles.put(className, profile);
+        profileCache.clear();
+        return this;
+    }
+
+    /**
+     * Parse the per class profiles, with the format <code>[class]:[full]:[frozen]:[rate],...</code>.
+     *
+     * @param definitions the profiles definition.
+     * @return the updated {@link SimulationLod}.
+     */
+    public SimulationLod setProfiles(String definitions) {
+        for (String def : definitions.split(",")) {
+            if (def.isBlank()) {
+                continue;
+            }
+            String[] values = def.trim().split(":");
+            if (values.length != 4) {
+                warn(SimulationLod.class, "Invalid simulation LOD profile '%s'", def);
+                continue;
+            }
+            setProfile(values[0], new Profile(
+                Double.parseDouble(values[1]),
+                Double.parseDouble(values[2]),
+                Integer.parseInt(values[3])));
+        }
+        return this;
+    }
+
+    public int getFullCount() {
+        return full;
+    }
+
+    public int getReducedCount() {
+        return reduced;
+    }
+
+    public int getFrozenCount() {
+        return frozen;
+    }
+}
@@ -0,0 +1,471 @@
+package com.snapgames.framework.physic;
+
+import com.snapgames.framework.entity.Entity;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The {@link SpatialGrid} is the collision broad-phase: a uniform grid covering the {@link World}, rebuilt
+ * every frame, where each cell references the entities overlapping it.
+ * <p>
+ * The grid is stored as packed index arrays (one range of entity indexes per cell), so a rebuild does not
+ * allocate anything once the arrays have grown to the scene size. Entities outside the grid bounds are
+ * clamped to the border cells.
+ * <p>
+ * Once built, the grid answers the spatial queries of the behaviors (AABB overlap, radius and raycast),
+ * filtered on the {@link Entity#getLayer()} bit mask and returning their results into caller provided
+ * buffers. The scratch state of the queries is kept per thread, so the behaviors may query the grid
+ * concurrently (e.g. from the regions of the {@link RegionScheduler} updated in parallel), but never while
+ * it is being built.
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * grid.build(scene.getEntities().values(), world, Entity::isActive);
+ * grid.forEachOverlappingPair((e1, e2) -&gt; ...);
+ * int nb = grid.query(x, y, w, h, result);
+ * int near = grid.queryRadius(cx, cy, 100, LAYER_ENEMIES, result);
+ * boolean ground = grid.raycast(x, y, 0, 1, 4, LAYER_GROUND, hit);
+ * </code></pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class SpatialGrid {
+
+    /**
+     * Callback for each pair of overlapping entities.
+     */
+    public interface PairConsumer {
+        void accept(Entity<?> e1, Entity<?> e2);
+    }
+
+    /**
+     * Layer mask matching all the entities.
+     */
+    public static final int ALL_LAYERS = -1;
+
+    private double cellSize = 64;
+    private double originX, originY;
+    private int cols = 1, rows = 1;
+
+    private final List<Entity<?>> bodies = new ArrayList<>();
+    // cell range covered by each body.
+    private int[] minCX = new int[0], minCY = new int[0], maxCX = new int[0], maxCY = new int[0];
+    // per cell [start, end) range in cellItems.
+    private int[] cellStart = new int[0];
+    private int[] cellFill = new int[0];
+    private int[] cellItems = new int[0];
+    private final ThreadLocal<QueryContext> contexts = ThreadLocal.withInitial(QueryContext::new);
+
+    /**
+     * The scratch state of the queries of one thread: de-duplication stamps and raycast buffers.
+     */
+    private static final class QueryContext {
+        private int[] stamp = new int[0];
+        private int queryId = 0;
+        private final RayHit rayTest = new RayHit();
+        private final RayHit[] rayHits = new RayHit[1];
+        private final double[] rayRange = new double[2], rayRangeX = new double[2], rayRangeY = new double[2];
+
+        /**
+         * @param size the number of indexed entities.
+         * @return a new query id, the stamps of all the entities being different from it.
+         */
+        private int nextQueryId(int size) {
+            if (stamp.length < size) {
+                stamp = new int[Math.max(size, stamp.length * 2)];
+            }
+            if (++queryId == Integer.MAX_VALUE) {
+                Arrays.fill(stamp, 0);
+                queryId = 1;
+            }
+            return queryId;
+        }
+    }
+
+    public SpatialGrid() {
+    }
+
+    public SpatialGrid(double cellSize) {
+        setCellSize(cellSize);
+    }
+
+    /**
+     * Rebuild the grid for the given bounds and entities.
+     *
+     * @param entities the entities to be indexed.
+     * @param bounds   the area covered by the grid (usually the {@link World}).
+     * @param filter   only the entities matching this filter are indexed.
+     */
+    public void build(Collection<Entity<?>> entities, Rectangle2D bounds, Predicate<Entity<?>> filter) {
+        originX = bounds.getX();
+        originY = bounds.getY();
+        cols = Math.max(1, (int) Math.ceil(bounds.getWidth() / cellSize));
+        rows = Math.max(1, (int) Math.ceil(bounds.getHeight() / cellSize));
+        int nbCells = cols * rows;
+        if (cellStart.length < nbCells + 1) {
+            cellStart = new int[nbCells + 1];
+            cellFill = new int[nbCells];
+        } else {
+            Arrays.fill(cellStart, 0, nbCells + 1, 0);
+        }
+
+        bodies.clear();
+        for (Entity<?> e : entities) {
+            if (filter.test(e)) {
+                bodies.add(e);
+            }
+        }
+        int n = bodies.size();
+        if (minCX.length < n) {
+            int size = Math.max(n, minCX.length * 2);
+            minCX = new int[size];
+            minCY = new int[size];
+            maxCX = new int[size];
+            maxCY = new int[size];
+        }
+
+        // first pass: count items per cell.
+        int total = 0;
+        for (int i = 0; i < n; i++) {
+            Entity<?> e = bodies.get(i);
+            minCX[i] = cellX(e.x);
+            minCY[i] = cellY(e.y);
+            maxCX[i] = cellX(e.x + e.width);
+            maxCY[i] = cellY(e.y + e.height);
+            for (int cy = minCY[i]; cy <= maxCY[i]; cy++) {
+                for (int cx = minCX[i]; cx <= maxCX[i]; cx++) {
+                    cellStart[cy * cols + cx + 1]++;
+                    total++;
+                }
+            }
+        }
+        for (int c = 0; c < nbCells; c++) {
+            cellStart[c + 1] += cellStart[c];
+            cellFill[c] = cellStart[c];
+        }
+        if (cellItems.length < total) {
+            cellItems = new int[Math.max(total, cellItems.length * 2)];
+        }
+        // second pass: fill cells.
+        for (int i = 0; i < n; i++) {
+            for (int cy = minCY[i]; cy <= maxCY[i]; cy++) {
+                for (int cx = minCX[i]; cx <= maxCX[i]; cx++) {
+                    cellItems[cellFill[cy * cols + cx]++] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Visit each pair of indexed entities with overlapping bounds exactly once.
+     *
+     * @param consumer the callback to be called for each overlapping pair.
+     */
+    public void forEachOverlappingPair(PairConsumer consumer) {
+        for (int cy = 0; cy < rows; cy++) {
+            for (int cx = 0; cx < cols; cx++) {
+                int c = cy * cols + cx;
+                for (int i = cellStart[c]; i < cellStart[c + 1]; i++) {
+                    int ia = cellItems[i];
+                    for (int j = i + 1; j < cellStart[c + 1]; j++) {
+                        int ib = cellItems[j];
+                        // only test the pair in the first cell both entities share.
+                        if (Math.max(minCX[ia], minCX[ib]) != cx || Math.max(minCY[ia], minCY[ib]) != cy) {
+                            continue;
+                        }
+                        Entity<?> a = bodies.get(ia);
+                        Entity<?> b = bodies.get(ib);
+                        if (a.intersects(b)) {
+                            consumer.accept(a, b);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieve all the indexed entities whose bounds overlap the given area.
+     *
+     * @param x      the area left
+     * @param y      the area top
+     * @param w      the area width
+     * @param h      the area height
+     * @param result the caller provided list to be filled (it is cleared first).
+     * @return the number of entities found.
+     */
+    public int query(double x, double y, double w, double h, List<Entity<?>> result) {
+        return query(x, y, w, h, ALL_LAYERS, result);
+    }
+
+    /**
+     * Retrieve the indexed entities of the given layers whose bounds overlap the given area.
+     *
+     * @param x         the area left
+     * @param y         the area top
+     * @param w         the area width
+     * @param h         the area height
+     * @param layerMask the layers to look into (see {@link Entity#setLayer(int)}).
+     * @param result    the caller provided list to be filled (it is cleared first).
+     * @return the number of entities found.
+     */
+    public int query(double x, double y, double w, double h, int layerMask, List<Entity<?>> result) {
+        return collect(x, y, w, h, layerMask, 0, 0, -1, result);
+    }
+
+    /**
+     * Collect the entities overlapping an area and, if radius2 is not negative, the circle of center (px, py).
+     */
+    private int collect(double x, double y, double w, double h, int layerMask,
+                        double px, double py, double radius2, List<Entity<?>> result) {
+        result.clear();
+        if (bodies.isEmpty()) {
+            return 0;
+        }
+        QueryContext context = contexts.get();
+        int id = context.nextQueryId(bodies.size());
+        int[] stamp = context.stamp;
+        int x0 = cellX(x), x1 = cellX(x + w), y0 = cellY(y), y1 = cellY(y + h);
+        for (int cy = y0; cy <= y1; cy++) {
+            for (int cx = x0; cx <= x1; cx++) {
+                int c = cy * cols + cx;
+                for (int i = cellStart[c]; i < cellStart[c + 1]; i++) {
+                    int index = cellItems[i];
+                    if (stamp[index] != id) {
+                        stamp[index] = id;
+                        Entity<?> e = bodies.get(index);
+                        if ((e.getLayer() & layerMask) != 0 && e.intersects(x, y, w, h)
+                            && (radius2 < 0 || distance2(e, px, py) <= radius2)) {
+                            result.add(e);
+                        }
+                    }
+                }
+            }
+        }
+        return result.size();
+    }
+
+    /**
+     * Retrieve the indexed entities of the given layers whose bounds overlap a circle.
+     *
+     * @param cx        the circle center horizontal position
+     * @param cy        the circle center vertical position
+     * @param radius    the circle radius
+     * @param layerMask the layers to look into.
+     * @param result    the caller provided list to be filled (it is cleared first).
+     * @return the number of entities found.
+     */
+    public int queryRadius(double cx, double cy, double radius, int layerMask, List<Entity<?>> result) {
+        return collect(cx - radius, cy - radius, radius * 2, radius * 2, layerMask, cx, cy, radius * radius, result);
+    }
+
+    /**
+     * Square distance from a point to the closest point of the entity bounds.
+     */
+    private static double distance2(Entity<?> e, double px, double py) {
+        double dx = px - Math.max(e.x, Math.min(px, e.x + e.width));
+        double dy = py - Math.max(e.y, Math.min(py, e.y + e.height));
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Cast a ray and retrieve the first indexed entity of the given layers it hits.
+     *
+     * @param ox          the ray origin horizontal position
+     * @param oy          the ray origin vertical position
+     * @param dx          the ray direction horizontal component (not necessarily normalized)
+     * @param dy          the ray direction vertical component
+     * @param maxDistance the maximum distance of the hit from the origin.
+     * @param layerMask   the layers to look into.
+     * @param hit         the caller provided hit to be set.
+     * @return true if an entity has been hit.
+     */
+    public boolean raycast(double ox, double oy, double dx, double dy, double maxDistance, int layerMask, RayHit hit) {
+        QueryContext context = contexts.get();
+        context.rayHits[0] = hit;
+        boolean found = cast(context, ox, oy, dx, dy, maxDistance, layerMask, context.rayHits, true) > 0;
+        context.rayHits[0] = null;
+        return found;
+    }
+
+    /**
+     * Cast a ray and retrieve the indexed entities of the given layers it hits, sorted by distance.
+     * When there are more hits than the buffer size, only the nearest ones are kept.
+     *
+     * @param ox          the ray origin horizontal position
+     * @param oy          the ray origin vertical position
+     * @param dx          the ray direction horizontal component (not necessarily normalized)
+     * @param dy          the ray direction vertical component
+     * @param maxDistance the maximum distance of the hits from the origin.
+     * @param layerMask   the layers to look into.
+     * @param hits        the caller provided hits to be set (all the array items must be created).
+     * @return the number of hits set into the buffer.
+     */
+    public int raycastAll(double ox, double oy, double dx, double dy, double maxDistance, int layerMask, RayHit[] hits) {
+        return cast(contexts.get(), ox, oy, dx, dy, maxDistance, layerMask, hits, false);
+    }
+
+    /**
+     * Walk the grid cells along the ray (DDA traversal), testing each entity once against the ray.
+     */
+    private int cast(QueryContext context, double ox, double oy, double dx, double dy, double maxDistance,
+                     int layerMask, RayHit[] hits, boolean firstOnly) {
+        for (RayHit h : hits) {
+            h.reset();
+        }
+        double length = Math.sqrt(dx * dx + dy * dy);
+        if (bodies.isEmpty() || length == 0 || hits.length == 0) {
+            return 0;
+        }
+        dx /= length;
+        dy /= length;
+        // clip the ray to the grid bounds.
+        double[] range = context.rayRange;
+        range[0] = 0;
+        range[1] = maxDistance;
+        if (!slab(ox, dx, originX, originX + cols * cellSize, range)
+            || !slab(oy, dy, originY, originY + rows * cellSize, range)) {
+            return 0;
+        }
+        double startX = ox + dx * range[0], startY = oy + dy * range[0];
+        int cx = cellX(startX), cy = cellY(startY);
+        int stepX = dx > 0 ? 1 : (dx < 0 ? -1 : 0);
+        int stepY = dy > 0 ? 1 : (dy < 0 ? -1 : 0);
+        double nextX = stepX != 0 ? (originX + (cx + (stepX > 0 ? 1 : 0)) * cellSize - ox) / dx : Double.POSITIVE_INFINITY;
+        double nextY = stepY != 0 ? (originY + (cy + (stepY > 0 ? 1 : 0)) * cellSize - oy) / dy : Double.POSITIVE_INFINITY;
+        double deltaX = stepX != 0 ? cellSize / Math.abs(dx) : Double.POSITIVE_INFINITY;
+        double deltaY = stepY != 0 ? cellSize / Math.abs(dy) : Double.POSITIVE_INFINITY;
+
+        int id = context.nextQueryId(bodies.size());
+        int[] stamp = context.stamp;
+        int count = 0;
+        while (true) {
+            int c = cy * cols + cx;
+            for (int i = cellStart[c]; i < cellStart[c + 1]; i++) {
+                int index = cellItems[i];
+                if (stamp[index] == id) {
+                    continue;
+                }
+                stamp[index] = id;
+                Entity<?> e = bodies.get(index);
+                if ((e.getLayer() & layerMask) != 0 && intersectRay(context, e, ox, oy, dx, dy, maxDistance)) {
+                    count = insertHit(hits, count, context.rayTest);
+                }
+            }
+            double cellExit = Math.min(nextX, nextY);
+            // the hits found so far are nearer than anything in the next cells.
+            if (firstOnly && count > 0 && hits[0].distance <= cellExit) {
+                break;
+            }
+            if (cellExit > range[1]) {
+                break;
+            }
+            if (nextX < nextY) {
+                cx += stepX;
+                nextX += deltaX;
+            } else {
+                cy += stepY;
+                nextY += deltaY;
+            }
+            if (cx < 0 || cy < 0 || cx >= cols || cy >= rows) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Insert a hit into the buffer sorted by distance, dropping the farthest one when the buffer is full.
+     */
+    private static int insertHit(RayHit[] hits, int count, RayHit hit) {
+        int i;
+        if (count == hits.length) {
+            if (hits[count - 1].distance <= hit.distance) {
+                return count;
+            }
+            i = count - 1;
+        } else {
+            i = count++;
+        }
+        while (i > 0 && hits[i - 1].distance > hit.distance) {
+            hits[i].set(hits[i - 1]);
+            i--;
+        }
+        hits[i].set(hit);
+        return count;
+    }
+
+    /**
+     * Intersect a normalized ray with the bounds of an entity, setting the context ray test hit.
+     */
+    private static boolean intersectRay(QueryContext context, Entity<?> e, double ox, double oy, double dx, double dy,
+                                        double maxDistance) {
+        double[] rx = context.rayRangeX, ry = context.rayRangeY;
+        rx[0] = ry[0] = Double.NEGATIVE_INFINITY;
+        rx[1] = ry[1] = Double.POSITIVE_INFINITY;
+        if (!slab(ox, dx, e.x, e.x + e.width, rx) || !slab(oy, dy, e.y, e.y + e.height, ry)) {
+            return false;
+        }
+        double entry = Math.max(rx[0], ry[0]);
+        double exit = Math.min(rx[1], ry[1]);
+        if (entry > exit || exit < 0 || entry > maxDistance) {
+            return false;
+        }
+        double t = Math.max(0, entry);
+        double nx = 0, ny = 0;
+        if (entry >= 0) {
+            if (rx[0] > ry[0]) {
+                nx = -Math.signum(dx);
+            } else {
+                ny = -Math.signum(dy);
+            }
+        }
+        context.rayTest.set(e, t, ox + dx * t, oy + dy * t, nx, ny);
+        return true;
+    }
+
+    /**
+     * Narrow the [range[0], range[1]] parametric range of a ray to its part between min and max on one axis.
+     *
+     * @return false if the ray does not cross the slab.
+     */
+    private static boolean slab(double o, double d, double min, double max, double[] range) {
+        if (d == 0) {
+            return o >= min && o <= max;
+        }
+        double t1 = (min - o) / d, t2 = (max - o) / d;
+        range[0] = Math.max(range[0], Math.min(t1, t2));
+        range[1] = Math.min(range[1], Math.max(t1, t2));
+        return range[0] <= range[1];
+    }
+
+    private int cellX(double x) {
+        return Math.max(0, Math.min(cols - 1, (int) Math.floor((x - originX) / cellSize)));
+    }
+
+    private int cellY(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor((y - originY) / cellSize)));
+    }
+
+    public SpatialGrid setCellSize(double cellSize) {
+        this.cellSize = Math.max(1, cellSize);
+        return this;
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * @return the entities indexed during the last build.
+     */
+    public List<Entity<?>> getBodies() {
+        return bodies;
+    }
+}
@@ -0,0 +1,292 @@
+package com.snapgames.framework.physic;
+
+import com.snapgames.framework.entity.Entity;
+import com.snapgames.framework.physic.math.Vector2d;
+
+/**
+ * The {@link TileMap} is the static collision layer of a {@link World}: a grid of tiles stored as one byte
+ * per cell, each tile being empty, solid, one-way (only blocking from above) or a slope.
+ * <p>
+ * The {@link PhysicEngine} moves the dynamic entities through the tile map axis by axis, only looking up the
+ * cells crossed by the entity bounds, so the level geometry never enters the entity-pair collision detection.
+ *
+ * <p>Usage:</p>
+ * <pre><code>
+ * TileMap map = TileMap.parse(16, 16,
+ *     "..........",
+ *     "...----...",
+ *     ".........#",
+ *     "......./##",
+ *     "##########");
+ * world.setTileMap(map);
+ * </code></pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class TileMap {
+    public static final byte EMPTY = 0;
+    public static final byte SOLID = 1;
+    /**
+     * Only blocks the entities falling from above its top side.
+     */
+    public static final byte ONE_WAY = 2;
+    /**
+     * Slope rising from the bottom left to the top right corner of the tile.
+     */
+    public static final byte SLOPE_UP = 3;
+    /**
+     * Slope falling from the top left to the bottom right corner of the tile.
+     */
+    public static final byte SLOPE_DOWN = 4;
+
+    private static final double EPSILON = 1e-6;
+
+    private final int tileWidth, tileHeight;
+    private final int cols, rows;
+    private final byte[] tiles;
+    private double originX = 0, originY = 0;
+    /**
+     * Increased on each tile change, to find out when the map must be drawn again.
+     */
+    private int version = 0;
+
+    public TileMap(int tileWidth, int tileHeight, int cols, int rows) {
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.cols = cols;
+        this.rows = rows;
+        this.tiles = new byte[cols * rows];
+    }
+
+    /**
+     * Create a {@link TileMap} from text rows: '#' is solid, '-' one-way, '/' and '\' the slopes,
+     * any other character is empty.
+     *
+     * @param tileWidth  the tile width in pixels
+     * @param tileHeight the tile height in pixels
+     * @param lines      the rows of tiles, from top to bottom.
+     * @return the new {@link TileMap}.
+     */
+    public static TileMap parse(int tileWidth, int tileHeight, String... lines) {
+        int cols = 0;
+        for (String l : lines) {
+            cols = Math.max(cols, l.length());
+        }
+        TileMap map = new TileMap(tileWidth, tileHeight, cols, lines.length);
+        for (int cy = 0; cy < lines.length; cy++) {
+            for (int cx = 0; cx < lines[cy].length(); cx++) {
+                map.setTile(cx, cy, switch (lines[cy].charAt(cx)) {
+                    case '#' -> SOLID;
+                    case '-' -> ONE_WAY;
+                    case '/' -> SLOPE_UP;
+                    case '\\' -> SLOPE_DOWN;
+                    default -> EMPTY;
+                });
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Move an entity by (dx, dy) through the tiles, first horizontally then vertically. On a solid side,
+     * the entity is stopped against the tile and its velocity bounces according to its elasticity; on a
+     * slope, the entity bottom center is kept on the slope surface. An entity climbing a slope is not
+     * stopped by the solid tiles filling the ramp below the top of its slope tile.
+     *
+     * @param e  the {@link Entity} to be moved.
+     * @param dx the horizontal move
+     * @param dy the vertical move
+     */
+    public void move(Entity<?> e, double dx, double dy) {
+        Vector2d v = e.getVelocity();
+        double elasticity = e.getMaterial().elasticity;
+        double x = e.x + dx, y = e.y;
+
+        // horizontal move: only the solid tiles block. Climbing a slope, the solid tiles under the slope top
+        // are stepped over, the bottom center being kept on the slope surface below.
+        int r0 = row(y, false), r1 = row(y + e.height, true);
+        int sc0 = col(e.x + e.width * 0.5, false), sr0 = row(y + e.height, true);
+        byte under = getTile(sc0, sr0);
+        if ((dx > 0 && under == SLOPE_UP) || (dx < 0 && under == SLOPE_DOWN)) {
+            r1 = Math.min(r1, sr0 - 1);
+        }
+        if (dx > 0) {
+            int c1 = (int) Math.ceil((x + e.width - originX) / tileWidth - EPSILON) - 1;
+            for (int c = (int) Math.ceil((e.x + e.width - originX) / tileWidth - EPSILON); c <= c1; c++) {
+                if (isColumnBlocking(c, r0, r1)) {
+                    x = originX + c * tileWidth - e.width;
+                    v.x = ContactSolver.bounce(v.x, elasticity);
+                    break;
+                }
+            }
+        } else if (dx < 0) {
+            int c1 = (int) Math.floor((x - originX) / tileWidth + EPSILON);
+            for (int c = (int) Math.floor((e.x - originX) / tileWidth + EPSILON) - 1; c >= c1; c--) {
+                if (isColumnBlocking(c, r0, r1)) {
+                    x = originX + (c + 1) * tileWidth;
+                    v.x = ContactSolver.bounce(v.x, elasticity);
+                    break;
+                }
+            }
+        }
+
+        // vertical move: the one-way tiles also block when falling onto them.
+        y += dy;
+        int c0 = col(x, false), c1 = col(x + e.width, true);
+        if (dy > 0) {
+            int last = (int) Math.ceil((y + e.height - originY) / tileHeight - EPSILON) - 1;
+            for (int r = (int) Math.ceil((e.y + e.height - originY) / tileHeight - EPSILON); r <= last; r++) {
+                if (isRowBlocking(c0, c1, r, true)) {
+                    y = originY + r * tileHeight - e.height;
+                    v.y = ContactSolver.bounce(v.y, elasticity);
+                    break;
+                }
+            }
+        } else if (dy < 0) {
+            int last = (int) Math.floor((y - originY) / tileHeight + EPSILON);
+            for (int r = (int) Math.floor((e.y - originY) / tileHeight + EPSILON) - 1; r >= last; r--) {
+                if (isRowBlocking(c0, c1, r, false)) {
+                    y = originY + (r + 1) * tileHeight;
+                    v.y = ContactSolver.bounce(v.y, elasticity);
+                    break;
+                }
+            }
+        }
+
+        // keep the bottom center over the slope surface, looking from the rows crossed by the bottom during the
+        // move (it may fall below the slope tile at the foot of a slope), and from the row above when coming
+        // from a slope (the next slope tile of a ramp is one row up).
+        double bx = x + e.width * 0.5, by = y + e.height;
+        int sc = col(bx, false);
+        boolean fromSlope = under == SLOPE_UP || under == SLOPE_DOWN;
+        int first = Math.min(sr0, row(by, true)) - (fromSlope ? 1 : 0);
+        for (int sr = first; sr <= row(by, true); sr++) {
+            byte tile = getTile(sc, sr);
+            if (tile == SOLID && fromSlope && by > originY + sr * tileHeight) {
+                // stepped from the slope top onto the solid tile ahead.
+                y = originY + sr * tileHeight - e.height;
+                v.y = Math.min(v.y, 0);
+                break;
+            }
+            if (tile == SLOPE_UP || tile == SLOPE_DOWN) {
+                double local = (bx - originX - sc * tileWidth) / tileWidth;
+                double surface = originY + sr * tileHeight + tileHeight * (tile == SLOPE_UP ? 1.0 - local : local);
+                if (by > surface) {
+                    y = surface - e.height;
+                    v.y = Math.min(v.y, 0);
+                }
+                break;
+            }
+        }
+        e.setPosition(x, y);
+    }
+
+    private boolean isColumnBlocking(int c, int r0, int r1) {
+        for (int r = r0; r <= r1; r++) {
+            if (getTile(c, r) == SOLID) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isRowBlocking(int c0, int c1, int r, boolean oneWay) {
+        for (int c = c0; c <= c1; c++) {
+            byte t = getTile(c, r);
+            if (t == SOLID || (oneWay && t == ONE_WAY)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param x   the horizontal position
+     * @param end true if x is the exclusive right side of an area.
+     * @return the column index.
+     */
+    private int col(double x, boolean end) {
+        return (int) Math.floor((x - originX) / tileWidth + (end ? -EPSILON : EPSILON));
+    }
+
+    private int row(double y, boolean end) {
+        return (int) Math.floor((y - originY) / tileHeight + (end ? -EPSILON : EPSILON));
+    }
+
+    /**
+     * @param cx the tile column
+     * @param cy the tile row
+     * @return the tile flag, {@link #EMPTY} outside the map.
+     */
+    public byte getTile(int cx, int cy) {
+        if (cx < 0 || cy < 0 || cx >= cols || cy >= rows) {
+            return EMPTY;
+        }
+        return tiles[cy * cols + cx];
+    }
+
+    public TileMap setTile(int cx, int cy, byte tile) {
+        if (cx >= 0 && cy >= 0 && cx < cols && cy < rows && tiles[cy * cols + cx] != tile) {
+            tiles[cy * cols + cx] = tile;
+            version++;
+        }
+        return this;
+    }
+
+    /**
+     * Fill a rectangle of tiles.
+     *
+     * @param cx   the first column
+     * @param cy   the first row
+     * @param w    the number of columns
+     * @param h    the number of rows
+     * @param tile the tile flag to be set.
+     * @return the updated {@link TileMap}.
+     */
+    public TileMap fill(int cx, int cy, int w, int h, byte tile) {
+        for (int y = cy; y < cy + h; y++) {
+            for (int x = cx; x < cx + w; x++) {
+                setTile(x, y, tile);
+            }
+        }
+        return this;
+    }
+
+    public TileMap setPosition(double x, double y) {
+        this.originX = x;
+        this.originY = y;
+        return this;
+    }
+
+    public double getX() {
+        return originX;
+    }
+
+    public double getY() {
+        return originY;
+    }
+
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    public int getTileHeight() {
+        return tileHeight;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the number of tile changes since the map creation.
+     */
+    public int getVersion() {
+        return version;
+    }
+}
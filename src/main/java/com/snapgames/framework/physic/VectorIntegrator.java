@@ -0,0 +1,95 @@
+package com.snapgames.framework.physic;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * The {@link VectorIntegrator} processes the bodies of a {@link BodyBuffer} by lanes of the preferred
+ * {@link DoubleVector} species, the remaining bodies being processed by a {@link ScalarIntegrator}.
+ * Each operation is the lane-wise version of the scalar one, so both implementations give the same result.
+ * <p>
+ * This class needs the <code>jdk.incubator.vector</code> module at compile and run time; it must only be
+ * created through {@link Integrator#create(boolean)}.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.4
+ */
+public class VectorIntegrator implements Integrator {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private final ScalarIntegrator tail = new ScalarIntegrator();
+
+    @Override
+    public void integrate(BodyBuffer b, int from, int to, double step, int subSteps, Rectangle2D bounds) {
+        double minX = bounds.getX(), minY = bounds.getY();
+        double maxX = bounds.getX() + bounds.getWidth(), maxY = bounds.getY() + bounds.getHeight();
+        int upper = from + SPECIES.loopBound(to - from);
+        int i = from;
+        b.scaleFriction(from, upper, step);
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, b.x, i);
+            DoubleVector y = DoubleVector.fromArray(SPECIES, b.y, i);
+            DoubleVector vx = DoubleVector.fromArray(SPECIES, b.vx, i);
+            DoubleVector vy = DoubleVector.fromArray(SPECIES, b.vy, i);
+            DoubleVector w = DoubleVector.fromArray(SPECIES, b.width, i);
+            DoubleVector h = DoubleVector.fromArray(SPECIES, b.height, i);
+            DoubleVector af = DoubleVector.fromArray(SPECIES, b.stepAreaFriction, i);
+            DoubleVector friction = DoubleVector.fromArray(SPECIES, b.stepFriction, i);
+            DoubleVector e = DoubleVector.fromArray(SPECIES, b.elasticity, i);
+            DoubleVector ax = clamp(DoubleVector.fromArray(SPECIES, b.fx, i), MAX_ACCELERATION);
+            DoubleVector ay = clamp(DoubleVector.fromArray(SPECIES, b.fy, i), MAX_ACCELERATION);
+            DoubleVector dvx = ax.mul(0.5).mul(step);
+            DoubleVector dvy = ay.mul(0.5).mul(step);
+            DoubleVector right = w.neg().add(maxX);
+            DoubleVector bottom = h.neg().add(maxY);
+
+            for (int s = 0; s < subSteps; s++) {
+                vx = clamp(vx.mul(af).add(dvx), MAX_VELOCITY);
+                vy = clamp(vy.mul(af).add(dvy), MAX_VELOCITY);
+                x = x.add(vx.mul(step));
+                y = y.add(vy.mul(step));
+
+                VectorMask<Double> hit = x.compare(VectorOperators.LT, minX);
+                x = x.blend(minX, hit);
+                vx = vx.blend(bounce(vx, e), hit);
+                hit = x.add(w).compare(VectorOperators.GT, maxX);
+                x = x.blend(right, hit);
+                vx = vx.blend(bounce(vx, e), hit);
+
+                hit = y.compare(VectorOperators.LT, minY);
+                y = y.blend(minY, hit);
+                vy = vy.blend(bounce(vy, e), hit);
+                hit = y.add(h).compare(VectorOperators.GT, maxY);
+                y = y.blend(bottom, hit);
+                vy = vy.blend(bounce(vy, e), hit);
+
+                vx = vx.mul(friction);
+                vy = vy.mul(friction);
+            }
+            x.intoArray(b.x, i);
+            y.intoArray(b.y, i);
+            vx.intoArray(b.vx, i);
+            vy.intoArray(b.vy, i);
+            ax.intoArray(b.ax, i);
+            ay.intoArray(b.ay, i);
+        }
+        tail.integrate(b, i, to, step, subSteps, bounds);
+    }
+
+    private static DoubleVector clamp(DoubleVector v, double max) {
+        return v.max(-max).min(max);
+    }
+
+    /**
+     * The lanewise {@link ContactSolver#bounce(double, double)}.
+     */
+    private static DoubleVector bounce(DoubleVector v, DoubleVector elasticity) {
+        return v.neg().mul(elasticity)
+            .blend(0.0, v.abs().compare(VectorOperators.LT, ContactSolver.RESTING_VELOCITY));
+    }
+}
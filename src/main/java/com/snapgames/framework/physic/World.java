@@ -7,6 +7,7 @@ import com.snapgames.framework.physic.math.Vector2d;
 public class World extends Entity<World> {
 
     private Vector2d gravity = new Vector2d();
+    private TileMap tileMap;
 
     public World(String name) {
         super(name);
@@ -28,4 +29,19 @@ public class World extends Entity<World> {
         getChildren().add(a);
         return this;
     }
+
+    /**
+     * Set the static collision layer of this world.
+     *
+     * @param tileMap the {@link TileMap} to be used by the {@link PhysicEngine}, or null to remove it.
+     * @return the updated World.
+     */
+    public World setTileMap(TileMap tileMap) {
+        this.tileMap = tileMap;
+        return this;
+    }
+
+    public TileMap getTileMap() {
+        return tileMap;
+    }
 }
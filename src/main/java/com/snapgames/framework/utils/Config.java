@@ -28,8 +28,44 @@ public class Config extends HashMap<String, Object> implements GSystem {
         put("app.render.window.title", "Test001");
         put("app.render.window.size", new Dimension(640, 400));
         put("app.render.buffer.size", new Dimension(320, 200));
+        put("app.render.particles.raster", true);
+        put("app.render.culling.enabled", true);
+        put("app.render.culling.margin", 16.0);
+        put("app.render.static.enabled", true);
+        put("app.render.static.chunk.size", 256);
+        put("app.render.static.memory.max", 16);
+        put("app.render.backend", "graphics");
+        put("app.render.parallel.bands", 1);
+        put("app.render.parallel.threads", 1);
+        put("app.render.text.cache.enabled", true);
+        put("app.render.text.cache.memory.max", 4);
+        put("app.render.dirty.enabled", false);
+        put("app.render.dirty.regions.max", 8);
+        put("app.render.tilemap.color.solid", Color.GRAY);
+        put("app.render.tilemap.color.oneway", Color.LIGHT_GRAY);
         put("app.physic.world.play.area.size", new Rectangle2D.Double(0, 0, 640, 400));
         put("app.physic.world.gravity", new Point2D.Double(0, -0.981));
+        put("app.physic.substep.duration.max", 20.0);
+        put("app.physic.substep.count.max", 4);
+        put("app.physic.parallel.threads", 1);
+        put("app.physic.parallel.chunk.size", 256);
+        put("app.physic.particles.chunk.size", 8192);
+        put("app.physic.integrator", "object");
+        put("app.physic.forcefield.cell.size", 16.0);
+        put("app.physic.broadphase.cell.size", 64.0);
+        put("app.physic.sleep.velocity", 0.01);
+        put("app.physic.sleep.frames", 30);
+        put("app.physic.solver.iterations", 8);
+        put("app.physic.solver.time.max", 2.0);
+        put("app.physic.regions.enabled", false);
+        put("app.physic.regions.size", 512.0);
+        put("app.physic.regions.margin", 32.0);
+        put("app.physic.regions.deterministic", false);
+        put("app.physic.lod.enabled", true);
+        put("app.physic.lod.full.distance", 400.0);
+        put("app.physic.lod.frozen.distance", 1200.0);
+        put("app.physic.lod.reduced.rate", 4);
+        put("app.physic.lod.profiles", "");
         put("app.scene.default", "");
         put("app.scene.list", "");
     }
@@ -66,6 +102,51 @@ public class Config extends HashMap<String, Object> implements GSystem {
                     String[] values = ((String) e.getValue()).split("x");
                     put("app.render.buffer.size", new Dimension(Integer.parseInt(values[0]), Integer.parseInt(values[1])));
                 }
+                case "app.render.particles.raster" -> {
+                    put("app.render.particles.raster", Boolean.parseBoolean((String) e.getValue()));
+                }
+                case "app.render.culling.enabled" -> {
+                    put("app.render.culling.enabled", Boolean.parseBoolean((String) e.getValue()));
+                }
+                case "app.render.culling.margin" -> {
+                    put("app.render.culling.margin", Double.parseDouble((String) e.getValue()));
+                }
+                case "app.render.static.enabled" -> {
+                    put("app.render.static.enabled", Boolean.parseBoolean((String) e.getValue()));
+                }
+                case "app.render.static.chunk.size" -> {
+                    put("app.render.static.chunk.size", Integer.parseInt((String) e.getValue()));
+                }
+                case "app.render.static.memory.max" -> {
+                    put("app.render.static.memory.max", Integer.parseInt((String) e.getValue()));
+                }
+                case "app.render.backend" -> {
+                    put("app.render.backend", (String) e.getValue());
+                }
+                case "app.render.parallel.bands" -> {
+                    put("app.render.parallel.bands", Integer.parseInt((String) e.getValue()));
+                }
+                case "app.render.parallel.threads" -> {
+                    put("app.render.parallel.threads", Integer.parseInt((String) e.getValue()));
+                }
+                case "app.render.text.cache.enabled" -> {
+                    put("app.render.text.cache.enabled", Boolean.parseBoolean((String) e.getValue()));
+                }
+                case "app.render.text.cache.memory.max" -> {
+                    put("app.render.text.cache.memory.max", Integer.parseInt((String) e.getValue()));
+                }
+                case "app.render.dirty.enabled" -> {
+                    put("app.render.dirty.enabled", Boolean.parseBoolean((String) e.getValue()));
+                }
+                case "app.render.dirty.regions.max" -> {
+                    put("app.render.dirty.regions.max", Integer.parseInt((String) e.getValue()));
+                }
+                case "app.render.tilemap.color.solid" -> {
+                    put("app.render.tilemap.color.solid", Color.decode((String) e.getValue()));
+                }
+                case "app.render.tilemap.color.oneway" -> {
+                    put("app.render.tilemap.color.oneway", Color.decode((String) e.getValue()));
+                }
                 case "app.physic.world.play.area.size" -> {
                     String[] values = ((String) e.getValue()).split("x");
                     put("app.physic.world.play.area.size", new Rectangle2D.Double(0, 0, Double.parseDouble(values[0]), Double.parseDouble(values[1])));
@@ -74,6 +155,69 @@ public class Config extends HashMap<String, Object> implements GSystem {
                     String[] values = ((String) e.getValue()).substring(((String) e.getValue()).indexOf("(") + 1, ((String) e.getValue()).lastIndexOf(")")).split(",");
                     put("app.physic.world.gravity", new Vector2d(Double.parseDouble(values[0]), Double.parseDouble(values[1])));
                 }
+                case "app.physic.substep.duration.max" -> {
+                    put("app.physic.substep.duration.max", Double.parseDouble((String) e.getValue()));
+                }
+                case "app.physic.substep.count.max" -> {
+                    put("app.physic.substep.count.max", Integer.parseInt((String) e.getValue()));
+                }
+                case "app.physic.parallel.threads" -> {
+                    put("app.physic.parallel.threads", Integer.parseInt((String) e.getValue()));
+                }
+                case "app.physic.parallel.chunk.size" -> {
+                    put("app.physic.parallel.chunk.size", Integer.parseInt((String) e.getValue()));
+                }
+                case "app.physic.particles.chunk.size" -> {
+                    put("app.physic.particles.chunk.size", Integer.parseInt((String) e.getValue()));
+                }
+                case "app.physic.integrator" -> {
+                    put("app.physic.integrator", (String) e.getValue());
+                }
+                case "app.physic.forcefield.cell.size" -> {
+                    put("app.physic.forcefield.cell.size", Double.parseDouble((String) e.getValue()));
+                }
+                case "app.physic.broadphase.cell.size" -> {
+                    put("app.physic.broadphase.cell.size", Double.parseDouble((String) e.getValue()));
+                }
+                case "app.physic.sleep.velocity" -> {
+                    put("app.physic.sleep.velocity", Double.parseDouble((String) e.getValue()));
+                }
+                case "app.physic.sleep.frames" -> {
+                    put("app.physic.sleep.frames", Integer.parseInt((String) e.getValue()));
+                }
+                case "app.physic.solver.iterations" -> {
+                    put("app.physic.solver.iterations", Integer.parseInt((String) e.getValue()));
+                }
+                case "app.physic.solver.time.max" -> {
+                    put("app.physic.solver.time.max", Double.parseDouble((String) e.getValue()));
+                }
+                case "app.physic.regions.enabled" -> {
+                    put("app.physic.regions.enabled", Boolean.parseBoolean((String) e.getValue()));
+                }
+                case "app.physic.regions.size" -> {
+                    put("app.physic.regions.size", Double.parseDouble((String) e.getValue()));
+                }
+                case "app.physic.regions.margin" -> {
+                    put("app.physic.regions.margin", Double.parseDouble((String) e.getValue()));
+                }
+                case "app.physic.regions.deterministic" -> {
+                    put("app.physic.regions.deterministic", Boolean.parseBoolean((String) e.getValue()));
+                }
+                case "app.physic.lod.enabled" -> {
+                    put("app.physic.lod.enabled", Boolean.parseBoolean((String) e.getValue()));
+                }
+                case "app.physic.lod.full.distance" -> {
+                    put("app.physic.lod.full.distance", Double.parseDouble((String) e.getValue()));
+                }
+                case "app.physic.lod.frozen.distance" -> {
+                    put("app.physic.lod.frozen.distance", Double.parseDouble((String) e.getValue()));
+                }
+                case "app.physic.lod.reduced.rate" -> {
+                    put("app.physic.lod.reduced.rate", Integer.parseInt((String) e.getValue()));
+                }
+                case "app.physic.lod.profiles" -> {
+                    put("app.physic.lod.profiles", (String) e.getValue());
+                }
                 case "app.scene.default" -> {
                     put("app.scene.default", (String) e.getValue());
                 }
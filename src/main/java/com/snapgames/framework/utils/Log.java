@@ -51,7 +51,7 @@ public class Log {
      */
     public static void log(Class<?> className, LogLevel level, String message, Object... args) {
 
-        if ((level.equals(LogLevel.ERROR) || level.equals(LogLevel.FATAL))) {
+        if (level.equals(LogLevel.WARN) || level.equals(LogLevel.ERROR) || level.equals(LogLevel.FATAL)) {
             System.out.printf("%s %s %s %s %s %s %s%n", LocalDateTime.now(), separator, level, separator, className.getCanonicalName(), separator,
                     message.formatted(args));
         }
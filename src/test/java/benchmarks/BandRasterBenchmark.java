@@ -0,0 +1,109 @@
+package benchmarks;
+
+import com.snapgames.framework.gfx.BandRasterizer;
+import com.snapgames.framework.gfx.BlendMode;
+import com.snapgames.framework.gfx.Raster;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measure the scaling of the {@link BandRasterizer} with the number of threads, on a frame of 10 000 sprites,
+ * 50 000 particles (additive 2x2 rectangles) and 2 000 lines drawn into a 640x400 drawbuffer.
+ * <p>
+ * Each configuration is checked to be pixel-identical to the same frame drawn with a single {@link Raster},
+ * and the time of each band is reported for the last configuration, to check the balance of the bands.
+ * <p>
+ * Usage: <code>java benchmarks.BandRasterBenchmark [nbFrames]</code>
+ */
+public class BandRasterBenchmark {
+
+    private static final int WIDTH = 640, HEIGHT = 400;
+    private static final int NB_SPRITES = 10_000, NB_PARTICLES = 50_000, NB_LINES = 2_000;
+
+    public static void main(String[] args) {
+        int nbFrames = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        BufferedImage sprite = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D sg = sprite.createGraphics();
+        sg.setColor(new Color(255, 200, 0, 96));
+        sg.fillOval(0, 0, 16, 16);
+        sg.setColor(Color.ORANGE);
+        sg.fillOval(2, 2, 12, 12);
+        sg.dispose();
+
+        Random random = new Random(1234);
+        int n = NB_SPRITES + NB_PARTICLES + NB_LINES;
+        int[] x = new int[n], y = new int[n], x2 = new int[n], y2 = new int[n], colors = new int[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = random.nextInt(WIDTH + 16) - 16;
+            y[i] = random.nextInt(HEIGHT + 16) - 16;
+            x2[i] = x[i] + random.nextInt(128) - 64;
+            y2[i] = y[i] + random.nextInt(128) - 64;
+            colors[i] = random.nextInt() | 0x40000000;
+        }
+
+        BufferedImage reference = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Raster raster = new Raster(reference);
+        double sequential = measure(nbFrames, () -> {
+            drawFrame(raster, sprite, x, y, x2, y2, colors);
+        });
+        int[] expected = reference.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH);
+
+        System.out.printf("Band rasterization of %d sprites, %d particles and %d lines in %dx%d, %d frames, %d cores%n",
+                NB_SPRITES, NB_PARTICLES, NB_LINES, WIDTH, HEIGHT, nbFrames, cores);
+        System.out.printf("%8s | %8s | %12s | %8s | %s%n", "bands", "threads", "ms/frame", "speedup", "identical");
+        System.out.printf("%8s | %8d | %12.3f | %8s | %s%n", "raster", 1, sequential, "1.00x", "-");
+        BandRasterizer last = null;
+        for (int threads : new int[]{1, 2, 4, 8}) {
+            BufferedImage drawbuffer = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+            int nbBands = Math.max(4, 2 * threads);
+            BandRasterizer bands = new BandRasterizer(drawbuffer, nbBands).setParallelism(threads);
+            double time = measure(nbFrames, () -> {
+                drawFrame(bands, sprite, x, y, x2, y2, colors);
+                bands.flush();
+            });
+            boolean identical = Arrays.equals(expected, drawbuffer.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH));
+            System.out.printf("%8d | %8d | %12.3f | %7.2fx | %s%n", nbBands, threads, time, sequential / time, identical);
+            if (last != null) {
+                last.dispose();
+            }
+            last = bands;
+        }
+
+        System.out.printf("%nPer band time of the last configuration (ms/frame)%n");
+        for (int b = 0; b < last.getBandCount(); b++) {
+            System.out.printf("%8d | %12.3f%n", b, last.getBandTime(b) / (nbFrames + nbFrames / 4));
+        }
+        last.dispose();
+    }
+
+    private static void drawFrame(Raster r, BufferedImage sprite, int[] x, int[] y, int[] x2, int[] y2, int[] colors) {
+        r.clear(0);
+        int i = 0;
+        for (; i < NB_SPRITES; i++) {
+            r.drawImage(sprite, x[i], y[i]);
+        }
+        for (; i < NB_SPRITES + NB_PARTICLES; i++) {
+            r.fillRect(x[i], y[i], 2, 2, colors[i], BlendMode.ADDITIVE);
+        }
+        for (; i < x.length; i++) {
+            r.drawLine(x[i], y[i], x2[i], y2[i], colors[i], BlendMode.ALPHA);
+        }
+    }
+
+    private static double measure(int nbFrames, Runnable frame) {
+        // warm up
+        for (int i = 0; i < nbFrames / 4; i++) {
+            frame.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < nbFrames; i++) {
+            frame.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / nbFrames;
+    }
+}
@@ -0,0 +1,18 @@
+package benchmarks;
+
+import com.snapgames.framework.scene.AbstractScene;
+
+/**
+ * An empty {@link AbstractScene} used by the benchmarks: entities are directly added by the benchmark code,
+ * without any running {@link com.snapgames.framework.Game}.
+ */
+public class BenchmarkScene extends AbstractScene {
+
+    public BenchmarkScene(String name) {
+        super(null, name);
+    }
+
+    @Override
+    public void create() {
+    }
+}
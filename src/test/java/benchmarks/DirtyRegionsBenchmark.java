@@ -0,0 +1,98 @@
+package benchmarks;
+
+import com.snapgames.framework.entity.GameObject;
+import com.snapgames.framework.gfx.DirtyRegions;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compare a full redraw of a 320x200 drawbuffer against the redraw of the {@link DirtyRegions} only, on a
+ * frame of 2 000 still rectangles and a few moving ones (1 pixel per frame), with Graphics2D.
+ * <p>
+ * The regions are drawn like the Renderer does: with the drawbuffer clipped to them, drawing again the
+ * rectangles overlapping them. Each frame of the dirty redraw is checked to be pixel-identical to the full redraw.
+ * <p>
+ * Usage: <code>java benchmarks.DirtyRegionsBenchmark [nbFrames]</code>
+ */
+public class DirtyRegionsBenchmark {
+
+    private static final int WIDTH = 320, HEIGHT = 200, NB_STILL = 2_000;
+
+    public static void main(String[] args) {
+        int nbFrames = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        System.out.printf("Redraw of %d still rectangles and a few moving ones in %dx%d, %d frames%n",
+                NB_STILL, WIDTH, HEIGHT, nbFrames);
+        System.out.printf("%8s | %10s | %10s | %8s | %8s | %s%n",
+                "moving", "full ms", "dirty ms", "speedup", "dirty %", "identical");
+        for (int nbMoving : new int[]{1, 4, 16, 64}) {
+            GameObject[] objects = createObjects(NB_STILL + nbMoving);
+            BufferedImage full = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+            BufferedImage partial = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+            DirtyRegions dirty = new DirtyRegions();
+            double fullTime = 0, dirtyTime = 0, ratio = 0;
+            boolean identical = true;
+            for (int f = 0; f < nbFrames + nbFrames / 4; f++) {
+                for (int i = NB_STILL; i < objects.length; i++) {
+                    GameObject o = objects[i];
+                    o.setPosition((o.x + 1) % WIDTH, o.y);
+                }
+                long start = System.nanoTime();
+                draw(full, objects, null);
+                long middle = System.nanoTime();
+                dirty.begin(WIDTH, HEIGHT);
+                for (GameObject o : objects) {
+                    dirty.track(o, (int) o.x - 2, (int) o.y - 2, (int) (o.x + o.width) + 2, (int) (o.y + o.height) + 2,
+                            o.getFillColor().getRGB());
+                }
+                dirty.end();
+                for (int r = 0; r < dirty.getRegionCount(); r++) {
+                    draw(partial, objects, dirty.getRegion(r));
+                }
+                long end = System.nanoTime();
+                // warm up
+                if (f >= nbFrames / 4) {
+                    fullTime += (middle - start) / 1_000_000.0;
+                    dirtyTime += (end - middle) / 1_000_000.0;
+                    ratio += dirty.getDirtyRatio();
+                    identical &= Arrays.equals(full.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH),
+                            partial.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH));
+                }
+            }
+            System.out.printf("%8d | %10.3f | %10.3f | %7.2fx | %7.1f%% | %s%n", nbMoving, fullTime / nbFrames,
+                    dirtyTime / nbFrames, fullTime / dirtyTime, ratio / nbFrames * 100, identical);
+        }
+    }
+
+    private static GameObject[] createObjects(int nb) {
+        Random random = new Random(1234);
+        GameObject[] objects = new GameObject[nb];
+        for (int i = 0; i < nb; i++) {
+            objects[i] = new GameObject("o_" + i)
+                    .setSize(4 + random.nextInt(12), 4 + random.nextInt(12))
+                    .setPosition(random.nextInt(WIDTH), random.nextInt(HEIGHT))
+                    .setFillColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256)));
+        }
+        return objects;
+    }
+
+    private static void draw(BufferedImage drawbuffer, GameObject[] objects, Rectangle clip) {
+        Graphics2D g = drawbuffer.createGraphics();
+        g.setRenderingHints(Map.of(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON));
+        g.setClip(clip);
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        for (GameObject o : objects) {
+            if (clip != null && !o.intersects(clip.x - 1, clip.y - 1, clip.width + 2, clip.height + 2)) {
+                continue;
+            }
+            g.setColor(o.getFillColor());
+            g.fill(o);
+        }
+        g.dispose();
+    }
+}
@@ -0,0 +1,99 @@
+package benchmarks;
+
+import com.snapgames.framework.entity.*;
+import com.snapgames.framework.gfx.EntityRendererRegistry;
+
+import java.util.Random;
+
+/**
+ * Compare the cost of selecting the drawing code of an entity: the former string switch on
+ * <code>getClass().getSimpleName()</code> against the {@link EntityRendererRegistry} resolved once per class.
+ * <p>
+ * The entities are a random mix of the framework entity classes, plus a <code>GameObject</code> subclass
+ * which the string switch can not draw, and the registry draws with the <code>GameObject</code> renderer.
+ * The "drawing" code only counts the calls.
+ * <p>
+ * Usage: <code>java benchmarks.EntityDispatchBenchmark [nbEntities] [nbFrames]</code>
+ */
+public class EntityDispatchBenchmark {
+
+    private static class Ship extends GameObject {
+        Ship(String name) {
+            super(name);
+        }
+    }
+
+    private static final int[] calls = new int[7];
+
+    public static void main(String[] args) {
+        int nbEntities = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int nbFrames = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        Random random = new Random(1234);
+        Entity<?>[] entities = new Entity<?>[nbEntities];
+        for (int i = 0; i < nbEntities; i++) {
+            entities[i] = switch (random.nextInt(7)) {
+                case 0 -> new GameObject("go_" + i);
+                case 1 -> new WorldArea("area_" + i);
+                case 2 -> new TextObject("text_" + i);
+                case 3 -> new GridObject("grid_" + i);
+                case 4 -> new GaugeObject("gauge_" + i);
+                case 5 -> new ParticlesObject("particles_" + i, 1, 1);
+                default -> new Ship("ship_" + i);
+            };
+        }
+
+        EntityRendererRegistry registry = new EntityRendererRegistry()
+                .register(GameObject.class, (g, scene, e) -> calls[0]++)
+                .register(WorldArea.class, (g, scene, e) -> calls[1]++)
+                .register(TextObject.class, (g, scene, e) -> calls[2]++)
+                .register(GridObject.class, (g, scene, e) -> calls[3]++)
+                .register(GaugeObject.class, (g, scene, e) -> calls[4]++)
+                .register(ParticlesObject.class, (g, scene, e) -> calls[5]++);
+
+        System.out.printf("Dispatch of %d entities over %d frames%n", nbEntities, nbFrames);
+        System.out.printf("%14s | %12s | %10s%n", "dispatch", "ns/entity", "unknown");
+
+        double time = measure(nbFrames, () -> {
+            for (Entity<?> e : entities) {
+                stringSwitch(e);
+            }
+        }) / nbEntities;
+        System.out.printf("%14s | %12.2f | %10d%n", "string switch", time, calls[6] / (nbFrames + nbFrames / 4));
+
+        java.util.Arrays.fill(calls, 0);
+        time = measure(nbFrames, () -> {
+            for (Entity<?> e : entities) {
+                registry.get(e.getClass()).draw(null, null, e);
+            }
+        }) / nbEntities;
+        System.out.printf("%14s | %12.2f | %10d%n", "registry", time, calls[6] / (nbFrames + nbFrames / 4));
+    }
+
+    /**
+     * The dispatch formerly used by the Renderer.
+     */
+    private static void stringSwitch(Entity<?> e) {
+        switch (e.getClass().getSimpleName()) {
+            case "GameObject" -> calls[0]++;
+            case "WorldArea" -> calls[1]++;
+            case "TextObject" -> calls[2]++;
+            case "GridObject" -> calls[3]++;
+            case "GaugeObject" -> calls[4]++;
+            case "ParticlesObject" -> calls[5]++;
+            default -> calls[6]++;
+        }
+    }
+
+    private static double measure(int nbFrames, Runnable frame) {
+        // warm up
+        for (int i = 0; i < nbFrames / 4; i++) {
+            frame.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < nbFrames; i++) {
+            frame.run();
+        }
+        return (System.nanoTime() - start) / (double) nbFrames;
+    }
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import com.snapgames.framework.io.ResourceManager;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Measure the blit throughput of the background images into a 320x200 <code>TYPE_INT_ARGB</code> drawbuffer
+ * (like the Renderer one), as read by ImageIO and as converted by the {@link ResourceManager}.
+ * <p>
+ * Usage: <code>java benchmarks.ImageBlitBenchmark [nbBlits]</code>
+ */
+public class ImageBlitBenchmark {
+
+    private static final String[] BACKGROUNDS = {
+            "/assets/images/backgrounds/forest.jpg",
+            "/assets/images/backgrounds/ruins.png",
+            "/assets/images/backgrounds/volcano.png"};
+
+    public static void main(String[] args) throws IOException {
+        int nbBlits = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        BufferedImage drawbuffer = new BufferedImage(320, 200, BufferedImage.TYPE_INT_ARGB);
+
+        System.out.printf("Blit of the backgrounds into a 320x200 drawbuffer, %d blits%n", nbBlits);
+        System.out.printf("%12s | %10s | %16s | %12s | %12s%n", "image", "loader", "type", "us/blit", "blits/s");
+        for (String path : BACKGROUNDS) {
+            String name = path.substring(path.lastIndexOf('/') + 1);
+            BufferedImage raw = ImageIO.read(ImageBlitBenchmark.class.getResourceAsStream(path));
+            BufferedImage converted = ResourceManager.get(path);
+            for (BufferedImage image : new BufferedImage[]{raw, converted}) {
+                double time = blit(drawbuffer, image, nbBlits);
+                System.out.printf("%12s | %10s | %16s | %12.2f | %12.0f%n", name,
+                        image == raw ? "ImageIO" : "Resource", typeName(image.getType()), time, 1_000_000 / time);
+            }
+        }
+    }
+
+    private static double blit(BufferedImage drawbuffer, BufferedImage image, int nbBlits) {
+        Graphics2D g = drawbuffer.createGraphics();
+        // warm up
+        for (int i = 0; i < nbBlits / 4; i++) {
+            g.drawImage(image, -(i % 64), 0, null);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < nbBlits; i++) {
+            g.drawImage(image, -(i % 64), 0, null);
+        }
+        double time = (System.nanoTime() - start) / 1000.0 / nbBlits;
+        g.dispose();
+        return time;
+    }
+
+    private static String typeName(int type) {
+        return switch (type) {
+            case BufferedImage.TYPE_INT_RGB -> "INT_RGB";
+            case BufferedImage.TYPE_INT_ARGB -> "INT_ARGB";
+            case BufferedImage.TYPE_INT_ARGB_PRE -> "INT_ARGB_PRE";
+            case BufferedImage.TYPE_3BYTE_BGR -> "3BYTE_BGR";
+            case BufferedImage.TYPE_4BYTE_ABGR -> "4BYTE_ABGR";
+            case BufferedImage.TYPE_BYTE_INDEXED -> "BYTE_INDEXED";
+            case BufferedImage.TYPE_CUSTOM -> "CUSTOM";
+            default -> "type " + type;
+        };
+    }
+}
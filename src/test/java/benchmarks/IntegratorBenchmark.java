@@ -0,0 +1,117 @@
+package benchmarks;
+
+import com.snapgames.framework.entity.Entity;
+import com.snapgames.framework.entity.GameObject;
+import com.snapgames.framework.entity.WorldArea;
+import com.snapgames.framework.physic.BodyBuffer;
+import com.snapgames.framework.physic.ForceFieldGrid;
+import com.snapgames.framework.physic.Integrator;
+import com.snapgames.framework.physic.Material;
+import com.snapgames.framework.physic.PhysicEngine;
+import com.snapgames.framework.physic.World;
+import com.snapgames.framework.physic.math.Vector2d;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measure the single core throughput of the {@link PhysicEngine} integration modes ("object", "packed" and
+ * "vector") for a large number of dynamic entities, for the whole update and for the {@link Integrator}
+ * kernel alone, and check the packed and vector integrators give bit-identical results.
+ * <p>
+ * Usage: <code>java --add-modules jdk.incubator.vector benchmarks.IntegratorBenchmark [nbBodies] [nbFrames]</code>
+ * (the vector kernels are only built with <code>project.build.vector=true</code> in <code>build.properties</code>).
+ */
+public class IntegratorBenchmark {
+
+    private static final double FRAME_TIME = 16.0;
+
+    public static void main(String[] args) {
+        int nbBodies = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int nbFrames = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        System.out.printf("PhysicEngine update of %d bodies over %d frames (1 thread)%n", nbBodies, nbFrames);
+        System.out.printf("%8s | %12s | %16s%n", "mode", "ms/frame", "Mbodies/s/core");
+        BenchmarkScene packed = null, vector = null;
+        for (String mode : new String[]{"object", "packed", "vector"}) {
+            BenchmarkScene scene = createScene(nbBodies);
+            PhysicEngine engine = new PhysicEngine(null).setIntegrator(mode);
+            // warm up
+            run(engine, createScene(nbBodies), nbFrames / 4);
+            double time = run(engine, scene, nbFrames);
+            System.out.printf("%8s | %12.3f | %16.2f%n", mode, time, nbBodies / time / 1000.0);
+            if (mode.equals("packed")) {
+                packed = scene;
+            } else if (mode.equals("vector")) {
+                vector = scene;
+            }
+        }
+        System.out.printf("packed/vector bit-identical: %s%n%n", isIdentical(packed, vector));
+
+        System.out.printf("Integrator kernel only, %d bodies, 1 sub-step%n", nbBodies);
+        System.out.printf("%8s | %12s | %16s%n", "kernel", "ms/frame", "Mbodies/s/core");
+        for (boolean vectorized : new boolean[]{false, true}) {
+            Integrator integrator = Integrator.create(vectorized);
+            BenchmarkScene scene = createScene(nbBodies);
+            List<Entity<?>> bodies = new ArrayList<>(scene.getEntities().values());
+            BodyBuffer buffer = new BodyBuffer(nbBodies);
+            ForceFieldGrid field = new ForceFieldGrid();
+            field.update(scene.getWorld());
+            buffer.gather(bodies, scene.getWorld(), field);
+            for (int i = 0; i < nbFrames / 4; i++) {
+                integrator.integrate(buffer, 0, buffer.size(), FRAME_TIME, 1, scene.getWorld());
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < nbFrames; i++) {
+                integrator.integrate(buffer, 0, buffer.size(), FRAME_TIME, 1, scene.getWorld());
+            }
+            double time = (System.nanoTime() - start) / 1_000_000.0 / nbFrames;
+            System.out.printf("%8s | %12.3f | %16.2f%n",
+                integrator.getClass().getSimpleName().replace("Integrator", "").toLowerCase(),
+                time, nbBodies / time / 1000.0);
+        }
+    }
+
+    private static double run(PhysicEngine engine, BenchmarkScene scene, int nbFrames) {
+        long start = System.nanoTime();
+        for (int i = 0; i < nbFrames; i++) {
+            engine.update(scene, FRAME_TIME);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / Math.max(1, nbFrames);
+    }
+
+    private static BenchmarkScene createScene(int nbBodies) {
+        Random random = new Random(1234);
+        BenchmarkScene scene = new BenchmarkScene("bench");
+        World world = new World("world", new Vector2d(0, -0.981)).setSize(4000, 4000);
+        WorldArea water = new WorldArea("water")
+            .setSize(4000, 500)
+            .setPosition(0, 3500)
+            .setMaterial(new Material("water", 1.0, 0.67, 0.32))
+            .addForce(0.02, -0.21);
+        world.add(water);
+        scene.setWorld(world);
+        for (int i = 0; i < nbBodies; i++) {
+            scene.add(new GameObject("body_" + i)
+                .setSize(4, 4)
+                .setPosition(random.nextDouble() * 3996, random.nextDouble() * 3996)
+                .setVelocity(random.nextDouble() - 0.5, random.nextDouble() - 0.5)
+                .setMaterial(new Material("ball_mat", 1.0, 0.7 + random.nextDouble() * 0.3, 0.8)));
+        }
+        return scene;
+    }
+
+    private static boolean isIdentical(BenchmarkScene reference, BenchmarkScene scene) {
+        for (Entity<?> r : reference.getEntities().values()) {
+            Entity<?> e = scene.getEntities().get(r.getName());
+            if (Double.doubleToLongBits(r.x) != Double.doubleToLongBits(e.x)
+                || Double.doubleToLongBits(r.y) != Double.doubleToLongBits(e.y)
+                || Double.doubleToLongBits(r.getVelocity().x) != Double.doubleToLongBits(e.getVelocity().x)
+                || Double.doubleToLongBits(r.getVelocity().y) != Double.doubleToLongBits(e.getVelocity().y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,157 @@
+package benchmarks;
+
+import com.snapgames.framework.entity.GameObject;
+import com.snapgames.framework.entity.ParticleBuffer;
+import com.snapgames.framework.entity.ParticlesObject;
+import com.snapgames.framework.gfx.BlendMode;
+import com.snapgames.framework.gfx.Raster;
+import com.snapgames.framework.physic.Material;
+import com.snapgames.framework.physic.PhysicEngine;
+import com.snapgames.framework.physic.PhysicType;
+import com.snapgames.framework.physic.World;
+import com.snapgames.framework.physic.math.Vector2d;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measure the {@link PhysicEngine} update time of 100 000 live particles, first as one {@link ParticlesObject}
+ * emitter (packed arrays), then as 100 000 {@link GameObject} entities, against the 16.6 ms of a 60 FPS frame.
+ * <p>
+ * The emitter update is then run on 2, 4 and 8 threads (checking the particles are bit-identical to the
+ * sequential update), and the particles are drawn into a 320x200 drawbuffer with Graphics2D and with the
+ * {@link Raster} in alpha and additive modes.
+ * <p>
+ * Usage: <code>java benchmarks.ParticleBenchmark [nbParticles] [nbFrames]</code>
+ */
+public class ParticleBenchmark {
+
+    private static final double FRAME_TIME = 16.0;
+
+    public static void main(String[] args) {
+        int nbParticles = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int nbFrames = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        System.out.printf("PhysicEngine update of %d particles over %d frames%n", nbParticles, nbFrames);
+        System.out.printf("%10s | %8s | %12s | %10s | %s%n", "storage", "threads", "ms/frame", "live", "bit-identical");
+
+        BenchmarkScene reference = createEmitterScene(nbParticles);
+        double time = run(new PhysicEngine(null), reference, nbFrames);
+        ParticleBuffer expected = getEmitter(reference).getParticles();
+        System.out.printf("%10s | %8d | %12.3f | %10d | %s%n", "packed", 1, time, expected.size(), "-");
+        for (int threads : new int[]{2, 4, 8}) {
+            BenchmarkScene scene = createEmitterScene(nbParticles);
+            PhysicEngine engine = new PhysicEngine(null).setParallelism(threads);
+            time = run(engine, scene, nbFrames);
+            engine.dispose();
+            ParticleBuffer result = getEmitter(scene).getParticles();
+            System.out.printf("%10s | %8d | %12.3f | %10d | %s%n", "packed", threads, time, result.size(),
+                    isIdentical(expected, result));
+        }
+
+        BenchmarkScene scene = new BenchmarkScene("entities");
+        scene.setWorld(new World("world", new Vector2d(0, -0.981)).setSize(4000, 4000));
+        Random random = new Random(1234);
+        for (int i = 0; i < nbParticles; i++) {
+            scene.add(new GameObject("particle_" + i)
+                    .setSize(2, 2)
+                    .setPosition(1950 + random.nextDouble() * 100, 1950 + random.nextDouble() * 100)
+                    .setVelocity(random.nextDouble() * 0.2 - 0.1, random.nextDouble() * 0.2 - 0.1)
+                    .setMaterial(new Material("particle", 1.0, 1.0, 1.0))
+                    .setSolid(false));
+        }
+        time = run(new PhysicEngine(null), scene, nbFrames);
+        System.out.printf("%10s | %8d | %12.3f | %10d | %s%n", "entities", 1, time, scene.getEntities().size(), "-");
+
+        draw(getEmitter(reference), nbFrames);
+    }
+
+    private static BenchmarkScene createEmitterScene(int nbParticles) {
+        BenchmarkScene scene = new BenchmarkScene("particles");
+        scene.setWorld(new World("world", new Vector2d(0, -0.981)).setSize(4000, 4000));
+        // particles live longer than the benchmark, and are emitted again as they die.
+        ParticlesObject emitter = new ParticlesObject("emitter", nbParticles, 1_000_000)
+                .setEmitRate(nbParticles)
+                .setDirection(-90).setSpread(360)
+                .setSpeed(0.01, 0.1)
+                .setGravity(0, 0.00001)
+                .setColors(new Color(255, 200, 64, 128), new Color(255, 96, 32, 200))
+                .setSeed(1234)
+                .setSize(100, 100)
+                .setPosition(1950, 1950)
+                .setPhysicType(PhysicType.STATIC);
+        emitter.burst(nbParticles);
+        scene.add(emitter);
+        return scene;
+    }
+
+    private static ParticlesObject getEmitter(BenchmarkScene scene) {
+        return (ParticlesObject) scene.getEntities().get("emitter");
+    }
+
+    private static double run(PhysicEngine engine, BenchmarkScene scene, int nbFrames) {
+        // warm up
+        for (int i = 0; i < nbFrames / 4; i++) {
+            engine.update(scene, FRAME_TIME);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < nbFrames; i++) {
+            engine.update(scene, FRAME_TIME);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / nbFrames;
+    }
+
+    private static boolean isIdentical(ParticleBuffer a, ParticleBuffer b) {
+        return a.size() == b.size()
+                && Arrays.equals(a.x, 0, a.size(), b.x, 0, b.size())
+                && Arrays.equals(a.y, 0, a.size(), b.y, 0, b.size())
+                && Arrays.equals(a.vx, 0, a.size(), b.vx, 0, b.size())
+                && Arrays.equals(a.vy, 0, a.size(), b.vy, 0, b.size());
+    }
+
+    /**
+     * Draw the particles centered in a 320x200 drawbuffer, like the Renderer does with the camera translation.
+     */
+    private static void draw(ParticlesObject emitter, int nbFrames) {
+        BufferedImage drawbuffer = new BufferedImage(320, 200, BufferedImage.TYPE_INT_ARGB);
+        ParticleBuffer p = emitter.getParticles();
+        System.out.printf("%nDrawing %d particles into a 320x200 drawbuffer%n", p.size());
+        System.out.printf("%16s | %12s%n", "path", "ms/frame");
+
+        Color[] colors = emitter.getColors();
+        long start = 0;
+        for (int f = -nbFrames / 4; f < nbFrames; f++) {
+            if (f == 0) {
+                start = System.nanoTime();
+            }
+            Graphics2D g = drawbuffer.createGraphics();
+            g.translate(160 - 2000, 100 - 2000);
+            for (int i = 0; i < p.size(); i++) {
+                g.setColor(colors[p.color[i]]);
+                int s = Math.max(1, (int) p.size[i]);
+                g.fillRect((int) p.x[i], (int) p.y[i], s, s);
+            }
+            g.dispose();
+        }
+        System.out.printf("%16s | %12.3f%n", "graphics", (System.nanoTime() - start) / 1_000_000.0 / nbFrames);
+
+        Raster raster = new Raster(drawbuffer);
+        raster.setTranslation(160 - 2000, 100 - 2000);
+        int[] palette = emitter.getPalette();
+        for (BlendMode mode : BlendMode.values()) {
+            for (int f = -nbFrames / 4; f < nbFrames; f++) {
+                if (f == 0) {
+                    start = System.nanoTime();
+                }
+                for (int i = 0; i < p.size(); i++) {
+                    int s = Math.max(1, (int) p.size[i]);
+                    raster.fillRect((int) p.x[i], (int) p.y[i], s, s, palette[p.color[i]], mode);
+                }
+            }
+            System.out.printf("%16s | %12.3f%n", "raster " + mode.name().toLowerCase(),
+                    (System.nanoTime() - start) / 1_000_000.0 / nbFrames);
+        }
+    }
+}
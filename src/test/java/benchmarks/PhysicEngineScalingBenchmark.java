@@ -0,0 +1,91 @@
+package benchmarks;
+
+import com.snapgames.framework.entity.Entity;
+import com.snapgames.framework.entity.GameObject;
+import com.snapgames.framework.entity.WorldArea;
+import com.snapgames.framework.physic.Material;
+import com.snapgames.framework.physic.PhysicEngine;
+import com.snapgames.framework.physic.World;
+import com.snapgames.framework.physic.math.Vector2d;
+
+import java.util.Random;
+
+/**
+ * Measure the {@link PhysicEngine} integration time per frame for a large number of dynamic entities
+ * with 1, 2, 4 and 8 threads, and check the parallel results are bit-identical to the sequential ones.
+ * <p>
+ * Usage: <code>java benchmarks.PhysicEngineScalingBenchmark [nbBodies] [nbFrames]</code>
+ */
+public class PhysicEngineScalingBenchmark {
+
+    private static final double FRAME_TIME = 16.0;
+
+    public static void main(String[] args) {
+        int nbBodies = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int nbFrames = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        BenchmarkScene reference = createScene(nbBodies);
+        run(new PhysicEngine(null).setParallelism(1), reference, nbFrames);
+
+        System.out.printf("PhysicEngine integration of %d bodies over %d frames%n", nbBodies, nbFrames);
+        System.out.printf("%8s | %12s | %8s | %s%n", "threads", "ms/frame", "speedup", "bit-identical");
+        double base = 0;
+        for (int threads : new int[]{1, 2, 4, 8}) {
+            BenchmarkScene scene = createScene(nbBodies);
+            PhysicEngine engine = new PhysicEngine(null).setParallelism(threads);
+            double time = run(engine, scene, nbFrames);
+            engine.dispose();
+            if (threads == 1) {
+                base = time;
+            }
+            System.out.printf("%8d | %12.3f | %8.2f | %s%n", threads, time, base / time, isIdentical(reference, scene));
+        }
+    }
+
+    private static double run(PhysicEngine engine, BenchmarkScene scene, int nbFrames) {
+        long start = System.nanoTime();
+        for (int i = 0; i < nbFrames; i++) {
+            engine.update(scene, FRAME_TIME);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / nbFrames;
+    }
+
+    private static BenchmarkScene createScene(int nbBodies) {
+        Random random = new Random(1234);
+        BenchmarkScene scene = new BenchmarkScene("bench");
+        World world = new World("world", new Vector2d(0, -0.981)).setSize(4000, 4000);
+        WorldArea water = new WorldArea("water")
+            .setSize(4000, 500)
+            .setPosition(0, 3500)
+            .setMaterial(new Material("water", 1.0, 0.67, 0.32))
+            .addForce(0.02, -0.21);
+        WorldArea sky = new WorldArea("sky")
+            .setSize(4000, 3500)
+            .setPosition(0, 0)
+            .addForce(0.01, 0.0);
+        world.add(water);
+        world.add(sky);
+        scene.setWorld(world);
+        for (int i = 0; i < nbBodies; i++) {
+            scene.add(new GameObject("body_" + i)
+                .setSize(4, 4)
+                .setPosition(random.nextDouble() * 3996, random.nextDouble() * 3996)
+                .setVelocity(random.nextDouble() - 0.5, random.nextDouble() - 0.5)
+                .setMaterial(new Material("ball_mat", 1.0, 0.7 + random.nextDouble() * 0.3, 0.8)));
+        }
+        return scene;
+    }
+
+    private static boolean isIdentical(BenchmarkScene reference, BenchmarkScene scene) {
+        for (Entity<?> r : reference.getEntities().values()) {
+            Entity<?> e = scene.getEntities().get(r.getName());
+            if (Double.doubleToLongBits(r.x) != Double.doubleToLongBits(e.x)
+                || Double.doubleToLongBits(r.y) != Double.doubleToLongBits(e.y)
+                || Double.doubleToLongBits(r.getVelocity().x) != Double.doubleToLongBits(e.getVelocity().x)
+                || Double.doubleToLongBits(r.getVelocity().y) != Double.doubleToLongBits(e.getVelocity().y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
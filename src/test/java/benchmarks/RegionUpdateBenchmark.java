@@ -0,0 +1,99 @@
+package benchmarks;
+
+import com.snapgames.framework.behaviors.Behavior;
+import com.snapgames.framework.entity.Entity;
+import com.snapgames.framework.entity.GameObject;
+import com.snapgames.framework.physic.Material;
+import com.snapgames.framework.physic.PhysicEngine;
+import com.snapgames.framework.physic.World;
+import com.snapgames.framework.physic.math.Vector2d;
+
+import java.util.Random;
+
+/**
+ * Measure the {@link PhysicEngine} update throughput (integration and behaviors) of a very large world, with the
+ * sequential update and with the region update on 1, 2, 4 and 8 threads, and check the parallel region update
+ * gives bit-identical results to the deterministic region update.
+ * <p>
+ * Usage: <code>java benchmarks.RegionUpdateBenchmark [nbEntities] [nbFrames]</code>
+ */
+public class RegionUpdateBenchmark {
+
+    private static final double FRAME_TIME = 16.0;
+
+    /**
+     * A wandering behavior with some local computation, only writing its own entity.
+     */
+    private static class Wander implements Behavior<Entity<?>> {
+        @Override
+        public void update(Entity<?> e, double elapsed) {
+            double a = 0;
+            for (int i = 1; i <= 16; i++) {
+                a += Math.sin(e.x * 0.01 * i) * Math.cos(e.y * 0.01 * i) / i;
+            }
+            e.addForce(Math.cos(a) * 0.001, Math.sin(a) * 0.001);
+        }
+    }
+
+    public static void main(String[] args) {
+        int nbEntities = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int nbFrames = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        BenchmarkScene reference = createScene(nbEntities);
+        PhysicEngine deterministic = new PhysicEngine(null).setRegionMode(true).setParallelism(4);
+        deterministic.getRegions().setDeterministic(true);
+        run(deterministic, reference, nbFrames);
+        deterministic.dispose();
+
+        System.out.printf("PhysicEngine update of %d entities over %d frames%n", nbEntities, nbFrames);
+        System.out.printf("%12s | %8s | %12s | %14s | %s%n", "mode", "threads", "ms/frame", "Mentities/s", "bit-identical");
+        BenchmarkScene scene = createScene(nbEntities);
+        double time = run(new PhysicEngine(null), scene, nbFrames);
+        System.out.printf("%12s | %8d | %12.3f | %14.2f | %s%n", "sequential", 1, time, nbEntities / time / 1000.0, "-");
+        for (int threads : new int[]{1, 2, 4, 8}) {
+            scene = createScene(nbEntities);
+            PhysicEngine engine = new PhysicEngine(null).setRegionMode(true).setParallelism(threads);
+            time = run(engine, scene, nbFrames);
+            engine.dispose();
+            System.out.printf("%12s | %8d | %12.3f | %14.2f | %s%n", "regions", threads, time,
+                nbEntities / time / 1000.0, isIdentical(reference, scene));
+        }
+    }
+
+    private static double run(PhysicEngine engine, BenchmarkScene scene, int nbFrames) {
+        long start = System.nanoTime();
+        for (int i = 0; i < nbFrames; i++) {
+            engine.update(scene, FRAME_TIME);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / nbFrames;
+    }
+
+    private static BenchmarkScene createScene(int nbEntities) {
+        Random random = new Random(1234);
+        BenchmarkScene scene = new BenchmarkScene("bench");
+        World world = new World("world", new Vector2d(0, -0.981)).setSize(16000, 16000);
+        scene.setWorld(world);
+        for (int i = 0; i < nbEntities; i++) {
+            scene.add(new GameObject("entity_" + i)
+                .setSize(4, 4)
+                .setPosition(random.nextDouble() * 15996, random.nextDouble() * 15996)
+                .setVelocity(random.nextDouble() - 0.5, random.nextDouble() - 0.5)
+                .setMaterial(new Material("mat", 1.0, 0.95, 0.8))
+                .add(new Wander()));
+        }
+        return scene;
+    }
+
+    private static boolean isIdentical(BenchmarkScene reference, BenchmarkScene scene) {
+        for (Entity<?> r : reference.getEntities().values()) {
+            Entity<?> e = scene.getEntities().get(r.getName());
+            if (Double.doubleToLongBits(r.x) != Double.doubleToLongBits(e.x)
+                || Double.doubleToLongBits(r.y) != Double.doubleToLongBits(e.y)
+                || Double.doubleToLongBits(r.getVelocity().x) != Double.doubleToLongBits(e.getVelocity().x)
+                || Double.doubleToLongBits(r.getVelocity().y) != Double.doubleToLongBits(e.getVelocity().y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,123 @@
+package benchmarks;
+
+import com.snapgames.framework.gfx.BlendMode;
+import com.snapgames.framework.gfx.Raster;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compare the two render backends (<code>app.render.backend</code>) on a 320x200 <code>TYPE_INT_ARGB</code>
+ * drawbuffer, like the Renderer one: 10 000 sprites (16x16, with a translucent border), 10 000 filled
+ * rectangles and 10 000 lines, drawn with Graphics2D (antialiasing hints on, as set by the Renderer) and with
+ * the {@link Raster}.
+ * <p>
+ * Usage: <code>java benchmarks.RenderBackendBenchmark [nbItems] [nbFrames]</code>
+ */
+public class RenderBackendBenchmark {
+
+    private static final int WIDTH = 320, HEIGHT = 200;
+
+    public static void main(String[] args) {
+        int nbItems = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int nbFrames = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        BufferedImage drawbuffer = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage sprite = createSprite();
+        Random random = new Random(1234);
+        int[] x = new int[nbItems], y = new int[nbItems], x2 = new int[nbItems], y2 = new int[nbItems];
+        Color[] colors = new Color[nbItems];
+        for (int i = 0; i < nbItems; i++) {
+            x[i] = random.nextInt(WIDTH + 16) - 16;
+            y[i] = random.nextInt(HEIGHT + 16) - 16;
+            x2[i] = x[i] + random.nextInt(64) - 32;
+            y2[i] = y[i] + random.nextInt(64) - 32;
+            colors[i] = new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256), 128 + random.nextInt(128));
+        }
+
+        System.out.printf("Drawing %d items into a %dx%d drawbuffer over %d frames%n", nbItems, WIDTH, HEIGHT, nbFrames);
+        System.out.printf("%12s | %12s | %12s | %8s%n", "primitive", "graphics ms", "raster ms", "speedup");
+        Raster raster = new Raster(drawbuffer);
+
+        report("sprites", measure(nbFrames, () -> {
+            Graphics2D g = createGraphics(drawbuffer);
+            for (int i = 0; i < nbItems; i++) {
+                g.drawImage(sprite, x[i], y[i], null);
+            }
+            g.dispose();
+        }), measure(nbFrames, () -> {
+            raster.clear(0);
+            for (int i = 0; i < nbItems; i++) {
+                raster.drawImage(sprite, x[i], y[i]);
+            }
+        }));
+
+        report("rectangles", measure(nbFrames, () -> {
+            Graphics2D g = createGraphics(drawbuffer);
+            for (int i = 0; i < nbItems; i++) {
+                g.setColor(colors[i]);
+                g.fillRect(x[i], y[i], 8, 8);
+            }
+            g.dispose();
+        }), measure(nbFrames, () -> {
+            raster.clear(0);
+            for (int i = 0; i < nbItems; i++) {
+                raster.fillRect(x[i], y[i], 8, 8, colors[i].getRGB(), BlendMode.ALPHA);
+            }
+        }));
+
+        report("lines", measure(nbFrames, () -> {
+            Graphics2D g = createGraphics(drawbuffer);
+            for (int i = 0; i < nbItems; i++) {
+                g.setColor(colors[i]);
+                g.drawLine(x[i], y[i], x2[i], y2[i]);
+            }
+            g.dispose();
+        }), measure(nbFrames, () -> {
+            raster.clear(0);
+            for (int i = 0; i < nbItems; i++) {
+                raster.drawLine(x[i], y[i], x2[i], y2[i], colors[i].getRGB(), BlendMode.ALPHA);
+            }
+        }));
+    }
+
+    private static Graphics2D createGraphics(BufferedImage drawbuffer) {
+        Graphics2D g = drawbuffer.createGraphics();
+        g.setRenderingHints(Map.of(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON));
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        return g;
+    }
+
+    /**
+     * A 16x16 ball, opaque inside with a translucent border.
+     */
+    private static BufferedImage createSprite() {
+        BufferedImage sprite = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = sprite.createGraphics();
+        g.setColor(new Color(255, 200, 0, 96));
+        g.fillOval(0, 0, 16, 16);
+        g.setColor(Color.ORANGE);
+        g.fillOval(2, 2, 12, 12);
+        g.dispose();
+        return sprite;
+    }
+
+    private static double measure(int nbFrames, Runnable frame) {
+        // warm up
+        for (int i = 0; i < nbFrames / 4; i++) {
+            frame.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < nbFrames; i++) {
+            frame.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / nbFrames;
+    }
+
+    private static void report(String name, double graphics, double raster) {
+        System.out.printf("%12s | %12.3f | %12.3f | %7.1fx%n", name, graphics, raster, graphics / raster);
+    }
+}
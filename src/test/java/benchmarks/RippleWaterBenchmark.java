@@ -0,0 +1,59 @@
+package benchmarks;
+
+import com.snapgames.framework.behaviors.RippleWaterSimulator;
+import com.snapgames.framework.entity.GameObject;
+
+import java.util.Random;
+
+/**
+ * Measure the {@link RippleWaterSimulator} step time on a 4096x4096 pixels lake while calm, with a single
+ * splash and with stones falling all over the lake, showing the cost follows the number of active tiles.
+ * <p>
+ * Usage: <code>java benchmarks.RippleWaterBenchmark [nbSteps]</code>
+ */
+public class RippleWaterBenchmark {
+
+    public static void main(String[] args) {
+        int nbSteps = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+
+        System.out.printf("RippleWaterSimulator on a 1024x1024 cells lake, %d steps%n", nbSteps);
+        System.out.printf("%10s | %12s | %14s%n", "scenario", "us/step", "active tiles");
+        for (int splashes : new int[]{0, 1, 64}) {
+            // warm up
+            run(splashes, nbSteps / 4);
+            RippleWaterSimulator<GameObject> water = create();
+            Random random = new Random(1234);
+            long start = System.nanoTime();
+            long activeTiles = 0;
+            for (int i = 0; i < nbSteps; i++) {
+                if (splashes > 0 && i % 20 == 0) {
+                    for (int s = 0; s < splashes; s++) {
+                        water.disturb(random.nextDouble() * 4096, random.nextDouble() * 4096, 20.0);
+                    }
+                }
+                water.step();
+                activeTiles += water.getActiveTileCount();
+            }
+            double time = (System.nanoTime() - start) / 1000.0 / nbSteps;
+            System.out.printf("%10s | %12.3f | %14.1f%n",
+                splashes == 0 ? "calm" : splashes + " stones", time, (double) activeTiles / nbSteps);
+        }
+    }
+
+    private static void run(int splashes, int nbSteps) {
+        RippleWaterSimulator<GameObject> water = create();
+        for (int i = 0; i < nbSteps; i++) {
+            if (splashes > 0 && i % 20 == 0) {
+                water.disturb(2048, 2048, 20.0);
+            }
+            water.step();
+        }
+    }
+
+    private static RippleWaterSimulator<GameObject> create() {
+        GameObject lake = new GameObject("lake").setSize(4096, 4096);
+        RippleWaterSimulator<GameObject> water = new RippleWaterSimulator<>(4, 16, 0.98);
+        water.start(lake);
+        return water;
+    }
+}
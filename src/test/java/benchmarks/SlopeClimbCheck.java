@@ -0,0 +1,56 @@
+package benchmarks;
+
+import com.snapgames.framework.entity.GameObject;
+import com.snapgames.framework.physic.Material;
+import com.snapgames.framework.physic.PhysicEngine;
+import com.snapgames.framework.physic.TileMap;
+import com.snapgames.framework.physic.World;
+import com.snapgames.framework.physic.math.Vector2d;
+
+/**
+ * Check a body walking right climbs the ramp of the demo PlayScene tile map up to the top of the block:
+ * a 16x32 body starts at the foot of the ramp, is pushed to the right on each frame by the
+ * {@link PhysicEngine} with the world gravity, and must end standing on the block top.
+ * <p>
+ * Usage: <code>java benchmarks.SlopeClimbCheck [nbFrames]</code>
+ */
+public class SlopeClimbCheck {
+
+    private static final double FRAME_TIME = 16.0;
+
+    public static void main(String[] args) {
+        int nbFrames = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        // the ramp of the PlayScene: the block top is at row 30, the slopes rise from (33,32) to (35,30).
+        TileMap map = new TileMap(16, 16, 50, 38)
+                .fill(36, 30, 10, 3, TileMap.SOLID)
+                .fill(35, 31, 1, 2, TileMap.SOLID)
+                .fill(34, 32, 1, 1, TileMap.SOLID)
+                .setTile(35, 30, TileMap.SLOPE_UP)
+                .setTile(34, 31, TileMap.SLOPE_UP)
+                .setTile(33, 32, TileMap.SLOPE_UP);
+        BenchmarkScene scene = new BenchmarkScene("slope");
+        World world = new World("world", new Vector2d(0, -0.981)).setSize(800, 600);
+        world.setTileMap(map);
+        scene.setWorld(world);
+        // the bottom center at the bottom left corner of the first slope tile.
+        GameObject body = new GameObject("body")
+                .setSize(16, 32)
+                .setPosition(33 * 16 - 8, 33 * 16 - 32)
+                .setMaterial(new Material("body_mat", 1.0, 1.0, 0.0));
+        scene.add(body);
+
+        PhysicEngine engine = new PhysicEngine(null);
+        double blockTop = 30 * 16, blockLeft = 36 * 16;
+        int frame = 0;
+        for (; frame < nbFrames && body.x < blockLeft; frame++) {
+            body.getVelocity().x = 0.1;
+            engine.update(scene, FRAME_TIME);
+        }
+        boolean reached = body.x >= blockLeft && Math.abs(body.y + body.height - blockTop) < 1e-6;
+        System.out.printf("Climbing the PlayScene ramp with a %dx%d body%n", (int) body.width, (int) body.height);
+        System.out.printf("frames: %d, position: (%.2f, %.2f), bottom: %.2f, block top: %.0f%n",
+                frame, body.x, body.y, body.y + body.height, blockTop);
+        System.out.printf("reached the top of the ramp: %s%n", reached);
+    }
+}
@@ -0,0 +1,59 @@
+package benchmarks;
+
+import com.snapgames.framework.behaviors.WaveWaterSimulator;
+import com.snapgames.framework.entity.GameObject;
+
+import java.util.Arrays;
+
+/**
+ * Measure the {@link WaveWaterSimulator} step time with the scalar and the vector kernels for 100, 1 000 and
+ * 10 000 segments, and check both kernels give bit-identical surfaces.
+ * <p>
+ * Usage: <code>java --add-modules jdk.incubator.vector benchmarks.WaveWaterBenchmark [nbSteps]</code>
+ * (the vector kernels are only built with <code>project.build.vector=true</code> in <code>build.properties</code>).
+ */
+public class WaveWaterBenchmark {
+
+    public static void main(String[] args) {
+        int nbSteps = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+
+        System.out.printf("WaveWaterSimulator, %d steps%n", nbSteps);
+        System.out.printf("%9s | %8s | %12s | %18s | %s%n", "segments", "kernel", "us/step", "Msegment-steps/s", "bit-identical");
+        for (int nbSegments : new int[]{100, 1_000, 10_000}) {
+            double[] reference = null;
+            for (boolean vectorized : new boolean[]{false, true}) {
+                WaveWaterSimulator<GameObject> water = create(nbSegments, vectorized);
+                // warm up
+                for (int i = 0; i < nbSteps / 4; i++) {
+                    water.step();
+                }
+                water = create(nbSegments, vectorized);
+                long start = System.nanoTime();
+                for (int i = 0; i < nbSteps; i++) {
+                    water.step();
+                }
+                double time = (System.nanoTime() - start) / 1000.0 / nbSteps;
+                double[] result = water.getPoints().clone();
+                if (reference == null) {
+                    reference = result;
+                }
+                System.out.printf("%9d | %8s | %12.3f | %18.2f | %s%n", nbSegments, vectorized ? "vector" : "scalar",
+                    time, nbSegments / time, Arrays.equals(reference, result));
+            }
+        }
+    }
+
+    private static WaveWaterSimulator<GameObject> create(int nbSegments, boolean vectorized) {
+        GameObject area = new GameObject("water").setSize(nbSegments * 4, 64);
+        WaveWaterSimulator<GameObject> water = new WaveWaterSimulator<GameObject>(nbSegments, 0.998, 0.025, 0.2)
+            .setVectorized(vectorized);
+        water.start(area);
+        // a few disturbances along the surface.
+        GameObject stone = new GameObject("stone").setMass(20);
+        for (int i = 0; i < 10; i++) {
+            stone.setPosition(area.getWidth() * (i + 0.5) / 10, 0);
+            water.onCollision(area, stone);
+        }
+        return water;
+    }
+}